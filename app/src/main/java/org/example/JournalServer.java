@@ -0,0 +1,282 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP-сервер журналов клуба на com.sun.net.httpserver. Каждый запрос обрабатывается
+ * в отдельном виртуальном потоке, поэтому блокирующее чтение тела и запись ответа не занимают
+ * потоки платформы. Журналы — ConcurrentFishingJournal, запись и чтение идут без общей блокировки.
+ *
+ * <p>Эндпоинты, {user} — имя пользователя рыбака:
+ * <ul>
+ *     <li>POST /journals/{user}/trips — пачка поездок с уловом в формате JournalImporter
+ *     (JSON Lines, или CSV при Content-Type text/csv);</li>
+ *     <li>POST /journals/{user}/catches — пачка уловов к сохраненным поездкам с полем tripId;</li>
+ *     <li>GET /journals/{user}/trips?location=&amp;from=&amp;to=&amp;after=&amp;limit= — страница поездок,
+ *     курсор следующей страницы в заголовке X-Next-After;</li>
+ *     <li>GET /journals/{user}/stats, /species, /baits — итоги журнала, по видам рыб и по приманкам.</li>
+ * </ul>
+ */
+public class JournalServer {
+    private static final Logger logger = LoggerFactory.getLogger(JournalServer.class);
+    private static final String PREFIX = "/journals/";
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 1000;
+
+    static {
+        // Заголовки и тело ответа уходят отдельными записями; с алгоритмом Nagle вторая запись
+        // ждет ACK клиента, и каждый ответ задерживается на время отложенного подтверждения (~40 мс)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final JournalAggregator club;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Queue<ReportRenderer> renderers = new ConcurrentLinkedQueue<>();
+
+    public JournalServer(JournalAggregator club, int port) {
+        this.club = club;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть порт " + port, e);
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(PREFIX, this::handle);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Сервер журналов слушает порт {}", getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Перестает принимать запросы и ждет до delaySeconds завершения начатых.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+        logger.info("Сервер журналов остановлен");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                fail(exchange, 400, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+            } catch (RuntimeException e) {
+                logger.error("Ошибка обработки {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                fail(exchange, 500, "{\"error\":\"Внутренняя ошибка\"}");
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/");
+        if (path.length != 2 || path[0].isEmpty()) {
+            send(exchange, 404, "{\"error\":\"Неизвестный адрес\"}");
+            return;
+        }
+        String user = path[0];
+        String resource = path[1];
+        String method = exchange.getRequestMethod();
+        if ("POST".equals(method) && ("trips".equals(resource) || "catches".equals(resource))) {
+            ingest(exchange, user);
+            return;
+        }
+        if (!"GET".equals(method)) {
+            send(exchange, 405, "{\"error\":\"Метод не поддерживается\"}");
+            return;
+        }
+        ConcurrentFishingJournal journal = club.getJournal(user);
+        if (journal == null) {
+            send(exchange, 404, "{\"error\":\"Нет журнала " + escape(user) + "\"}");
+            return;
+        }
+        switch (resource) {
+            case "trips" -> trips(exchange, journal);
+            case "stats" -> render(exchange, (renderer, out) ->
+                    renderer.renderTotals(journal.getFisherman(), journal.getStatistics(), out));
+            case "species" -> render(exchange, (renderer, out) ->
+                    renderer.renderSpeciesStats(journal.getSpeciesStatistics(),
+                            journal.getSpeciesDistributions(), out));
+            case "baits" -> render(exchange, (renderer, out) ->
+                    renderer.renderBaitEffectiveness(journal.getBaitEffectiveness(), out));
+            default -> send(exchange, 404, "{\"error\":\"Неизвестный адрес\"}");
+        }
+    }
+
+    /**
+     * Ответ с ошибкой. Если заголовки 200 уже ушли и тело пишется потоком, статус не изменить:
+     * ответ обрывается закрытием обмена, и клиент видит незавершенное тело, а не ложный успех.
+     */
+    private static void fail(HttpExchange exchange, int status, String json) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            logger.warn("Ответ на {} оборван после отправки заголовков", exchange.getRequestURI());
+            return;
+        }
+        send(exchange, status, json);
+    }
+
+    /**
+     * Загружает тело запроса в журнал рыбака, создавая журнал при первой записи. Оба адреса загрузки
+     * принимают формат JournalImporter; в пачке уловов без поездок улов без tripId вернется ошибкой строки.
+     */
+    private void ingest(HttpExchange exchange, String user) throws IOException {
+        ConcurrentFishingJournal journal = club.journal(new Fisherman(null, null, user));
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        boolean csv = contentType != null && contentType.startsWith("text/csv");
+        ImportResult result;
+        try (InputStream body = exchange.getRequestBody()) {
+            JournalImporter importer = new JournalImporter(journal);
+            result = csv ? importer.importCsv(Channels.newChannel(body))
+                    : importer.importJsonLines(Channels.newChannel(body));
+        }
+        StringBuilder json = new StringBuilder(64)
+                .append("{\"trips\":").append(result.getTrips())
+                .append(",\"catches\":").append(result.getCatches())
+                .append(",\"errors\":[");
+        List<ImportError> errors = result.getErrors();
+        for (int i = 0; i < errors.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"line\":").append(errors.get(i).getLine())
+                    .append(",\"message\":\"").append(escape(errors.get(i).getMessage())).append("\"}");
+        }
+        json.append("]}");
+        boolean nothingLoaded = result.getTrips() + result.getCatches() == 0;
+        send(exchange, result.hasErrors() && nothingLoaded ? 400 : 200, json.toString());
+    }
+
+    private void trips(HttpExchange exchange, ConcurrentFishingJournal journal) throws IOException {
+        Map<String, String> params = params(exchange.getRequestURI().getRawQuery());
+        TripQuery.Builder builder = TripQuery.builder();
+        if (params.containsKey("location")) {
+            builder.location(params.get("location"));
+        }
+        if (params.containsKey("from") || params.containsKey("to")) {
+            builder.dateRange(LocalDate.parse(params.getOrDefault("from", "")),
+                    LocalDate.parse(params.getOrDefault("to", "")));
+        }
+        long after = Long.parseLong(params.getOrDefault("after", "0"));
+        int limit = Math.min(Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE))),
+                MAX_PAGE);
+        TripPage page = journal.page(builder.build(), after, limit);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (page.hasMore()) {
+            exchange.getResponseHeaders().set("X-Next-After", String.valueOf(page.getNextAfterId()));
+        }
+        exchange.sendResponseHeaders(200, 0);
+        ReportRenderer renderer = renderer();
+        try (OutputStream body = exchange.getResponseBody()) {
+            renderer.renderTrips(page.getTrips(), Channels.newChannel(body));
+        } finally {
+            renderers.offer(renderer);
+        }
+    }
+
+    private void render(HttpExchange exchange, Report report) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        ReportRenderer renderer = renderer();
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            report.render(renderer, out);
+        } finally {
+            renderers.offer(renderer);
+        }
+    }
+
+    /**
+     * Свободный рендерер JSON из пула. ThreadLocal здесь не помог бы: у каждого запроса свой
+     * виртуальный поток. Рендереров в пуле не больше, чем запросов, отвечавших одновременно.
+     */
+    private ReportRenderer renderer() {
+        ReportRenderer renderer = renderers.poll();
+        return renderer != null ? renderer : new ReportRenderer(ReportFormat.JSON);
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    private static Map<String, String> params(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface Report {
+        void render(ReportRenderer renderer, Appendable out) throws IOException;
+    }
+}
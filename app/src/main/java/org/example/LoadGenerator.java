@@ -0,0 +1,168 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный прогон сервера журналов: поднимает сервер на свободном порту, заполняет журналы
+ * и для каждого уровня параллельности гоняет смесь запросов поездок, итогов, загрузок пачек поездок
+ * и пачек улова к уже сохраненным поездкам.
+ * Каждый клиент — виртуальный поток. Выводит пропускную способность и p99 задержки по уровням.
+ *
+ * <p>Аргументы: уровни параллельности (по умолчанию 1 4 16 64 256). Длительность уровня в секундах
+ * задается свойством {@code load.seconds}, по умолчанию 5.
+ */
+public class LoadGenerator {
+    private static final String[] USERS = {"ivan", "petr", "olga", "anna", "oleg", "max", "lena", "igor"};
+    private static final String[] LOCATIONS = {"Озеро Глубокое", "Река Быстрая", "Пруд Тихий", "Залив Северный"};
+    private static final int SEED_BATCHES = 50;
+    private static final int BATCH_TRIPS = 20;
+    private static final int BATCH_CATCHES = 20;
+    private static final int INGEST_PERCENT = 10;
+    private static final int CATCHES_PERCENT = 10;
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 4, 16, 64, 256};
+        long seconds = Long.getLong("load.seconds", 5);
+
+        JournalServer server = new JournalServer(new JournalAggregator(), 0);
+        server.start();
+        String base = "http://localhost:" + server.getPort() + "/journals/";
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            for (String user : USERS) {
+                for (int i = 0; i < SEED_BATCHES; i++) {
+                    send(client, ingest(base, user));
+                }
+            }
+            System.out.printf("Журналов: %d, поездок в каждом: %d%n", USERS.length, SEED_BATCHES * BATCH_TRIPS);
+            System.out.printf("%8s %12s %10s %10s %8s%n", "клиенты", "запросов/с", "p50, мс", "p99, мс", "ошибки");
+            for (int level : levels) {
+                run(client, base, level, seconds);
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void run(HttpClient client, String base, int clients, long seconds) throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = next(base);
+                        long start = System.nanoTime();
+                        try {
+                            if (send(client, request) >= 400) {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latency.record(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        System.out.printf("%8d %12.0f %10.2f %10.2f %8d%n", clients,
+                latency.getCount() / (double) seconds,
+                latency.getValueAtPercentile(50) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6,
+                errors.sum());
+    }
+
+    private static HttpRequest next(String base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String user = USERS[random.nextInt(USERS.length)];
+        int kind = random.nextInt(100);
+        if (kind < INGEST_PERCENT) {
+            return ingest(base, user);
+        }
+        if (kind < INGEST_PERCENT + CATCHES_PERCENT) {
+            return catches(base, user);
+        }
+        String path;
+        if (kind < 60) {
+            String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+            path = "trips?location=" + URLEncoder.encode(location, StandardCharsets.UTF_8)
+                    + "&from=2023-06-01&to=2023-08-31&limit=50";
+        } else if (kind < 80) {
+            path = "stats";
+        } else if (kind < 90) {
+            path = "species";
+        } else {
+            path = "baits";
+        }
+        return HttpRequest.newBuilder(URI.create(base + user + "/" + path)).GET().build();
+    }
+
+    private static HttpRequest ingest(String base, String user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder csv = new StringBuilder(BATCH_TRIPS * 256);
+        for (int i = 0; i < BATCH_TRIPS; i++) {
+            csv.append("trip,").append(String.format("2023-%02d-%02d", 5 + random.nextInt(5), 1 + random.nextInt(28)))
+                    .append(',').append(LOCATIONS[random.nextInt(LOCATIONS.length)]).append(",Водоем")
+                    .append(",Облачно,").append(10 + random.nextInt(20)).append(',').append(random.nextInt(10))
+                    .append(',').append(740 + random.nextInt(30)).append(",4.5")
+                    .append(",Спиннинг,Shimano,2.1 м,Воблер,Rapala,")
+                    .append(random.nextBoolean() ? "Красный" : "Серебро")
+                    .append('\n');
+            int catches = random.nextInt(4);
+            for (int c = 0; c < catches; c++) {
+                boolean perch = random.nextBoolean();
+                csv.append(perch ? "catch,Окунь,Пресноводная,0.1,2.0," : "catch,Щука,Хищная,0.5,15.0,")
+                        .append(perch ? 0.2 + random.nextInt(100) / 100.0 : 1 + random.nextInt(500) / 100.0)
+                        .append(',').append(perch ? 15 + random.nextInt(20) : 40 + random.nextInt(50))
+                        .append('\n');
+            }
+        }
+        return HttpRequest.newBuilder(URI.create(base + user + "/trips"))
+                .header("Content-Type", "text/csv; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build();
+    }
+
+    /**
+     * Пачка улова с tripId к поездкам, загруженным при заполнении журналов.
+     */
+    private static HttpRequest catches(String base, String user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder csv = new StringBuilder(BATCH_CATCHES * 64);
+        for (int i = 0; i < BATCH_CATCHES; i++) {
+            csv.append("catch,Окунь,Пресноводная,0.1,2.0,").append(0.2 + random.nextInt(100) / 100.0)
+                    .append(',').append(15 + random.nextInt(20))
+                    .append(',').append(1 + random.nextInt(SEED_BATCHES * BATCH_TRIPS))
+                    .append('\n');
+        }
+        return HttpRequest.newBuilder(URI.create(base + user + "/catches"))
+                .header("Content-Type", "text/csv; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build();
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -3,7 +3,24 @@ package org.example;
 import java.util.List;
 
 public class Main {
+    private static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Без аргументов запускает сервер журналов на порту 8080, порт можно передать первым аргументом.
+     * Аргумент demo выводит пример работы с журналом в консоль.
+     */
     public static void main(String[] args) {
+        if (args.length > 0 && "demo".equals(args[0])) {
+            demo();
+            return;
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        JournalServer server = new JournalServer(new JournalAggregator(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2)));
+        server.start();
+    }
+
+    private static void demo() {
         // Описание задачи:
         // В этом примере создается система для учета рыбалок. Мы регистрируем рыбака,
         // создаем виды рыб, снасти, места рыбалки, а также записываем рыбалки и улов.
@@ -60,6 +77,4 @@ public class Main {
         List<FishingTrip> julyTrips = journal.filterByDateRange("2023-07-01", "2023-07-31");
         julyTrips.forEach(trip -> journal.printTripReport(trip));
     }
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package org.example.bench;
+
+import org.example.FishSpecies;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Байты на вызов addCatch при выключенном debug. eagerLogArguments добавляет к вызову то, что
+ * addCatch вычислял раньше до проверки уровня: hashCode поездки и массив аргументов debug-сообщения.
+ * Запуск с -prof gc, смотреть gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AddCatchAllocationBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(AddCatchAllocationBenchmark.class);
+
+    private SyntheticData data;
+    private FishingJournal journal;
+    private List<FishingTrip> trips;
+    private FishSpecies species;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpData() {
+        data = new SyntheticData(10_000, 5, 500, 30);
+        species = data.species(3);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpJournal() {
+        journal = null;
+        trips = null;
+        journal = data.newJournal();
+        trips = journal.getTrips();
+        next = 0;
+    }
+
+    @Benchmark
+    public FishingJournal addCatch() {
+        journal.addCatch(trips.get(next++ % trips.size()), species, 1.5, 40);
+        return journal;
+    }
+
+    @Benchmark
+    public FishingJournal eagerLogArguments() {
+        FishingTrip trip = trips.get(next++ % trips.size());
+        logger.debug("Добавление улова: trip={}, species={}, weight={}, length={}",
+                trip != null ? trip.hashCode() : "null", species, 1.5, 40.0);
+        journal.addCatch(trip, species, 1.5, 40);
+        return journal;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.BaitCount;
+import org.example.ConcurrentFishingJournal;
+import org.example.FishSpecies;
+import org.example.Fisherman;
+import org.example.FishingGear;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+import org.example.JournalAggregator;
+import org.example.LeaderboardEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы по клубу из нескольких тысяч журналов при разном размере пула fork-join.
+ * Время запроса должно падать с ростом parallelism, пока хватает ядер.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AggregatorBenchmark {
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"5000"})
+    private int fishermen;
+
+    @Param({"20"})
+    private int tripsPerFisherman;
+
+    private ForkJoinPool pool;
+    private JournalAggregator aggregator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        aggregator = new JournalAggregator(pool);
+        Random random = new Random(42);
+        FishingLocation[] places = new FishingLocation[200];
+        for (int i = 0; i < places.length; i++) {
+            places[i] = new FishingLocation("Озеро " + i, "Описание " + i);
+        }
+        Bait[] baits = new Bait[40];
+        for (int i = 0; i < baits.length; i++) {
+            baits[i] = new Bait("Приманка " + i, "Бренд", "Цвет " + i % 5);
+        }
+        FishSpecies[] species = new FishSpecies[30];
+        for (int i = 0; i < species.length; i++) {
+            species[i] = new FishSpecies("Вид " + i, "Описание", 0.1, 10.0);
+        }
+        FishingGear gear = new FishingGear("Спиннинг", "Shimano", "2.1 м");
+        for (int f = 0; f < fishermen; f++) {
+            ConcurrentFishingJournal journal = aggregator.journal(new Fisherman("Имя", "Фамилия", "user" + f));
+            for (int t = 0; t < tripsPerFisherman; t++) {
+                String date = String.format("20%02d-%02d-15", 15 + random.nextInt(8), 1 + random.nextInt(12));
+                FishingTrip trip = journal.addTrip(date, places[random.nextInt(places.length)], "Солнечно",
+                        20, 3, 755, 4.0, gear, baits[random.nextInt(baits.length)]);
+                for (int c = random.nextInt(6); c > 0; c--) {
+                    journal.addCatch(trip, species[random.nextInt(species.length)], 0.5 + random.nextDouble(), 30);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<FishSpecies, List<BaitCount>> topBaitsPerSpecies() {
+        return aggregator.topBaitsPerSpecies(5);
+    }
+
+    @Benchmark
+    public Map<FishingLocation, Map<YearMonth, Long>> catchesPerLocationPerMonth() {
+        return aggregator.catchesPerLocationPerMonth();
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> leaderboardByWeight() {
+        return aggregator.leaderboardByWeight(100);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.BaitRate;
+import org.example.BaitSlice;
+import org.example.CatchRecord;
+import org.example.FishSpecies;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Month;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Лучшие приманки для вида при заданных давлении, температуре и месяцах: срез куба
+ * против прохода по всем поездкам, как пришлось бы считать без куба.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class BaitCubeBenchmark {
+    @Param({"100000", "1000000"})
+    private int trips;
+
+    private FishingJournal journal;
+    private List<FishingTrip> allTrips;
+    private BaitSlice slice;
+    private FishSpecies fish;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(trips, 5, 500, 30);
+        journal = data.newJournal();
+        allTrips = journal.getTrips();
+        fish = data.species(2);
+        slice = BaitSlice.builder().species(fish).pressure(745, 759).temperature(10, 24.9)
+                .months(Month.MAY, Month.SEPTEMBER).build();
+    }
+
+    @Benchmark
+    public List<BaitRate> cube() {
+        return journal.rankBaits(slice);
+    }
+
+    @Benchmark
+    public Map<Bait, double[]> tripScan() {
+        Map<Bait, double[]> result = new HashMap<>();
+        for (FishingTrip trip : allTrips) {
+            int month = Integer.parseInt(trip.getDate().substring(5, 7));
+            if (trip.getPressure() < 745 || trip.getPressure() > 759
+                    || trip.getTemperature() < 10 || trip.getTemperature() >= 25
+                    || month < Month.MAY.getValue() || month > Month.SEPTEMBER.getValue()) {
+                continue;
+            }
+            double[] cell = result.computeIfAbsent(trip.getBait(), b -> new double[2]);
+            cell[1] += trip.getDuration();
+            for (CatchRecord cr : trip.getCatches()) {
+                if (cr.getSpecies().equals(fish)) {
+                    cell[0]++;
+                }
+            }
+        }
+        return result;
+    }
+}
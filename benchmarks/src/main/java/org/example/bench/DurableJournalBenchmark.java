@@ -0,0 +1,94 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.DurableFishingJournal;
+import org.example.FishSpecies;
+import org.example.Fisherman;
+import org.example.FishingGear;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Пропускная способность записи в DurableFishingJournal и время восстановления при старте.
+ * Запуск: java -Xmx6g -cp benchmarks.jar org.example.bench.DurableJournalBenchmark [уловов] [уловов на поездку]
+ */
+public class DurableJournalBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int catches = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int catchesPerTrip = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int trips = catches / catchesPerTrip;
+        Fisherman fisherman = new Fisherman("Иван", "Сидоров", "ivan_angler");
+
+        Path logsOnly = Files.createTempDirectory("journal-logs");
+        Path withSnapshot = Files.createTempDirectory("journal-snapshot");
+        try {
+            long start = System.nanoTime();
+            try (DurableFishingJournal journal = DurableFishingJournal.open(logsOnly, fisherman, 20, Long.MAX_VALUE)) {
+                fill(journal, trips, catchesPerTrip);
+                journal.sync();
+            }
+            report("запись (только логи)", catches + trips, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (DurableFishingJournal journal = DurableFishingJournal.open(withSnapshot, fisherman, 20,
+                    catches / 4)) {
+                fill(journal, trips, catchesPerTrip);
+                journal.sync();
+            }
+            report("запись (со снимками)", catches + trips, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (DurableFishingJournal journal = DurableFishingJournal.open(logsOnly, fisherman)) {
+                report("старт из логов", journal.getStatistics().getTotalFish() + trips, System.nanoTime() - start);
+            }
+            start = System.nanoTime();
+            try (DurableFishingJournal journal = DurableFishingJournal.open(withSnapshot, fisherman)) {
+                report("старт из снимка", journal.getStatistics().getTotalFish() + trips, System.nanoTime() - start);
+            }
+        } finally {
+            delete(logsOnly);
+            delete(withSnapshot);
+        }
+    }
+
+    private static void fill(DurableFishingJournal journal, int trips, int catchesPerTrip) {
+        FishingLocation[] places = new FishingLocation[100];
+        for (int i = 0; i < places.length; i++) {
+            places[i] = new FishingLocation("Озеро " + i, "Описание " + i);
+        }
+        FishSpecies[] species = new FishSpecies[20];
+        for (int i = 0; i < species.length; i++) {
+            species[i] = new FishSpecies("Вид " + i, "Описание", 0.1, 20.0);
+        }
+        FishingGear gear = new FishingGear("Спиннинг", "Shimano", "2.1 м");
+        Bait bait = new Bait("Воблер", "Rapala", "Красный");
+        LocalDate day = LocalDate.of(2015, 1, 1);
+        for (int t = 0; t < trips; t++) {
+            FishingTrip trip = journal.addTrip(day.plusDays(t / 20).toString(), places[t % places.length],
+                    "Солнечно", 20, 3, 755, 4.0, gear, bait);
+            for (int c = 0; c < catchesPerTrip; c++) {
+                journal.addCatch(trip, species[(t + c) % species.length], 0.5 + c * 0.1, 20 + c);
+            }
+        }
+    }
+
+    private static void report(String phase, long records, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-24s %,12d записей за %7.2f с, %,12.0f записей/с%n",
+                phase, records, seconds, records / seconds);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.bench;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.example.Fisherman;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.example.JournalStorage;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Паузы сборщика мусора и занятая куча журнала с поездками в куче и вне кучи: загрузка журнала,
+ * затем смесь добавления поездок с уловом и фильтров по месту в течение заданного времени.
+ * Паузы берутся из уведомлений GarbageCollectorMXBean, конкурентные циклы G1 не учитываются.
+ * Запуск: java -Xmx3g -cp benchmarks.jar org.example.bench.GcPauses heap|offheap [поездок] [секунд]
+ */
+public class GcPauses {
+    private static final List<Long> pauses = Collections.synchronizedList(new ArrayList<>());
+
+    public static void main(String[] args) {
+        JournalStorage storage = args.length > 0 && "offheap".equals(args[0])
+                ? JournalStorage.OFF_HEAP : JournalStorage.HEAP;
+        int trips = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        listenToPauses();
+
+        // История клуба: около 300 поездок в день, 2 млн поездок — примерно 18 лет
+        SyntheticData data = new SyntheticData(trips, 5, 500, 30, 300, 42);
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"), storage);
+        long start = System.nanoTime();
+        data.fill(journal);
+        long fillMillis = (System.nanoTime() - start) / 1_000_000;
+        report(storage + ", загрузка " + trips + " поездок за " + fillMillis + " мс");
+
+        Random random = new Random(1);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        int added = 0;
+        long found = 0;
+        while (System.nanoTime() < deadline) {
+            FishingTrip trip = data.addTrip(journal, added++, random);
+            for (int c = 0; c < 5; c++) {
+                journal.addCatch(trip, data.species(random.nextInt(30)), 0.2 + random.nextDouble() * 3, 30);
+            }
+            if (added % 200 == 0) {
+                found += journal.filterByLocation(data.location(random.nextInt(500)).getName()).size();
+            }
+        }
+        report(storage + ", работа " + seconds + " с: добавлено поездок " + added + ", найдено " + found);
+
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long direct = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                direct = pool.getMemoryUsed();
+            }
+        }
+        System.out.printf("куча после сборки: %,d МБ, прямые буферы: %,d МБ%n", heap >> 20, direct >> 20);
+    }
+
+    private static void listenToPauses() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc.getName().contains("Concurrent")) {
+                continue;
+            }
+            ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    GarbageCollectionNotificationInfo info =
+                            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                    pauses.add(info.getGcInfo().getDuration());
+                }
+            }, null, null);
+        }
+    }
+
+    /**
+     * Печатает паузы с прошлого отчета: число, сумму, p99 и максимум в миллисекундах.
+     */
+    private static void report(String stage) {
+        List<Long> window;
+        synchronized (pauses) {
+            window = new ArrayList<>(pauses);
+            pauses.clear();
+        }
+        Collections.sort(window);
+        long total = window.stream().mapToLong(Long::longValue).sum();
+        long p99 = window.isEmpty() ? 0 : window.get((int) Math.ceil(window.size() * 0.99) - 1);
+        long max = window.isEmpty() ? 0 : window.get(window.size() - 1);
+        System.out.printf("%s%n  пауз: %d, всего %d мс, p99 %d мс, максимум %d мс%n",
+                stage, window.size(), total, p99, max);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.ColumnarCatchStore;
+import org.example.FishSpecies;
+import org.example.Fisherman;
+import org.example.FishingGear;
+import org.example.FishingJournal;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+
+/**
+ * Замер занятой кучи на один улов: объектная модель журнала против ColumnarCatchStore.
+ * Запуск: java -Xmx4g -cp benchmarks.jar org.example.bench.HeapFootprint [поездок] [уловов на поездку]
+ */
+public class HeapFootprint {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int trips = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int catchesPerTrip = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long catches = (long) trips * catchesPerTrip;
+
+        long before = usedHeap();
+        FishingJournal journal = fillJournal(trips, catchesPerTrip);
+        long journalBytes = usedHeap() - before;
+
+        before = usedHeap();
+        ColumnarCatchStore store = ColumnarCatchStore.of(journal);
+        store.trimToSize();
+        long storeBytes = usedHeap() - before;
+
+        System.out.printf("поездок: %d, уловов: %d%n", trips, catches);
+        System.out.printf("FishingJournal:     %,d байт, %.1f байт на улов%n",
+                journalBytes, (double) journalBytes / catches);
+        System.out.printf("ColumnarCatchStore: %,d байт, %.1f байт на улов%n",
+                storeBytes, (double) storeBytes / catches);
+        if (journal.getTrips().size() != store.tripCount()) {
+            throw new IllegalStateException();
+        }
+    }
+
+    static FishingJournal fillJournal(int trips, int catchesPerTrip) {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        FishingLocation[] places = new FishingLocation[100];
+        for (int i = 0; i < places.length; i++) {
+            places[i] = new FishingLocation("Озеро " + i, "Описание " + i);
+        }
+        FishSpecies[] species = new FishSpecies[20];
+        for (int i = 0; i < species.length; i++) {
+            species[i] = new FishSpecies("Вид " + i, "Описание", 0.1, 20.0);
+        }
+        FishingGear gear = new FishingGear("Спиннинг", "Shimano", "2.1 м");
+        Bait bait = new Bait("Воблер", "Rapala", "Красный");
+        LocalDate day = LocalDate.of(2015, 1, 1);
+        for (int t = 0; t < trips; t++) {
+            FishingTrip trip = journal.addTrip(day.plusDays(t / 20).toString(), places[t % places.length],
+                    "Солнечно", 20, 3, 755, 4.0, gear, bait);
+            for (int c = 0; c < catchesPerTrip; c++) {
+                journal.addCatch(trip, species[(t + c) % species.length], 0.5 + c * 0.1, 20 + c);
+            }
+        }
+        return journal;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
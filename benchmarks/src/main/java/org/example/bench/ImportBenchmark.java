@@ -0,0 +1,97 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.FishSpecies;
+import org.example.Fisherman;
+import org.example.FishingGear;
+import org.example.FishingJournal;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+import org.example.ImportResult;
+import org.example.JournalImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовая загрузка CSV через JournalImporter против построчного разбора и поштучных addTrip/addCatch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+    @Param({"100000"})
+    private int trips;
+
+    @Param({"5"})
+    private int catchesPerTrip;
+
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder out = new StringBuilder();
+        LocalDate day = LocalDate.of(2015, 1, 1);
+        for (int t = 0; t < trips; t++) {
+            out.append("trip,").append(day.plusDays(t / 20)).append(",Озеро ").append(t % 100)
+                    .append(",Описание,Солнечно,20.5,3,755,4.0,Спиннинг,Shimano,2.1 м,Воблер,Rapala,Красный\n");
+            for (int c = 0; c < catchesPerTrip; c++) {
+                out.append("catch,Вид ").append((t + c) % 20).append(",Описание,0.1,20,")
+                        .append(0.5 + c * 0.1).append(',').append(20 + c).append('\n');
+            }
+        }
+        csv = out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ImportResult bulkImport() {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        return new JournalImporter(journal).importCsv(Channels.newChannel(new ByteArrayInputStream(csv)));
+    }
+
+    /**
+     * Наивная загрузка того же файла: построчное чтение, split и поштучные addTrip/addCatch.
+     */
+    @Benchmark
+    public FishingJournal perCallIngest() throws IOException {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        FishingTrip trip = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] f = line.split(",", -1);
+                if (f[0].equals("trip")) {
+                    trip = journal.addTrip(f[1], new FishingLocation(f[2], f[3]), f[4], Double.parseDouble(f[5]),
+                            Integer.parseInt(f[6]), Integer.parseInt(f[7]), Double.parseDouble(f[8]),
+                            new FishingGear(f[9], f[10], f[11]), new Bait(f[12], f[13], f[14]));
+                } else {
+                    journal.addCatch(trip, new FishSpecies(f[1], f[2], Double.parseDouble(f[3]),
+                            Double.parseDouble(f[4])), Double.parseDouble(f[5]), Double.parseDouble(f[6]));
+                }
+            }
+        }
+        return journal;
+    }
+}
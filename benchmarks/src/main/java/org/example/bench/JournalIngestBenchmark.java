@@ -0,0 +1,81 @@
+package org.example.bench;
+
+import org.example.FishSpecies;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Добавление поездок и уловов в журнал, уже содержащий trips поездок.
+ * Журнал пересоздается перед каждой итерацией, чтобы его размер не уходил далеко от заданного.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class JournalIngestBenchmark {
+    @Param({"10000", "1000000"})
+    private int trips;
+
+    @Param({"5"})
+    private int catchesPerTrip;
+
+    @Param({"500"})
+    private int locations;
+
+    @Param({"30"})
+    private int species;
+
+    private SyntheticData data;
+    private FishingJournal journal;
+    private List<FishingTrip> existing;
+    private Random random;
+    private int nextTrip;
+    private int nextCatch;
+
+    @Setup(Level.Trial)
+    public void setUpData() {
+        data = new SyntheticData(trips, catchesPerTrip, locations, species);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpJournal() {
+        journal = null;
+        existing = null;
+        journal = data.newJournal();
+        existing = journal.getTrips();
+        random = new Random(7);
+        nextTrip = trips;
+        nextCatch = 0;
+    }
+
+    @Benchmark
+    public FishingTrip addTrip() {
+        return data.addTrip(journal, nextTrip++, random);
+    }
+
+    @Benchmark
+    public FishingJournal addCatch() {
+        FishingTrip trip = existing.get(nextCatch++ % existing.size());
+        FishSpecies fish = data.species(nextCatch % species);
+        journal.addCatch(trip, fish, 1.5, 40);
+        return journal;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.bench;
+
+import org.example.FishSpecies;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.example.JournalStatistics;
+import org.example.SpeciesStatistics;
+import org.example.TripPage;
+import org.example.TripQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Фильтры, выдача поездок и статистика журнала на синтетических данных разного размера.
+ * Диапазон дат покрывает 30 дней в середине журнала, место ищется по полному названию.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class JournalQueryBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int trips;
+
+    @Param({"5"})
+    private int catchesPerTrip;
+
+    @Param({"500"})
+    private int locations;
+
+    @Param({"30"})
+    private int species;
+
+    private FishingJournal journal;
+    private String location;
+    private String from;
+    private String to;
+    private FishSpecies fish;
+    private TripQuery all;
+    private TripQuery byLocation;
+    private long middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(trips, catchesPerTrip, locations, species);
+        journal = data.newJournal();
+        location = data.location(locations / 2).getName();
+        int middleDay = data.days() / 2;
+        from = SyntheticData.FIRST_DAY.plusDays(middleDay).toString();
+        to = SyntheticData.FIRST_DAY.plusDays(middleDay + 29).toString();
+        fish = data.species(0);
+        all = TripQuery.builder().build();
+        byLocation = TripQuery.builder().location(location).build();
+        middleId = trips / 2;
+    }
+
+    @Benchmark
+    public List<FishingTrip> filterByLocation() {
+        return journal.filterByLocation(location);
+    }
+
+    @Benchmark
+    public List<FishingTrip> filterByDateRange() {
+        return journal.filterByDateRange(from, to);
+    }
+
+    @Benchmark
+    public List<FishingTrip> filterByLocationAndDate() {
+        return journal.filterByLocationAndDate(location, from, to);
+    }
+
+    @Benchmark
+    public List<FishingTrip> getTrips() {
+        return journal.getTrips();
+    }
+
+    @Benchmark
+    public JournalStatistics getStatistics() {
+        return journal.getStatistics();
+    }
+
+    @Benchmark
+    public SpeciesStatistics getSpeciesStatistics() {
+        return journal.getSpeciesStatistics(fish);
+    }
+
+    @Benchmark
+    public List<SpeciesStatistics> getAllSpeciesStatistics() {
+        return journal.getSpeciesStatistics();
+    }
+
+    @Benchmark
+    public TripPage pageOfAllTrips() {
+        return journal.page(all, middleId, 50);
+    }
+
+    @Benchmark
+    public TripPage pageByLocation() {
+        return journal.page(byLocation, middleId, 50);
+    }
+
+    @Benchmark
+    public List<FishingTrip> streamFirst50ByLocation() {
+        return journal.stream(byLocation).limit(50).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.Fisherman;
+import org.example.FishingGear;
+import org.example.FishingJournal;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по подстроке названия места: индекс журнала против полного прохода по поездкам,
+ * как filterByLocation работал до появления индекса.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class LocationFilterBenchmark {
+    private static final String[] LAKES = {"Озеро", "Река", "Пруд", "Водохранилище", "Залив"};
+
+    @Param({"100000", "1000000"})
+    private int trips;
+
+    @Param({"500"})
+    private int locations;
+
+    @Param({"Озеро Глубокое 17", "река", "ру"})
+    private String term;
+
+    private FishingJournal journal;
+    private List<FishingTrip> allTrips;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        FishingLocation[] places = new FishingLocation[locations];
+        for (int i = 0; i < locations; i++) {
+            places[i] = new FishingLocation(LAKES[i % LAKES.length] + " Глубокое " + i, "Описание " + i);
+        }
+        FishingGear gear = new FishingGear("Спиннинг", "Shimano", "2.1 м");
+        Bait bait = new Bait("Воблер", "Rapala", "Красный");
+        LocalDate day = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < trips; i++) {
+            journal.addTrip(day.plusDays(i / 50).toString(), places[i % locations], "Солнечно",
+                    20, 3, 755, 4.0, gear, bait);
+        }
+        allTrips = journal.getTrips();
+    }
+
+    @Benchmark
+    public List<FishingTrip> indexed() {
+        return journal.filterByLocation(term);
+    }
+
+    @Benchmark
+    public List<FishingTrip> linearScan() {
+        String searchTerm = term.toLowerCase();
+        return allTrips.stream()
+                .filter(trip -> trip.getLocation().getName().toLowerCase().contains(searchTerm))
+                .collect(Collectors.toList());
+    }
+}
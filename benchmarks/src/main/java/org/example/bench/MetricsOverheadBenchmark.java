@@ -0,0 +1,77 @@
+package org.example.bench;
+
+import org.example.FishSpecies;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.example.JournalStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена метрик: самые частые операции журнала с включенными метриками и без них.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private SyntheticData data;
+    private FishingJournal journal;
+    private List<FishingTrip> existing;
+    private String location;
+    private int nextCatch;
+
+    @Setup(Level.Trial)
+    public void setUpData() {
+        data = new SyntheticData(100_000, 5, 500, 30);
+        location = data.location(250).getName();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpJournal() {
+        journal = null;
+        existing = null;
+        journal = data.newJournal();
+        if (metrics) {
+            journal.enableMetrics();
+        }
+        existing = journal.getTrips();
+        nextCatch = 0;
+    }
+
+    @Benchmark
+    public FishingJournal addCatch() {
+        FishingTrip trip = existing.get(nextCatch++ % existing.size());
+        FishSpecies fish = data.species(nextCatch % 30);
+        journal.addCatch(trip, fish, 1.5, 40);
+        return journal;
+    }
+
+    @Benchmark
+    public List<FishingTrip> filterByLocation() {
+        return journal.filterByLocation(location);
+    }
+
+    @Benchmark
+    public JournalStatistics getStatistics() {
+        return journal.getStatistics();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.bench;
+
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Повторные фильтры по месту и датам с кешем запросов и без него.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class QueryCacheBenchmark {
+    @Param({"100000", "1000000"})
+    private int trips;
+
+    private FishingJournal plain;
+    private FishingJournal cached;
+    private String location;
+    private String from;
+    private String to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(trips, 5, 500, 30);
+        plain = data.newJournal();
+        cached = data.newJournal();
+        cached.enableQueryCache(256);
+        location = data.location(250).getName();
+        int middleDay = data.days() / 2;
+        from = SyntheticData.FIRST_DAY.plusDays(middleDay).toString();
+        to = SyntheticData.FIRST_DAY.plusDays(middleDay + 29).toString();
+    }
+
+    @Benchmark
+    public List<FishingTrip> locationUncached() {
+        return plain.filterByLocation(location);
+    }
+
+    @Benchmark
+    public List<FishingTrip> locationCached() {
+        return cached.filterByLocation(location);
+    }
+
+    @Benchmark
+    public List<FishingTrip> dateRangeUncached() {
+        return plain.filterByDateRange(from, to);
+    }
+
+    @Benchmark
+    public List<FishingTrip> dateRangeCached() {
+        return cached.filterByDateRange(from, to);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.bench;
+
+import org.example.CatchRecord;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.example.ReportFormat;
+import org.example.ReportRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отчеты по 1000 поездкам с пятью уловами: ReportRenderer в канал против прежнего способа
+ * printTripReport — StringBuilder, String.format и toString сущностей, вывод в PrintStream.
+ * Вывод уходит в приемник, который отбрасывает байты.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+    private List<FishingTrip> trips;
+    private ReportRenderer text;
+    private ReportRenderer json;
+    private WritableByteChannel discard;
+    private PrintStream discardStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FishingJournal journal = new SyntheticData(1000, 5, 50, 20).newJournal();
+        trips = journal.getTrips();
+        text = new ReportRenderer(ReportFormat.TEXT);
+        json = new ReportRenderer(ReportFormat.JSON);
+        discard = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                int n = src.remaining();
+                src.position(src.limit());
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        discardStream = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void rendererText() throws IOException {
+        text.renderTrips(trips, discard);
+    }
+
+    @Benchmark
+    public void rendererJson() throws IOException {
+        json.renderTrips(trips, discard);
+    }
+
+    @Benchmark
+    public void stringFormat() {
+        for (FishingTrip trip : trips) {
+            StringBuilder report = new StringBuilder();
+            report.append("Дата: ").append(trip.getDate()).append("\n");
+            report.append("Место: ").append(trip.getLocation()).append("\n");
+            report.append("Погода: ").append(trip.getWeatherConditions()).append("\n");
+            report.append("Длительность: ").append(trip.getDuration()).append(" часов\n");
+            report.append("Снасть: ").append(trip.getGear()).append("\n");
+            report.append("Приманка: ").append(trip.getBait()).append("\n");
+            report.append("\nУлов (").append(trip.getTotalFish()).append(" рыб, ")
+                    .append(String.format("%.2f", trip.getTotalWeight())).append(" кг):\n");
+            for (CatchRecord cr : trip.getCatches()) {
+                report.append(" - ").append(cr).append("\n");
+            }
+            discardStream.println(report);
+        }
+    }
+}
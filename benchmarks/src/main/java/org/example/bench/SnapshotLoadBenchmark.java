@@ -0,0 +1,133 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.CatchRecord;
+import org.example.FishingGear;
+import org.example.FishingJournal;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+import org.example.ImportResult;
+import org.example.JournalImporter;
+import org.example.JournalSnapshot;
+import org.example.TripQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Холодная загрузка журнала: импорт эквивалентного JSON Lines против двоичного снимка.
+ * Для снимка замеряются полная материализация и время до ответа на первый запрос по месту.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class SnapshotLoadBenchmark {
+    @Param({"100000", "1000000"})
+    private int trips;
+
+    private Path directory;
+    private Path json;
+    private Path snapshot;
+    private TripQuery byLocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticData data = new SyntheticData(trips, 5, 500, 30);
+        FishingJournal journal = data.newJournal();
+        directory = Files.createTempDirectory("snapshot-bench");
+        json = directory.resolve("journal.jsonl");
+        snapshot = directory.resolve("journal.snap");
+        writeJsonLines(journal, json);
+        JournalSnapshot.write(journal, snapshot);
+        byLocation = TripQuery.builder().location(data.location(250).getName()).build();
+        System.out.printf("%nJSON Lines: %,d байт, снимок: %,d байт%n", Files.size(json), Files.size(snapshot));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public FishingJournal jsonLinesImport() throws IOException {
+        FishingJournal journal = new FishingJournal(null);
+        try (FileChannel channel = FileChannel.open(json, StandardOpenOption.READ)) {
+            ImportResult result = new JournalImporter(journal).importJsonLines(channel);
+            if (!result.getErrors().isEmpty()) {
+                throw new IllegalStateException(result.getErrors().get(0).toString());
+            }
+        }
+        return journal;
+    }
+
+    @Benchmark
+    public FishingJournal snapshotToJournal() {
+        return JournalSnapshot.open(snapshot).toJournal();
+    }
+
+    @Benchmark
+    public List<FishingTrip> snapshotFirstQuery() {
+        return JournalSnapshot.open(snapshot).query(byLocation);
+    }
+
+    private static void writeJsonLines(FishingJournal journal, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (FishingTrip trip : journal.getTrips()) {
+                FishingLocation location = trip.getLocation();
+                FishingGear gear = trip.getGear();
+                Bait bait = trip.getBait();
+                out.write("{\"type\":\"trip\",\"date\":" + quote(trip.getDate())
+                        + ",\"location\":" + quote(location.getName())
+                        + ",\"locationDescription\":" + quote(location.getDescription())
+                        + ",\"weather\":" + quote(trip.getWeatherConditions())
+                        + ",\"temperature\":" + trip.getTemperature()
+                        + ",\"windSpeed\":" + trip.getWindSpeed()
+                        + ",\"pressure\":" + trip.getPressure()
+                        + ",\"duration\":" + trip.getDuration()
+                        + ",\"gearType\":" + quote(gear.getType())
+                        + ",\"gearBrand\":" + quote(gear.getBrand())
+                        + ",\"gearSpecifications\":" + quote(gear.getSpecifications())
+                        + ",\"baitType\":" + quote(bait.getType())
+                        + ",\"baitBrand\":" + quote(bait.getBrand())
+                        + ",\"baitColor\":" + quote(bait.getColor()) + "}\n");
+                for (CatchRecord cr : trip.getCatches()) {
+                    out.write("{\"type\":\"catch\",\"species\":" + quote(cr.getSpecies().getName())
+                            + ",\"speciesDescription\":" + quote(cr.getSpecies().getDescription())
+                            + ",\"minWeight\":" + cr.getSpecies().getMinWeight()
+                            + ",\"maxWeight\":" + cr.getSpecies().getMaxWeight()
+                            + ",\"weight\":" + cr.getWeight()
+                            + ",\"length\":" + cr.getLength() + "}\n");
+                }
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.bench;
+
+import org.example.CatchRecord;
+import org.example.FishSpecies;
+import org.example.FishingJournal;
+import org.example.FishingTrip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * p99 веса вида рыбы: точный расчет с сортировкой всех уловов вида против скетча, который
+ * журнал обновляет при добавлении улова.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class SpeciesPercentileBenchmark {
+    @Param({"100000", "1000000"})
+    private int trips;
+
+    private FishingJournal journal;
+    private FishSpecies species;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(trips, 5, 500, 30);
+        journal = data.newJournal();
+        species = data.species(3);
+    }
+
+    @Benchmark
+    public double exactSort() {
+        double[] weights = new double[64];
+        int size = 0;
+        for (FishingTrip trip : journal.getTrips()) {
+            for (CatchRecord cr : trip.getCatches()) {
+                if (cr.getSpecies().equals(species)) {
+                    if (size == weights.length) {
+                        weights = Arrays.copyOf(weights, size * 2);
+                    }
+                    weights[size++] = cr.getWeight();
+                }
+            }
+        }
+        Arrays.sort(weights, 0, size);
+        return weights[(int) Math.ceil(size * 0.99) - 1];
+    }
+
+    @Benchmark
+    public double sketch() {
+        return journal.getSpeciesDistributions().get(species).getWeightQuantile(0.99);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.bench;
+
+import org.example.Bait;
+import org.example.FishSpecies;
+import org.example.Fisherman;
+import org.example.FishingGear;
+import org.example.FishingJournal;
+import org.example.FishingLocation;
+import org.example.FishingTrip;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Генератор синтетического журнала для бенчмарков. Данные детерминированы: одинаковые параметры
+ * и seed дают один и тот же журнал. Поездки идут по дням, по tripsPerDay поездок в день.
+ */
+public class SyntheticData {
+    public static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final String[] WATERS = {"Озеро", "Река", "Пруд", "Водохранилище", "Залив"};
+    private static final String[] WEATHER = {"Солнечно", "Облачно", "Дождь", "Туман", "Ветрено"};
+
+    private final int trips;
+    private final int catchesPerTrip;
+    private final int tripsPerDay;
+    private final FishingLocation[] locations;
+    private final FishSpecies[] species;
+    private final FishingGear[] gears;
+    private final Bait[] baits;
+    private final long seed;
+
+    public SyntheticData(int trips, int catchesPerTrip, int locations, int species) {
+        this(trips, catchesPerTrip, locations, species, 20, 42);
+    }
+
+    public SyntheticData(int trips, int catchesPerTrip, int locations, int species, int tripsPerDay, long seed) {
+        this.trips = trips;
+        this.catchesPerTrip = catchesPerTrip;
+        this.tripsPerDay = tripsPerDay;
+        this.seed = seed;
+        this.locations = new FishingLocation[locations];
+        for (int i = 0; i < locations; i++) {
+            this.locations[i] = new FishingLocation(WATERS[i % WATERS.length] + " Глубокое " + i, "Описание " + i);
+        }
+        this.species = new FishSpecies[species];
+        for (int i = 0; i < species; i++) {
+            this.species[i] = new FishSpecies("Вид " + i, "Описание " + i, 0.1, 20.0);
+        }
+        this.gears = new FishingGear[8];
+        for (int i = 0; i < gears.length; i++) {
+            gears[i] = new FishingGear("Снасть " + i, "Бренд " + i % 3, "Характеристики " + i);
+        }
+        this.baits = new Bait[16];
+        for (int i = 0; i < baits.length; i++) {
+            baits[i] = new Bait("Приманка " + i, "Бренд " + i % 4, "Цвет " + i % 5);
+        }
+    }
+
+    public FishingJournal newJournal() {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        fill(journal);
+        return journal;
+    }
+
+    /**
+     * Добавляет в журнал все поездки и уловы набора.
+     */
+    public void fill(FishingJournal journal) {
+        Random random = new Random(seed);
+        for (int t = 0; t < trips; t++) {
+            FishingTrip trip = addTrip(journal, t, random);
+            for (int c = 0; c < catchesPerTrip; c++) {
+                journal.addCatch(trip, species[random.nextInt(species.length)],
+                        0.2 + random.nextDouble() * 3, 15 + random.nextInt(60));
+            }
+        }
+    }
+
+    /**
+     * Добавляет поездку с порядковым номером t; дата и место выводятся из номера.
+     */
+    public FishingTrip addTrip(FishingJournal journal, int t, Random random) {
+        return journal.addTrip(date(t), locations[t % locations.length], WEATHER[random.nextInt(WEATHER.length)],
+                -5 + random.nextInt(35), random.nextInt(15), 730 + random.nextInt(50),
+                1 + random.nextInt(10), gears[random.nextInt(gears.length)], baits[random.nextInt(baits.length)]);
+    }
+
+    public String date(int trip) {
+        return FIRST_DAY.plusDays(trip / tripsPerDay).toString();
+    }
+
+    public int trips() {
+        return trips;
+    }
+
+    public int days() {
+        return (trips + tripsPerDay - 1) / tripsPerDay;
+    }
+
+    public FishingLocation location(int i) {
+        return locations[i];
+    }
+
+    public FishSpecies species(int i) {
+        return species[i];
+    }
+}
@@ -0,0 +1,112 @@
+package org.example;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Список только для добавления с несколькими писателями. Элементы лежат в блоках удваивающегося
+ * размера, поэтому рост не копирует данные. Писатель резервирует слот атомарным счетчиком
+ * и записывает элемент без блокировок, но публикует его строго по порядку: он ждет, пока опубликуются
+ * все предыдущие слоты. Поэтому список не lock-free — остановленный писатель задерживает следующих, —
+ * зато читатель без блокировок всегда видит непрерывный префикс без пропусков.
+ */
+class AppendOnlyList<T> {
+    private static final int FIRST_BLOCK_SHIFT = 4;
+    private static final int FIRST_BLOCK = 1 << FIRST_BLOCK_SHIFT;
+    private static final int MAX_BLOCKS = 27;
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final AtomicReferenceArray<Object[]> blocks = new AtomicReferenceArray<>(MAX_BLOCKS);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * Добавляет элемент и возвращает его индекс.
+     */
+    int append(T element) {
+        return append(index -> element);
+    }
+
+    /**
+     * Создает элемент по зарезервированному индексу и добавляет его. Элемент становится виден
+     * читателям уже созданным, поэтому в нем можно хранить собственный индекс.
+     * Фабрика не должна бросать исключений: незаполненный слот остановил бы следующих писателей.
+     */
+    int append(IntFunction<T> factory) {
+        int index = reserved.getAndIncrement();
+        int block = index < 0 ? MAX_BLOCKS : blockOf(index);
+        if (block >= MAX_BLOCKS) {
+            throw new IllegalStateException("Список переполнен");
+        }
+        Object[] items = blocks.get(block);
+        if (items == null) {
+            blocks.compareAndSet(block, null, new Object[FIRST_BLOCK << block]);
+            items = blocks.get(block);
+        }
+        items[offsetOf(index, block)] = factory.apply(index);
+
+        int spins = 0;
+        while (published.get() != index) {
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        published.set(index + 1);
+        return index;
+    }
+
+    /**
+     * Число опубликованных элементов.
+     */
+    int size() {
+        return published.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        int block = blockOf(index);
+        return (T) blocks.get(block)[offsetOf(index, block)];
+    }
+
+    /**
+     * Неизменяемое представление элементов, опубликованных к моменту вызова, без копирования.
+     */
+    List<T> snapshot() {
+        return new Snapshot(size());
+    }
+
+    private static int blockOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_BLOCK_SHIFT) + 1);
+    }
+
+    private static int offsetOf(int index, int block) {
+        return index - (FIRST_BLOCK << block) + FIRST_BLOCK;
+    }
+
+    private final class Snapshot extends AbstractList<T> implements RandomAccess {
+        private final int size;
+
+        private Snapshot(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return AppendOnlyList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
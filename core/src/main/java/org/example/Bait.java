@@ -1,12 +1,34 @@
 package org.example;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 
-@Data
+/**
+ * Приманка. Неизменяема; хеш вычисляется один раз, так как приманки служат ключами счетчиков.
+ */
+@Value
 @AllArgsConstructor
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class Bait {
-    private String type;
-    private String brand;
-    private String color;
+    private static final Interner<Bait> INTERNER = new Interner<>();
+
+    String type;
+    String brand;
+    String color;
+
+    /**
+     * Канонический экземпляр приманки: для равных значений возвращается один и тот же объект.
+     */
+    public static Bait of(String type, String brand, String color) {
+        return INTERNER.intern(new Bait(type, brand, color));
+    }
+
+    /**
+     * Канонический экземпляр равного значения, null для null. Журналы так заменяют значения,
+     * созданные конструктором, поэтому в данных журнала равные значения — один объект.
+     */
+    static Bait canonical(Bait bait) {
+        return bait == null ? null : INTERNER.intern(bait);
+    }
 }
@@ -0,0 +1,12 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Сколько рыб поймано на приманку.
+ */
+@Value
+public class BaitCount {
+    Bait bait;
+    long count;
+}
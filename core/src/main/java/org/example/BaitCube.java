@@ -0,0 +1,212 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Предагрегированный куб результативности приманок. Измерения: приманка, вид рыбы, месяц, погода
+ * и корзины температуры, ветра и давления. Для каждого сочетания приманки, вида, месяца и погоды
+ * хранится плотный блок счетчиков по корзинам условий; блоки лежат в таблице с ключом long.
+ * Отдельные блоки хранят улов всех видов вместе и часы рыбалки, которые от вида не зависят.
+ * Срез суммирует только выбранные корзины нужных блоков, поэтому его стоимость зависит от ширины
+ * среза, а не от числа поездок или заполненных ячеек.
+ */
+class BaitCube {
+    static final int TEMPERATURE_STEP = 5;
+    static final int WIND_STEP = 3;
+    static final int PRESSURE_STEP = 5;
+    // Крайние корзины принимают все значения за пределами диапазона
+    private static final int TEMPERATURE_MIN = -10;
+    private static final int TEMPERATURE_BUCKETS = 10;
+    private static final int WIND_BUCKETS = 7;
+    private static final int PRESSURE_MIN = 725;
+    private static final int PRESSURE_BUCKETS = 13;
+    private static final int CELLS = TEMPERATURE_BUCKETS * WIND_BUCKETS * PRESSURE_BUCKETS;
+    private static final int UNKNOWN_MONTH = 12;
+    private static final int ALL_SPECIES = 0;
+
+    // Разряды ключа блока от младших к старшим: погода, месяц, вид, приманка
+    private static final int WEATHER_BITS = 16;
+    private static final int MONTH_BITS = 4;
+    private static final int SPECIES_BITS = 16;
+    private static final int BAIT_BITS = 24;
+
+    private final DictionaryEncoder<Bait> baits = new DictionaryEncoder<>();
+    private final DictionaryEncoder<FishSpecies> species = new DictionaryEncoder<>();
+    private final DictionaryEncoder<String> weather = new DictionaryEncoder<>();
+    private final LongObjectMap<int[]> catchBlocks = new LongObjectMap<>();
+    private final LongObjectMap<double[]> hourBlocks = new LongObjectMap<>();
+
+    /**
+     * Учитывает часы поездки. Поездки без приманки в куб не попадают.
+     */
+    void addTrip(FishingTrip trip) {
+        if (trip.getBait() == null) {
+            return;
+        }
+        long key = blockKey(trip, ALL_SPECIES);
+        double[] block = hourBlocks.get(key);
+        if (block == null) {
+            block = new double[CELLS];
+            hourBlocks.put(key, block);
+        }
+        block[cell(trip)] += trip.getDuration();
+    }
+
+    void addCatch(FishingTrip trip, FishSpecies fish) {
+        if (trip.getBait() == null) {
+            return;
+        }
+        int speciesSlot = species.encode(fish) + 1;
+        if (speciesSlot >= 1 << SPECIES_BITS) {
+            throw new IllegalStateException("Слишком много видов рыб для куба приманок");
+        }
+        long allKey = blockKey(trip, ALL_SPECIES);
+        int cell = cell(trip);
+        increment(allKey, cell);
+        increment(allKey | (long) speciesSlot << (WEATHER_BITS + MONTH_BITS), cell);
+    }
+
+    /**
+     * Приманки по убыванию числа рыб в час в срезе условий.
+     */
+    List<BaitRate> rank(BaitSlice slice) {
+        int speciesSlot = ALL_SPECIES;
+        if (slice.getSpecies() != null) {
+            speciesSlot = species.idOf(slice.getSpecies()) + 1;
+        }
+        int[] weatherIds = weatherIds(slice.getWeatherConditions());
+        int firstMonth = slice.getFirstMonth() == null ? 0 : slice.getFirstMonth().ordinal();
+        int lastMonth = slice.getLastMonth() == null ? UNKNOWN_MONTH : slice.getLastMonth().ordinal();
+        int minTemperature = temperatureBucket(slice.getMinTemperature());
+        int maxTemperature = temperatureBucket(slice.getMaxTemperature());
+        int minWind = windBucket(slice.getMinWindSpeed());
+        int maxWind = windBucket(slice.getMaxWindSpeed());
+        int minPressure = pressureBucket(slice.getMinPressure());
+        int maxPressure = pressureBucket(slice.getMaxPressure());
+
+        List<BaitRate> result = new ArrayList<>();
+        for (int bait = 0; bait < baits.size(); bait++) {
+            long catches = 0;
+            double hours = 0;
+            for (int month = firstMonth; month <= lastMonth; month++) {
+                for (int weatherId : weatherIds) {
+                    long key = blockKey(bait, ALL_SPECIES, month, weatherId);
+                    double[] hourBlock = hourBlocks.get(key);
+                    if (hourBlock == null) {
+                        continue;
+                    }
+                    // speciesSlot 0 — вид, который еще не ловился: часы есть, улова нет
+                    int[] catchBlock = slice.getSpecies() != null && speciesSlot == 0 ? null
+                            : catchBlocks.get(key | (long) speciesSlot << (WEATHER_BITS + MONTH_BITS));
+                    for (int t = minTemperature; t <= maxTemperature; t++) {
+                        for (int w = minWind; w <= maxWind; w++) {
+                            int from = (t * WIND_BUCKETS + w) * PRESSURE_BUCKETS;
+                            for (int cell = from + minPressure; cell <= from + maxPressure; cell++) {
+                                hours += hourBlock[cell];
+                                if (catchBlock != null) {
+                                    catches += catchBlock[cell];
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            if (catches > 0 || hours > 0) {
+                result.add(new BaitRate(baits.decode(bait), catches, hours));
+            }
+        }
+        result.sort(Comparator.comparingDouble(BaitRate::getCatchesPerHour).reversed()
+                .thenComparing(Comparator.comparingLong(BaitRate::getCatches).reversed()));
+        return result;
+    }
+
+    /**
+     * Число блоков счетчиков: оценка занятой кубом памяти, по CELLS ячеек в блоке.
+     */
+    int blockCount() {
+        return catchBlocks.size() + hourBlocks.size();
+    }
+
+    int baitCount() {
+        return baits.size();
+    }
+
+    /**
+     * Приблизительный объем блоков куба в куче: массивы счетчиков с заголовками.
+     */
+    long estimatedBytes() {
+        return catchBlocks.size() * (16L + CELLS * Integer.BYTES) + hourBlocks.size() * (16L + CELLS * Double.BYTES);
+    }
+
+    private void increment(long key, int cell) {
+        int[] block = catchBlocks.get(key);
+        if (block == null) {
+            block = new int[CELLS];
+            catchBlocks.put(key, block);
+        }
+        block[cell]++;
+    }
+
+    private long blockKey(FishingTrip trip, int speciesSlot) {
+        int baitId = baits.encode(trip.getBait());
+        if (baitId >= 1 << BAIT_BITS) {
+            throw new IllegalStateException("Слишком много приманок для куба");
+        }
+        int weatherId = weather.encode(weatherKey(trip.getWeatherConditions()));
+        if (weatherId >= 1 << WEATHER_BITS) {
+            throw new IllegalStateException("Слишком много вариантов погоды для куба приманок");
+        }
+        int monthIndex = trip.monthIndex();
+        return blockKey(baitId, speciesSlot, monthIndex < 0 ? UNKNOWN_MONTH : monthIndex % 12, weatherId);
+    }
+
+    private static long blockKey(int bait, int speciesSlot, int month, int weatherId) {
+        return weatherId
+                | (long) month << WEATHER_BITS
+                | (long) speciesSlot << (WEATHER_BITS + MONTH_BITS)
+                | (long) bait << (WEATHER_BITS + MONTH_BITS + SPECIES_BITS);
+    }
+
+    private static int cell(FishingTrip trip) {
+        return (temperatureBucket(trip.getTemperature()) * WIND_BUCKETS + windBucket(trip.getWindSpeed()))
+                * PRESSURE_BUCKETS + pressureBucket(trip.getPressure());
+    }
+
+    /**
+     * Идентификаторы погоды, совпадающей с условием без учета регистра; без условия — все.
+     */
+    private int[] weatherIds(String condition) {
+        List<String> values = weather.values();
+        if (condition == null) {
+            int[] all = new int[values.size()];
+            for (int id = 0; id < all.length; id++) {
+                all[id] = id;
+            }
+            return all;
+        }
+        int id = weather.idOf(weatherKey(condition));
+        return id < 0 ? new int[0] : new int[]{id};
+    }
+
+    private static String weatherKey(String condition) {
+        return condition == null ? "" : condition.toLowerCase();
+    }
+
+    private static int temperatureBucket(double temperature) {
+        return clamp((long) Math.floor((temperature - TEMPERATURE_MIN) / TEMPERATURE_STEP), TEMPERATURE_BUCKETS);
+    }
+
+    private static int windBucket(int windSpeed) {
+        return clamp(Math.floorDiv(windSpeed, WIND_STEP), WIND_BUCKETS);
+    }
+
+    private static int pressureBucket(int pressure) {
+        return clamp(Math.floorDiv((long) pressure - PRESSURE_MIN, PRESSURE_STEP), PRESSURE_BUCKETS);
+    }
+
+    private static int clamp(long bucket, int buckets) {
+        return (int) Math.max(0, Math.min(bucket, buckets - 1));
+    }
+}
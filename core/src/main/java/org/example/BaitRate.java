@@ -0,0 +1,20 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Результативность приманки в срезе условий: число пойманных рыб и часы рыбалки на эту приманку.
+ */
+@Value
+public class BaitRate {
+    Bait bait;
+    long catches;
+    double hours;
+
+    /**
+     * Рыб в час или 0, если часов рыбалки в срезе нет.
+     */
+    public double getCatchesPerHour() {
+        return hours > 0 ? catches / hours : 0;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Month;
+
+/**
+ * Срез условий для анализа приманок: вид рыбы, погода, температура, ветер, давление и месяцы.
+ * Незаданное условие пропускает любые поездки. Температура, ветер и давление хранятся в кубе
+ * корзинами, поэтому границы диапазонов расширяются до границ корзин
+ * (температура — по 5 °C, ветер — по 3 м/с, давление — по 5 мм рт. ст.).
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class BaitSlice {
+    private final FishSpecies species;
+    private final String weatherConditions;
+    private final double minTemperature;
+    private final double maxTemperature;
+    private final int minWindSpeed;
+    private final int maxWindSpeed;
+    private final int minPressure;
+    private final int maxPressure;
+    private final Month firstMonth;
+    private final Month lastMonth;
+
+    private BaitSlice(Builder builder) {
+        this.species = builder.species;
+        this.weatherConditions = builder.weatherConditions;
+        this.minTemperature = builder.minTemperature;
+        this.maxTemperature = builder.maxTemperature;
+        this.minWindSpeed = builder.minWindSpeed;
+        this.maxWindSpeed = builder.maxWindSpeed;
+        this.minPressure = builder.minPressure;
+        this.maxPressure = builder.maxPressure;
+        this.firstMonth = builder.firstMonth;
+        this.lastMonth = builder.lastMonth;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private FishSpecies species;
+        private String weatherConditions;
+        private double minTemperature = Double.NEGATIVE_INFINITY;
+        private double maxTemperature = Double.POSITIVE_INFINITY;
+        private int minWindSpeed = Integer.MIN_VALUE;
+        private int maxWindSpeed = Integer.MAX_VALUE;
+        private int minPressure = Integer.MIN_VALUE;
+        private int maxPressure = Integer.MAX_VALUE;
+        private Month firstMonth;
+        private Month lastMonth;
+
+        private Builder() {
+        }
+
+        /**
+         * Считать только улов этого вида. Часы рыбалки от вида не зависят.
+         */
+        public Builder species(FishSpecies species) {
+            this.species = species;
+            return this;
+        }
+
+        /**
+         * Погода без учета регистра.
+         */
+        public Builder weather(String weatherConditions) {
+            this.weatherConditions = weatherConditions;
+            return this;
+        }
+
+        public Builder temperature(double min, double max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Минимальная температура больше максимальной");
+            }
+            this.minTemperature = min;
+            this.maxTemperature = max;
+            return this;
+        }
+
+        public Builder windSpeed(int min, int max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Минимальная скорость ветра больше максимальной");
+            }
+            this.minWindSpeed = min;
+            this.maxWindSpeed = max;
+            return this;
+        }
+
+        public Builder pressure(int min, int max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Минимальное давление больше максимального");
+            }
+            this.minPressure = min;
+            this.maxPressure = max;
+            return this;
+        }
+
+        public Builder month(Month month) {
+            return months(month, month);
+        }
+
+        /**
+         * Месяцы с first по last включительно, без перехода через конец года.
+         */
+        public Builder months(Month first, Month last) {
+            if (first == null || last == null) {
+                throw new IllegalArgumentException("Не указан месяц");
+            }
+            if (first.compareTo(last) > 0) {
+                throw new IllegalArgumentException("Месяц " + first + " позже " + last);
+            }
+            this.firstMonth = first;
+            this.lastMonth = last;
+            return this;
+        }
+
+        public BaitSlice build() {
+            return new BaitSlice(this);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Пул значений, найденных по последовательности байтов. Повторяющееся значение находится
+ * в пуле без создания строк и объектов; новое значение вызывающий создает один раз и кладет в пул.
+ */
+class BytePool<T> {
+    private byte[][] keys = new byte[64][];
+    private Object[] values = new Object[64];
+    private int size;
+
+    /**
+     * Значение для байтов или null, если их еще нет в пуле.
+     */
+    @SuppressWarnings("unchecked")
+    T find(byte[] data, int offset, int length) {
+        int mask = keys.length - 1;
+        int slot = hash(data, offset, length) & mask;
+        while (keys[slot] != null) {
+            if (Arrays.equals(keys[slot], 0, keys[slot].length, data, offset, offset + length)) {
+                return (T) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    void put(byte[] data, int offset, int length, T value) {
+        int mask = keys.length - 1;
+        int slot = hash(data, offset, length) & mask;
+        while (keys[slot] != null) {
+            if (Arrays.equals(keys[slot], 0, keys[slot].length, data, offset, offset + length)) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = Arrays.copyOfRange(data, offset, offset + length);
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        byte[][] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new byte[oldKeys.length * 2][];
+        values = new Object[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[i], 0, oldKeys[i].length) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int hash(byte[] data, int offset, int length) {
+        int h = 1;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + data[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example;
+
+/**
+ * Распределение веса и длины улова одного среза (вида рыбы, вида на месте или вида за месяц)
+ * на скетчах квантилей и число выбросов — рыб с весом вне диапазона вида.
+ * Методы синхронизированы на экземпляре, распределения разных срезов обновляются независимо.
+ */
+public final class CatchDistribution {
+    private final QuantileSketch weights;
+    private final QuantileSketch lengths;
+    private long outliers;
+
+    public CatchDistribution() {
+        this(new QuantileSketch(), new QuantileSketch(), 0);
+    }
+
+    private CatchDistribution(QuantileSketch weights, QuantileSketch lengths, long outliers) {
+        this.weights = weights;
+        this.lengths = lengths;
+        this.outliers = outliers;
+    }
+
+    synchronized void add(double weight, double length, boolean outlier) {
+        weights.update(weight);
+        lengths.update(length);
+        if (outlier) {
+            outliers++;
+        }
+    }
+
+    /**
+     * Добавляет улов другого распределения, например того же вида из журнала другого рыбака.
+     */
+    public void merge(CatchDistribution other) {
+        // Копия снимается под блокировкой другого распределения, чтобы не держать две блокировки сразу
+        CatchDistribution snapshot = other.copy();
+        synchronized (this) {
+            weights.merge(snapshot.weights);
+            lengths.merge(snapshot.lengths);
+            outliers += snapshot.outliers;
+        }
+    }
+
+    public synchronized CatchDistribution copy() {
+        return new CatchDistribution(weights.copy(), lengths.copy(), outliers);
+    }
+
+    public synchronized long getCount() {
+        return weights.getCount();
+    }
+
+    public synchronized long getOutlierCount() {
+        return outliers;
+    }
+
+    /**
+     * Приближенный квантиль веса, например 0.5 для медианы или 0.99 для p99; NaN без улова.
+     */
+    public synchronized double getWeightQuantile(double quantile) {
+        return weights.getQuantile(quantile);
+    }
+
+    /**
+     * Приближенный квантиль длины; NaN без улова.
+     */
+    public synchronized double getLengthQuantile(double quantile) {
+        return lengths.getQuantile(quantile);
+    }
+
+    synchronized long estimatedBytes() {
+        return 32 + weights.estimatedBytes() + lengths.estimatedBytes();
+    }
+}
@@ -0,0 +1,161 @@
+package org.example;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Распределения веса и длины улова по видам рыб, по виду и месту, по виду и месяцу поездки.
+ * Обновляются при добавлении улова за O(1) без прохода по записям; распределения разных журналов
+ * сливаются без потери точности, поэтому перцентили клуба считаются по перцентилям журналов.
+ * Срезы вида обновляются под блокировкой вида, улов разных видов пишется независимо.
+ */
+public final class CatchDistributions {
+    private final ConcurrentHashMap<FishSpecies, SpeciesSlices> species = new ConcurrentHashMap<>();
+
+    void add(FishingTrip trip, FishSpecies fish, double weight, double length) {
+        slices(fish).add(trip.getLocation(), trip.monthIndex(), weight, length, !fish.isWithinRange(weight));
+    }
+
+    /**
+     * Добавляет распределения другого набора, другой набор не меняется.
+     *
+     * @return этот набор
+     */
+    public CatchDistributions merge(CatchDistributions other) {
+        other.species.forEach((fish, slices) -> slices(fish).merge(slices));
+        return this;
+    }
+
+    public CatchDistributions copy() {
+        return new CatchDistributions().merge(this);
+    }
+
+    /**
+     * Распределение по виду рыбы или null, если вид не ловился.
+     */
+    public CatchDistribution get(FishSpecies fish) {
+        SpeciesSlices slices = species.get(fish);
+        return slices == null ? null : slices.all;
+    }
+
+    public Map<FishSpecies, CatchDistribution> bySpecies() {
+        Map<FishSpecies, CatchDistribution> result = new HashMap<>();
+        species.forEach((fish, slices) -> result.put(fish, slices.all));
+        return result;
+    }
+
+    /**
+     * Копии распределений по видам без срезов по местам и месяцам.
+     */
+    Map<FishSpecies, CatchDistribution> copyBySpecies() {
+        Map<FishSpecies, CatchDistribution> result = new HashMap<>();
+        species.forEach((fish, slices) -> result.put(fish, slices.all.copy()));
+        return result;
+    }
+
+    public Map<FishingLocation, CatchDistribution> byLocation(FishSpecies fish) {
+        SpeciesSlices slices = species.get(fish);
+        return slices == null ? new HashMap<>() : slices.locations();
+    }
+
+    /**
+     * Распределения вида по месяцам поездок, месяцы упорядочены по возрастанию.
+     */
+    public Map<YearMonth, CatchDistribution> byMonth(FishSpecies fish) {
+        Map<YearMonth, CatchDistribution> result = new TreeMap<>();
+        SpeciesSlices slices = species.get(fish);
+        if (slices != null) {
+            slices.months().forEach((month, distribution) ->
+                    result.put(YearMonth.of((int) month / 12, (int) month % 12 + 1), distribution));
+        }
+        return result;
+    }
+
+    long estimatedBytes() {
+        long bytes = 0;
+        for (SpeciesSlices slices : species.values()) {
+            bytes += slices.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private SpeciesSlices slices(FishSpecies fish) {
+        SpeciesSlices slices = species.get(fish);
+        return slices != null ? slices : species.computeIfAbsent(fish, f -> new SpeciesSlices());
+    }
+
+    /**
+     * Распределения одного вида: общее, по местам и по месяцам (ключ — номер месяца FishingTrip.monthIndex).
+     */
+    private static final class SpeciesSlices {
+        private final CatchDistribution all = new CatchDistribution();
+        private final Map<FishingLocation, CatchDistribution> byLocation = new HashMap<>();
+        private final LongObjectMap<CatchDistribution> byMonth = new LongObjectMap<>();
+
+        synchronized void add(FishingLocation location, int month, double weight, double length, boolean outlier) {
+            all.add(weight, length, outlier);
+            if (location != null) {
+                location(location).add(weight, length, outlier);
+            }
+            if (month >= 0) {
+                month(month).add(weight, length, outlier);
+            }
+        }
+
+        void merge(SpeciesSlices other) {
+            all.merge(other.all);
+            other.locations().forEach((location, distribution) -> {
+                CatchDistribution target;
+                synchronized (this) {
+                    target = location(location);
+                }
+                target.merge(distribution);
+            });
+            other.months().forEach((month, distribution) -> {
+                CatchDistribution target;
+                synchronized (this) {
+                    target = month(month);
+                }
+                target.merge(distribution);
+            });
+        }
+
+        synchronized Map<FishingLocation, CatchDistribution> locations() {
+            return new HashMap<>(byLocation);
+        }
+
+        synchronized LongObjectMap<CatchDistribution> months() {
+            LongObjectMap<CatchDistribution> copy = new LongObjectMap<>();
+            byMonth.forEach(copy::put);
+            return copy;
+        }
+
+        synchronized long estimatedBytes() {
+            long[] bytes = {all.estimatedBytes()};
+            byLocation.values().forEach(distribution -> bytes[0] += distribution.estimatedBytes());
+            byMonth.forEach((month, distribution) -> bytes[0] += distribution.estimatedBytes());
+            return bytes[0];
+        }
+
+        private CatchDistribution location(FishingLocation location) {
+            CatchDistribution distribution = byLocation.get(location);
+            if (distribution == null) {
+                distribution = new CatchDistribution();
+                byLocation.put(location, distribution);
+            }
+            return distribution;
+        }
+
+        private CatchDistribution month(long month) {
+            CatchDistribution distribution = byMonth.get(month);
+            if (distribution == null) {
+                distribution = new CatchDistribution();
+                byMonth.put(month, distribution);
+            }
+            return distribution;
+        }
+    }
+}
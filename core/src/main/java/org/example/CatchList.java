@@ -0,0 +1,72 @@
+package org.example;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Улов одной поездки. Записи добавляет один писатель за раз (вызывающий упорядочивает писателей),
+ * а читатели из любых потоков без блокировок получают неизменяемый снимок уже добавленных записей.
+ * Массив публикуется раньше размера, поэтому снимок никогда не видит незаписанную ячейку.
+ */
+final class CatchList {
+    private static final CatchRecord[] EMPTY = new CatchRecord[0];
+    private static final int FIRST_CAPACITY = 4;
+
+    private volatile CatchRecord[] items = EMPTY;
+    private volatile int size;
+
+    CatchList() {
+    }
+
+    CatchList(List<CatchRecord> catches) {
+        items = catches.toArray(EMPTY);
+        size = items.length;
+    }
+
+    void add(CatchRecord catchRecord) {
+        int n = size;
+        CatchRecord[] array = items;
+        if (n == array.length) {
+            array = Arrays.copyOf(array, Math.max(FIRST_CAPACITY, n * 2));
+            items = array;
+        }
+        array[n] = catchRecord;
+        size = n + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Записи, добавленные к моменту вызова, без копирования.
+     */
+    List<CatchRecord> snapshot() {
+        int n = size;
+        return new Snapshot(items, n);
+    }
+
+    private static final class Snapshot extends AbstractList<CatchRecord> implements RandomAccess {
+        private final CatchRecord[] items;
+        private final int size;
+
+        private Snapshot(CatchRecord[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        @Override
+        public CatchRecord get(int index) {
+            Objects.checkIndex(index, size);
+            return items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
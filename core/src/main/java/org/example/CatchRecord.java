@@ -9,4 +9,11 @@ public class CatchRecord {
     private FishSpecies species;
     private double weight;
     private double length;
+
+    /**
+     * Вес вне допустимого диапазона вида: ошибка ввода или трофейная рыба.
+     */
+    public boolean isOutlier() {
+        return species != null && !species.isWithinRange(weight);
+    }
 }
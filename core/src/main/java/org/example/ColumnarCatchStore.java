@@ -0,0 +1,318 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Колоночное хранилище поездок и улова на примитивных массивах.
+ * Виды рыб, места, снасти, приманки, даты и погода кодируются словарями, поэтому один
+ * улов занимает 28 байт (вид, поездка, вес, длина, ссылка на следующий улов поездки)
+ * вместо отдельного объекта CatchRecord со ссылкой в списке поездки.
+ * Числа хранятся в double без потери точности, поэтому хранилище может быть основным
+ * местом хранения журнала (JournalStorage.COLUMNAR).
+ *
+ * <p>tripAt возвращает легковесное представление FishingTrip: объект хранит только номер поездки
+ * и читает поля из колонок при каждом обращении, улов декодируется, только когда его запрашивают.
+ * Представление доступно только для чтения, как и любая поездка журнала.
+ */
+public class ColumnarCatchStore {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final DictionaryEncoder<FishSpecies> species = new DictionaryEncoder<>();
+    private final DictionaryEncoder<FishingLocation> locations = new DictionaryEncoder<>();
+    private final DictionaryEncoder<FishingGear> gears = new DictionaryEncoder<>();
+    private final DictionaryEncoder<Bait> baits = new DictionaryEncoder<>();
+    private final DictionaryEncoder<String> dates = new DictionaryEncoder<>();
+    private final DictionaryEncoder<String> weather = new DictionaryEncoder<>();
+
+    private int tripCount;
+    private int[] tripDate = new int[INITIAL_CAPACITY];
+    private int[] tripLocation = new int[INITIAL_CAPACITY];
+    private int[] tripGear = new int[INITIAL_CAPACITY];
+    private int[] tripBait = new int[INITIAL_CAPACITY];
+    private int[] tripWeather = new int[INITIAL_CAPACITY];
+    private double[] tripTemperature = new double[INITIAL_CAPACITY];
+    private double[] tripDuration = new double[INITIAL_CAPACITY];
+    private int[] tripWindSpeed = new int[INITIAL_CAPACITY];
+    private int[] tripPressure = new int[INITIAL_CAPACITY];
+    private int[] tripFirstCatch = new int[INITIAL_CAPACITY];
+    private int[] tripLastCatch = new int[INITIAL_CAPACITY];
+    private int[] tripCatchCount = new int[INITIAL_CAPACITY];
+    private double[] tripTotalWeight = new double[INITIAL_CAPACITY];
+
+    private int catchCount;
+    private int[] catchSpecies = new int[INITIAL_CAPACITY];
+    private int[] catchTrip = new int[INITIAL_CAPACITY];
+    private double[] catchWeight = new double[INITIAL_CAPACITY];
+    private double[] catchLength = new double[INITIAL_CAPACITY];
+    private int[] nextCatchInTrip = new int[INITIAL_CAPACITY];
+
+    /**
+     * Переносит в хранилище все поездки и улов журнала.
+     */
+    public static ColumnarCatchStore of(FishingJournal journal) {
+        ColumnarCatchStore store = new ColumnarCatchStore();
+        for (FishingTrip trip : journal.getTrips()) {
+            int tripId = store.addTrip(trip.getDate(), trip.getLocation(), trip.getWeatherConditions(),
+                    trip.getTemperature(), trip.getWindSpeed(), trip.getPressure(), trip.getDuration(),
+                    trip.getGear(), trip.getBait());
+            for (CatchRecord cr : trip.getCatches()) {
+                store.addCatch(tripId, cr.getSpecies(), cr.getWeight(), cr.getLength());
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Добавляет поездку и возвращает ее идентификатор в хранилище.
+     */
+    public int addTrip(String date, FishingLocation location, String weatherConditions, double temperature,
+                       int windSpeed, int pressure, double duration, FishingGear gear, Bait bait) {
+        if (tripCount == tripDate.length) {
+            growTrips();
+        }
+        int tripId = tripCount++;
+        tripDate[tripId] = dates.encode(date);
+        tripLocation[tripId] = locations.encode(location);
+        tripGear[tripId] = gears.encode(gear);
+        tripBait[tripId] = baits.encode(bait);
+        tripWeather[tripId] = weather.encode(weatherConditions);
+        tripTemperature[tripId] = temperature;
+        tripDuration[tripId] = duration;
+        tripWindSpeed[tripId] = windSpeed;
+        tripPressure[tripId] = pressure;
+        tripFirstCatch[tripId] = -1;
+        tripLastCatch[tripId] = -1;
+        tripCatchCount[tripId] = 0;
+        tripTotalWeight[tripId] = 0;
+        return tripId;
+    }
+
+    /**
+     * Добавляет улов к поездке и возвращает его индекс в хранилище.
+     */
+    public int addCatch(int tripId, FishSpecies fish, double weight, double length) {
+        if (tripId < 0 || tripId >= tripCount) {
+            throw new IllegalArgumentException("Нет поездки с идентификатором " + tripId);
+        }
+        if (catchCount == catchSpecies.length) {
+            growCatches();
+        }
+        int index = catchCount++;
+        catchSpecies[index] = species.encode(fish);
+        catchTrip[index] = tripId;
+        catchWeight[index] = weight;
+        catchLength[index] = length;
+        nextCatchInTrip[index] = -1;
+        if (tripFirstCatch[tripId] < 0) {
+            tripFirstCatch[tripId] = index;
+        } else {
+            nextCatchInTrip[tripLastCatch[tripId]] = index;
+        }
+        tripLastCatch[tripId] = index;
+        tripCatchCount[tripId]++;
+        tripTotalWeight[tripId] += weight;
+        return index;
+    }
+
+    public int tripCount() {
+        return tripCount;
+    }
+
+    public int catchCount() {
+        return catchCount;
+    }
+
+    public int speciesId(int catchIndex) {
+        return catchSpecies[catchIndex];
+    }
+
+    public int tripId(int catchIndex) {
+        return catchTrip[catchIndex];
+    }
+
+    public double weight(int catchIndex) {
+        return catchWeight[catchIndex];
+    }
+
+    public double length(int catchIndex) {
+        return catchLength[catchIndex];
+    }
+
+    public DictionaryEncoder<FishSpecies> getSpecies() {
+        return species;
+    }
+
+    public DictionaryEncoder<FishingLocation> getLocations() {
+        return locations;
+    }
+
+    public DictionaryEncoder<FishingGear> getGears() {
+        return gears;
+    }
+
+    public DictionaryEncoder<Bait> getBaits() {
+        return baits;
+    }
+
+    /**
+     * Представление улова в виде CatchRecord.
+     */
+    public CatchRecord catchAt(int catchIndex) {
+        return new CatchRecord(species.decode(catchSpecies[catchIndex]),
+                catchWeight[catchIndex], catchLength[catchIndex]);
+    }
+
+    /**
+     * Легковесное представление поездки в виде FishingTrip с номером tripId + 1.
+     *
+     * @throws IndexOutOfBoundsException если поездки с таким идентификатором нет
+     */
+    public FishingTrip tripAt(int tripId) {
+        Objects.checkIndex(tripId, tripCount);
+        return new TripView(tripId);
+    }
+
+    /**
+     * Представления всего улова поездки, список только для чтения.
+     */
+    public List<CatchRecord> catchesOf(int tripId) {
+        List<CatchRecord> result = new ArrayList<>(tripCatchCount[tripId]);
+        for (int i = tripFirstCatch[tripId]; i >= 0; i = nextCatchInTrip[i]) {
+            result.add(catchAt(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Примерный объем хранилища в куче: колонки и словари без самих сущностей.
+     */
+    long estimatedBytes() {
+        long trips = 13L * 16 + tripDate.length * (10L * Integer.BYTES + 3L * Double.BYTES);
+        long catches = 5L * 16 + catchSpecies.length * (3L * Integer.BYTES + 2L * Double.BYTES);
+        return trips + catches + species.estimatedBytes() + locations.estimatedBytes() + gears.estimatedBytes()
+                + baits.estimatedBytes() + dates.estimatedBytes() + weather.estimatedBytes();
+    }
+
+    /**
+     * Обрезает колонки до фактического размера, например после массовой загрузки.
+     */
+    public void trimToSize() {
+        resizeTrips(Math.max(tripCount, 1));
+        resizeCatches(Math.max(catchCount, 1));
+    }
+
+    private void growTrips() {
+        resizeTrips(tripDate.length * 2);
+    }
+
+    private void growCatches() {
+        resizeCatches(catchSpecies.length * 2);
+    }
+
+    private void resizeTrips(int capacity) {
+        tripDate = Arrays.copyOf(tripDate, capacity);
+        tripLocation = Arrays.copyOf(tripLocation, capacity);
+        tripGear = Arrays.copyOf(tripGear, capacity);
+        tripBait = Arrays.copyOf(tripBait, capacity);
+        tripWeather = Arrays.copyOf(tripWeather, capacity);
+        tripTemperature = Arrays.copyOf(tripTemperature, capacity);
+        tripDuration = Arrays.copyOf(tripDuration, capacity);
+        tripWindSpeed = Arrays.copyOf(tripWindSpeed, capacity);
+        tripPressure = Arrays.copyOf(tripPressure, capacity);
+        tripFirstCatch = Arrays.copyOf(tripFirstCatch, capacity);
+        tripLastCatch = Arrays.copyOf(tripLastCatch, capacity);
+        tripCatchCount = Arrays.copyOf(tripCatchCount, capacity);
+        tripTotalWeight = Arrays.copyOf(tripTotalWeight, capacity);
+    }
+
+    private void resizeCatches(int capacity) {
+        catchSpecies = Arrays.copyOf(catchSpecies, capacity);
+        catchTrip = Arrays.copyOf(catchTrip, capacity);
+        catchWeight = Arrays.copyOf(catchWeight, capacity);
+        catchLength = Arrays.copyOf(catchLength, capacity);
+        nextCatchInTrip = Arrays.copyOf(nextCatchInTrip, capacity);
+    }
+
+    /**
+     * Поездка хранилища: все поля читаются из колонок, собственные поля FishingTrip не используются,
+     * а итоги улова хранятся в колонках и не требуют обхода цепочки улова. Как и любая поездка
+     * журнала, представление нельзя менять: requireWritable бросает IllegalStateException.
+     */
+    private final class TripView extends FishingTrip {
+        private final int tripId;
+
+        private TripView(int tripId) {
+            super(tripId + 1L);
+            this.tripId = tripId;
+        }
+
+        @Override
+        public String getDate() {
+            return dates.decode(tripDate[tripId]);
+        }
+
+        @Override
+        public FishingLocation getLocation() {
+            return locations.decode(tripLocation[tripId]);
+        }
+
+        @Override
+        public String getWeatherConditions() {
+            return weather.decode(tripWeather[tripId]);
+        }
+
+        @Override
+        public double getDuration() {
+            return tripDuration[tripId];
+        }
+
+        @Override
+        public FishingGear getGear() {
+            return gears.decode(tripGear[tripId]);
+        }
+
+        @Override
+        public Bait getBait() {
+            return baits.decode(tripBait[tripId]);
+        }
+
+        @Override
+        public double getTemperature() {
+            return tripTemperature[tripId];
+        }
+
+        @Override
+        public int getWindSpeed() {
+            return tripWindSpeed[tripId];
+        }
+
+        @Override
+        public int getPressure() {
+            return tripPressure[tripId];
+        }
+
+        @Override
+        public List<CatchRecord> getCatches() {
+            return catchesOf(tripId);
+        }
+
+        @Override
+        public double getTotalWeight() {
+            return tripTotalWeight[tripId];
+        }
+
+        @Override
+        public int getTotalFish() {
+            return tripCatchCount[tripId];
+        }
+
+        @Override
+        void appendCatch(CatchRecord catchRecord) {
+            requireWritable();
+        }
+    }
+}
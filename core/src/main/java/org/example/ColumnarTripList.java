@@ -0,0 +1,46 @@
+package org.example;
+
+/**
+ * Список поездок журнала в режиме JournalStorage.COLUMNAR: поездки и улов лежат в колонках
+ * ColumnarCatchStore, а get возвращает легковесные представления, доступные только для чтения.
+ * Улов представление читает из колонок, поэтому улов, добавленный через журнал, виден сразу.
+ */
+final class ColumnarTripList extends StoredTripList {
+    private final ColumnarCatchStore store = new ColumnarCatchStore();
+
+    @Override
+    int write(FishingTrip trip) {
+        int tripId = store.addTrip(trip.getDate(), trip.getLocation(), trip.getWeatherConditions(),
+                trip.getTemperature(), trip.getWindSpeed(), trip.getPressure(), trip.getDuration(),
+                trip.getGear(), trip.getBait());
+        for (CatchRecord cr : trip.getCatches()) {
+            store.addCatch(tripId, cr.getSpecies(), cr.getWeight(), cr.getLength());
+        }
+        return tripId;
+    }
+
+    @Override
+    FishingTrip adopt(int position, FishingTrip trip) {
+        return null;
+    }
+
+    @Override
+    void writeCatch(int position, FishingTrip trip, CatchRecord cr) {
+        store.addCatch(position, cr.getSpecies(), cr.getWeight(), cr.getLength());
+    }
+
+    @Override
+    FishingTrip read(int position) {
+        return store.tripAt(position);
+    }
+
+    @Override
+    int storedSize() {
+        return store.tripCount();
+    }
+
+    @Override
+    long storeHeapBytes() {
+        return store.estimatedBytes();
+    }
+}
@@ -0,0 +1,312 @@
+package org.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Журнал для одновременной записи из многих потоков.
+ * Поездки добавляются в список без общей блокировки журнала, счетчики улова и эффективности приманок
+ * хранятся в ячейках LongAdder/DoubleAdder. Читатели получают снимок списка поездок
+ * без копирования и улов поездок без блокировок; счетчики могут опережать снимок поездок.
+ */
+public class ConcurrentFishingJournal {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentFishingJournal.class);
+    private final Fisherman fisherman;
+    private final AppendOnlyList<FishingTrip> trips;
+    private final ConcurrentHashMap<Bait, ConcurrentHashMap<FishSpecies, LongAdder>> baitEffectiveness;
+    private final ConcurrentHashMap<FishSpecies, SpeciesCell> speciesTotals;
+    private final ConcurrentHashMap<LocationMonth, LongAdder> catchesByLocationMonth;
+    private final CatchDistributions catchDistributions;
+    private final LongAdder totalFish;
+    private final DoubleAdder totalWeight;
+
+    public ConcurrentFishingJournal(Fisherman fisherman) {
+        this.fisherman = fisherman;
+        this.trips = new AppendOnlyList<>();
+        this.baitEffectiveness = new ConcurrentHashMap<>();
+        this.speciesTotals = new ConcurrentHashMap<>();
+        this.catchesByLocationMonth = new ConcurrentHashMap<>();
+        this.catchDistributions = new CatchDistributions();
+        this.totalFish = new LongAdder();
+        this.totalWeight = new DoubleAdder();
+    }
+
+    public Fisherman getFisherman() {
+        return fisherman;
+    }
+
+    public FishingTrip addTrip(String date, FishingLocation location, String weatherConditions, double temperature,
+                               int windSpeed, int pressure, double duration,
+                               FishingGear gear, Bait bait) {
+        FishingTrip trip = new FishingTrip(date, FishingLocation.canonical(location), weatherConditions,
+                temperature, windSpeed, pressure,
+                duration, FishingGear.canonical(gear), Bait.canonical(bait));
+        // Номер выдается до публикации, чтобы читатели снимка не увидели поездку без номера
+        trips.append(index -> {
+            trip.setId(index + 1);
+            return trip;
+        });
+        return trip;
+    }
+
+    /**
+     * Публикует поездки массовой загрузки вместе с уже прочитанным уловом и учитывает улов в счетчиках.
+     * Улов поездок пачки после вызова не меняется загрузчиком.
+     *
+     * @return позиция первой добавленной поездки
+     */
+    int appendBulk(List<FishingTrip> batch) {
+        int first = -1;
+        for (FishingTrip trip : batch) {
+            trips.append(index -> {
+                trip.setId(index + 1);
+                return trip;
+            });
+            if (first < 0) {
+                first = (int) trip.getId() - 1;
+            }
+            for (CatchRecord cr : trip.getCatches()) {
+                aggregate(trip, cr.getSpecies(), cr.getWeight(), cr.getLength());
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Счетчики уже учтены в appendBulk, остается только отчитаться о загрузке.
+     */
+    void finishBulk(int from) {
+        logger.info("Загружено поездок: {}, всего в журнале: {}", trips.size() - from, trips.size());
+    }
+
+    /**
+     * Поездка по номеру за O(1) или null, если поездки с таким номером нет.
+     */
+    public FishingTrip getTrip(long id) {
+        return id >= 1 && id <= trips.size() ? trips.get((int) (id - 1)) : null;
+    }
+
+    public void addCatch(FishingTrip trip, FishSpecies species, double weight, double length) {
+        if (trip == null) {
+            logger.error("Попытка добавить улов в несуществующую поездку");
+            return;
+        }
+
+        if (species == null) {
+            logger.error("Не указан вид рыбы");
+            return;
+        }
+        species = FishSpecies.canonical(species);
+
+        if (weight <= 0 || length <= 0) {
+            logger.warn("Некорректные параметры рыбы: вес={} длина={}", weight, length);
+        }
+
+        // Выбросы считаются в распределениях улова, в лог пишутся только при отладке
+        if (!species.isWithinRange(weight) && logger.isDebugEnabled()) {
+            logger.debug("Вес {} кг вне диапазона вида {}: {}-{} кг",
+                    weight, species.getName(), species.getMinWeight(), species.getMaxWeight());
+        }
+
+        // Писатели улова одной поездки идут по очереди, читатели видят улов без блокировки
+        synchronized (trip) {
+            trip.appendCatch(new CatchRecord(species, weight, length));
+        }
+        aggregate(trip, species, weight, length);
+    }
+
+    private void aggregate(FishingTrip trip, FishSpecies species, double weight, double length) {
+        Bait bait = trip.getBait();
+        if (bait != null) {
+            baitEffectiveness.computeIfAbsent(bait, b -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(species, s -> new LongAdder())
+                    .increment();
+        }
+        int month = trip.monthIndex();
+        if (trip.getLocation() != null && month >= 0) {
+            catchesByLocationMonth.computeIfAbsent(new LocationMonth(trip.getLocation(), month), k -> new LongAdder())
+                    .increment();
+        }
+        SpeciesCell cell = speciesTotals.computeIfAbsent(species, s -> new SpeciesCell());
+        cell.count.increment();
+        cell.weight.add(weight);
+        totalFish.increment();
+        totalWeight.add(weight);
+        catchDistributions.add(trip, species, weight, length);
+    }
+
+    /**
+     * Снимок поездок, добавленных к моменту вызова. Список неизменяемый и не копирует данные.
+     */
+    public List<FishingTrip> getTrips() {
+        return trips.snapshot();
+    }
+
+    public int getTripCount() {
+        return trips.size();
+    }
+
+    public JournalStatistics getStatistics() {
+        return new JournalStatistics(trips.size(), totalFish.intValue(), totalWeight.sum());
+    }
+
+    public SpeciesStatistics getSpeciesStatistics(FishSpecies species) {
+        SpeciesCell cell = speciesTotals.get(species);
+        return cell == null ? null : new SpeciesStatistics(species, cell.count.intValue(), cell.weight.sum());
+    }
+
+    public List<SpeciesStatistics> getSpeciesStatistics() {
+        List<SpeciesStatistics> result = new ArrayList<>(speciesTotals.size());
+        speciesTotals.forEach((species, cell) ->
+                result.add(new SpeciesStatistics(species, cell.count.intValue(), cell.weight.sum())));
+        return result;
+    }
+
+    /**
+     * Копия счетчиков эффективности приманок: приманка -> вид рыбы -> число пойманных рыб.
+     */
+    public Map<Bait, Map<FishSpecies, Long>> getBaitEffectiveness() {
+        Map<Bait, Map<FishSpecies, Long>> result = new HashMap<>();
+        baitEffectiveness.forEach((bait, counters) -> {
+            Map<FishSpecies, Long> counts = new HashMap<>();
+            counters.forEach((species, adder) -> counts.put(species, adder.sum()));
+            result.put(bait, counts);
+        });
+        return result;
+    }
+
+    /**
+     * Число пойманных рыб по месту и месяцу поездки. Месяцы упорядочены по возрастанию.
+     */
+    public Map<FishingLocation, Map<YearMonth, Long>> getCatchesByLocationMonth() {
+        Map<FishingLocation, Map<YearMonth, Long>> result = new HashMap<>();
+        catchesByLocationMonth.forEach((key, adder) -> result
+                .computeIfAbsent(key.location, l -> new TreeMap<>())
+                .merge(YearMonth.of(key.month / 12, key.month % 12 + 1), adder.sum(), Long::sum));
+        return result;
+    }
+
+    /**
+     * Копия распределений веса и длины улова по видам, местам и месяцам для слияния с другими журналами.
+     */
+    public CatchDistributions getCatchDistributions() {
+        return catchDistributions.copy();
+    }
+
+    /**
+     * Копии распределений веса и длины улова по видам рыб, без срезов по местам и месяцам.
+     */
+    public Map<FishSpecies, CatchDistribution> getSpeciesDistributions() {
+        return catchDistributions.copyBySpecies();
+    }
+
+    /**
+     * Отбирает поездки из текущего снимка за один проход.
+     */
+    public List<FishingTrip> query(TripQuery query) {
+        List<FishingTrip> snapshot = trips.snapshot();
+        List<FishingTrip> result = new ArrayList<>();
+        for (FishingTrip trip : snapshot) {
+            if (query.matches(trip)) {
+                result.add(trip);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Поездки текущего снимка в порядке добавления без копирования списка.
+     */
+    public Stream<FishingTrip> stream() {
+        return trips.snapshot().stream();
+    }
+
+    /**
+     * Ленивый вариант query по текущему снимку: поездки проверяются по мере чтения потока.
+     */
+    public Stream<FishingTrip> stream(TripQuery query) {
+        return trips.snapshot().stream().filter(query::matches);
+    }
+
+    /**
+     * Страница результатов запроса после поездки с номером afterId (0 — с начала журнала).
+     *
+     * @throws IllegalArgumentException если limit не положительный или afterId отрицательный
+     */
+    public TripPage page(TripQuery query, long afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным: " + limit);
+        }
+        if (afterId < 0) {
+            throw new IllegalArgumentException("Некорректный курсор: " + afterId);
+        }
+        int size = trips.size();
+        List<FishingTrip> result = new ArrayList<>(Math.min(limit, 64));
+        // Номер поездки на единицу больше ее позиции в списке
+        for (int position = (int) Math.min(afterId, size); position < size; position++) {
+            FishingTrip trip = trips.get(position);
+            if (!query.matches(trip)) {
+                continue;
+            }
+            if (result.size() == limit) {
+                return new TripPage(result, result.get(limit - 1).getId());
+            }
+            result.add(trip);
+        }
+        return new TripPage(result, 0);
+    }
+
+    public List<FishingTrip> filterByLocation(String locationName) {
+        TripQuery query = TripFilters.byLocation(locationName, logger);
+        return query == null ? new ArrayList<>() : query(query);
+    }
+
+    public List<FishingTrip> filterByDateRange(String startDate, String endDate) {
+        TripQuery query = TripFilters.byDateRange(startDate, endDate, logger);
+        return query == null ? new ArrayList<>() : query(query);
+    }
+
+    public List<FishingTrip> filterByLocationAndDate(String locationName, String startDate, String endDate) {
+        TripQuery query = TripFilters.byLocationAndDate(locationName, startDate, endDate, logger);
+        return query == null ? new ArrayList<>() : query(query);
+    }
+
+    private static final class LocationMonth {
+        private final FishingLocation location;
+        private final int month;
+
+        private LocationMonth(FishingLocation location, int month) {
+            this.location = location;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LocationMonth)) return false;
+            LocationMonth that = (LocationMonth) o;
+            return month == that.month && location.equals(that.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * location.hashCode() + month;
+        }
+    }
+
+    private static final class SpeciesCell {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder weight = new DoubleAdder();
+    }
+}
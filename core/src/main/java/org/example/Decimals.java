@@ -0,0 +1,48 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Запись дробных чисел с фиксированным числом знаков после точки без String.format
+ * и промежуточных строк. Округление половины — от нуля по десятичной записи числа, как у String.format:
+ * 2.675 с двумя знаками дает 2.68, хотя произведение 2.675 * 100 в double меньше 267.5.
+ */
+final class Decimals {
+    private static final long[] POWERS = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    // До этой границы погрешность произведения на степень десяти много меньше TIE_WINDOW
+    private static final double EXACT_LIMIT = 1e9;
+    private static final double TIE_WINDOW = 1e-6;
+
+    private Decimals() {
+    }
+
+    static StringBuilder append(StringBuilder out, double value, int scale) {
+        if (scale < 0 || scale >= POWERS.length) {
+            throw new IllegalArgumentException("Неподдерживаемое число знаков: " + scale);
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return out.append(value);
+        }
+        double magnitude = Math.abs(value);
+        double product = magnitude * POWERS[scale];
+        // Рядом с половиной округление произведения в double может разойтись с десятичной записью
+        if (product >= EXACT_LIMIT || Math.abs(product - Math.floor(product) - 0.5) < TIE_WINDOW) {
+            return out.append(BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).toPlainString());
+        }
+        long scaled = Math.round(product);
+        if (value < 0 && scaled != 0) {
+            out.append('-');
+        }
+        out.append(scaled / POWERS[scale]);
+        if (scale > 0) {
+            out.append('.');
+            long fraction = scaled % POWERS[scale];
+            for (long power = POWERS[scale - 1]; power > fraction && power > 1; power /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+        return out;
+    }
+}
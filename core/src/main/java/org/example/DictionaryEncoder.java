@@ -0,0 +1,55 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Словарь для кодирования повторяющихся значений плотными int-идентификаторами.
+ */
+public class DictionaryEncoder<T> {
+    private final Map<T, Integer> ids = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    /**
+     * Идентификатор значения; новое значение получает следующий свободный идентификатор.
+     */
+    public int encode(T value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * Идентификатор значения или -1, если его нет в словаре.
+     */
+    public int idOf(T value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    public T decode(int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<T> values() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Примерный объем словаря в куче без самих значений: запись таблицы, Integer и ячейка списка на значение.
+     */
+    long estimatedBytes() {
+        return 64 + 56L * values.size();
+    }
+}
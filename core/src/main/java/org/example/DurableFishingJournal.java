@@ -0,0 +1,480 @@
+package org.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Журнал, сохраняющий каждую поездку и улов в двоичный лог на диске.
+ * При открытии состояние восстанавливается из последнего снимка и логов, записанных после него.
+ * Снимок — файл JournalSnapshot, в имени которого номер последнего покрытого им лога; загружается он
+ * массовой загрузкой без разбора записей по одной.
+ * Снимок делается автоматически каждые snapshotEveryRecords записей и ограничивает время восстановления.
+ * Пишущий поток только переключает лог и фиксирует срез поездок, а сам снимок пишет фоновый поток.
+ * Записи сбрасываются на диск фоновым потоком раз в syncIntervalMillis или явным вызовом sync().
+ */
+public class DurableFishingJournal extends FishingJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(DurableFishingJournal.class);
+    private static final Pattern LOG_NAME = Pattern.compile("journal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d+)\\.fjsn");
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 20;
+    private static final long DEFAULT_SNAPSHOT_EVERY_RECORDS = 1_000_000;
+
+    private static final byte LOCATION = 1;
+    private static final byte GEAR = 2;
+    private static final byte BAIT = 3;
+    private static final byte SPECIES = 4;
+    private static final byte TRIP = 5;
+    private static final byte CATCH = 6;
+
+    private final Path directory;
+    private final long snapshotEveryRecords;
+    private final ScheduledExecutorService syncer;
+    private final ExecutorService snapshotter;
+    private final RecordBuffer record = new RecordBuffer();
+    private volatile LogFile current;
+    private long generation;
+    private long recordsSinceSnapshot;
+    private Future<?> pendingSnapshot;
+
+    private DurableFishingJournal(Fisherman fisherman, Path directory, long syncIntervalMillis,
+                                  long snapshotEveryRecords) {
+        super(fisherman);
+        this.directory = directory;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-log-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        this.snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static DurableFishingJournal open(Path directory, Fisherman fisherman) {
+        return open(directory, fisherman, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_EVERY_RECORDS);
+    }
+
+    /**
+     * Открывает журнал в каталоге, восстанавливая сохраненное состояние.
+     *
+     * @param syncIntervalMillis   как часто фоновый поток делает fsync накопленных записей
+     * @param snapshotEveryRecords после скольких записей в логах делается новый снимок
+     */
+    public static DurableFishingJournal open(Path directory, Fisherman fisherman, long syncIntervalMillis,
+                                             long snapshotEveryRecords) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать каталог журнала " + directory, e);
+        }
+        DurableFishingJournal journal = new DurableFishingJournal(fisherman, directory, syncIntervalMillis,
+                snapshotEveryRecords);
+        journal.recover();
+        return journal;
+    }
+
+    @Override
+    public FishingTrip addTrip(String date, FishingLocation location, String weatherConditions, double temperature,
+                               int windSpeed, int pressure, double duration,
+                               FishingGear gear, Bait bait) {
+        FishingTrip trip = super.addTrip(date, location, weatherConditions, temperature, windSpeed, pressure,
+                duration, gear, bait);
+        writeTrip(current, recordId(trip), trip);
+        afterWrite();
+        return trip;
+    }
+
+    @Override
+    public void addCatch(FishingTrip trip, FishSpecies species, double weight, double length) {
+        if (trip == null || species == null) {
+            super.addCatch(trip, species, weight, length);
+            return;
+        }
+        if (getTrip(trip.getId()) != trip) {
+            logger.error("Поездка {} не принадлежит журналу", trip.getId());
+            return;
+        }
+        super.addCatch(trip, species, weight, length);
+        writeCatch(current, recordId(trip), species, weight, length);
+        afterWrite();
+    }
+
+    @Override
+    void finishBulk(int from) {
+        super.finishBulk(from);
+        for (int position = from; position < tripCount(); position++) {
+            FishingTrip trip = tripAt(position);
+            int tripId = recordId(trip);
+            writeTrip(current, tripId, trip);
+            for (CatchRecord cr : trip.getCatches()) {
+                writeCatch(current, tripId, cr.getSpecies(), cr.getWeight(), cr.getLength());
+            }
+            afterWrite();
+        }
+    }
+
+    /**
+     * Дожидается, пока все добавленные записи окажутся на диске.
+     */
+    public void sync() {
+        current.log.sync();
+    }
+
+    /**
+     * Сохраняет полное состояние в снимок, удаляет логи, которые он покрывает, и дожидается записи.
+     */
+    public void snapshot() {
+        awaitSnapshot();
+        startSnapshot();
+        awaitSnapshot();
+    }
+
+    /**
+     * Дожидается фонового снимка, сбрасывает на диск оставшиеся записи и закрывает лог.
+     */
+    @Override
+    public void close() {
+        awaitSnapshot();
+        snapshotter.shutdown();
+        syncer.shutdown();
+        try {
+            if (!syncer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Фоновая синхронизация журнала не завершилась за 10 секунд");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        current.log.close();
+    }
+
+    /**
+     * Переключает запись на новый лог и отдает фоновому потоку срез поездок, покрытый старыми логами.
+     * Срез — ссылки на поездки и снимки их улова, которые не меняются при дальнейших записях.
+     */
+    private void startSnapshot() {
+        LogFile previous = current;
+        long covered = generation;
+        current = new LogFile(logPath(++generation));
+        int count = tripCount();
+        List<FishingTrip> trips = new ArrayList<>(count);
+        List<List<CatchRecord>> catches = new ArrayList<>(count);
+        for (int position = 0; position < count; position++) {
+            FishingTrip trip = detachedTripAt(position);
+            trips.add(trip);
+            catches.add(trip.getCatches());
+        }
+        recordsSinceSnapshot = 0;
+        pendingSnapshot = snapshotter.submit(() -> writeSnapshot(previous, covered, trips, catches));
+    }
+
+    private void writeSnapshot(LogFile previous, long covered, List<FishingTrip> trips,
+                               List<List<CatchRecord>> catches) {
+        previous.log.close();
+        JournalSnapshot.write(getFisherman(), trips, catches, snapshotPath(covered));
+        try {
+            for (long gen : snapshotGenerations()) {
+                if (gen < covered) {
+                    Files.deleteIfExists(snapshotPath(gen));
+                }
+            }
+            for (long gen : logGenerations()) {
+                if (gen <= covered) {
+                    Files.deleteIfExists(logPath(gen));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось удалить логи, покрытые снимком", e);
+        }
+        logger.info("Снимок журнала сохранен: {} поездок", trips.size());
+    }
+
+    /**
+     * Дожидается фонового снимка, если он пишется. Ошибка снимка не теряет данных: логи,
+     * которые он должен был покрыть, остаются на месте.
+     */
+    private void awaitSnapshot() {
+        Future<?> pending = pendingSnapshot;
+        if (pending == null) {
+            return;
+        }
+        pendingSnapshot = null;
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Ошибка записи снимка журнала: {}", e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void recover() {
+        long covered = 0;
+        List<Long> snapshots = snapshotGenerations();
+        if (!snapshots.isEmpty()) {
+            covered = snapshots.get(snapshots.size() - 1);
+            // Поездки снимка уже на диске, поэтому загружаются в обход finishBulk этого класса
+            super.finishBulk(appendBulk(JournalSnapshot.open(snapshotPath(covered)).trips()));
+        }
+        long last = covered;
+        for (long gen : logGenerations()) {
+            if (gen > covered) {
+                long records = JournalLog.replay(logPath(gen), new Replay());
+                recordsSinceSnapshot += records;
+                last = gen;
+                if (records == 0) {
+                    deleteQuietly(logPath(gen));
+                }
+            }
+        }
+        generation = last + 1;
+        current = new LogFile(logPath(generation));
+        logger.info("Журнал восстановлен из {}: {} поездок", directory, tripCount());
+    }
+
+    /**
+     * Номер поездки в записях журнала: позиция поездки, то есть ее номер минус один.
+     */
+    private static int recordId(FishingTrip trip) {
+        return (int) (trip.getId() - 1);
+    }
+
+    private void afterWrite() {
+        // Пока пишется прошлый снимок, новый не начинается: записи дождутся следующего вызова
+        if (++recordsSinceSnapshot >= snapshotEveryRecords
+                && (pendingSnapshot == null || pendingSnapshot.isDone())) {
+            awaitSnapshot();
+            startSnapshot();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            LogFile file = current;
+            if (file != null && file.log.hasUnsynced()) {
+                file.log.sync();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Ошибка фоновой синхронизации журнала: {}", e.getMessage());
+        }
+    }
+
+    private void writeTrip(LogFile file, int tripId, FishingTrip trip) {
+        int locationId = define(file, trip.getLocation());
+        int gearId = define(file, trip.getGear());
+        int baitId = define(file, trip.getBait());
+        record.reset();
+        record.putByte(TRIP).putVarLong(tripId).putString(trip.getDate()).putVarLong(locationId + 1L)
+                .putString(trip.getWeatherConditions()).putDouble(trip.getTemperature())
+                .putInt(trip.getWindSpeed()).putInt(trip.getPressure()).putDouble(trip.getDuration())
+                .putVarLong(gearId + 1L).putVarLong(baitId + 1L);
+        file.log.append(record);
+    }
+
+    private void writeCatch(LogFile file, int tripId, FishSpecies species, double weight, double length) {
+        int speciesId = file.species.idOf(species);
+        if (speciesId < 0) {
+            speciesId = file.species.encode(species);
+            record.reset();
+            record.putByte(SPECIES).putVarLong(speciesId).putString(species.getName())
+                    .putString(species.getDescription()).putDouble(species.getMinWeight())
+                    .putDouble(species.getMaxWeight());
+            file.log.append(record);
+        }
+        record.reset();
+        record.putByte(CATCH).putVarLong(tripId).putVarLong(speciesId).putDouble(weight).putDouble(length);
+        file.log.append(record);
+    }
+
+    private int define(LogFile file, FishingLocation location) {
+        if (location == null) {
+            return -1;
+        }
+        int id = file.locations.idOf(location);
+        if (id < 0) {
+            id = file.locations.encode(location);
+            record.reset();
+            record.putByte(LOCATION).putVarLong(id).putString(location.getName())
+                    .putString(location.getDescription());
+            file.log.append(record);
+        }
+        return id;
+    }
+
+    private int define(LogFile file, FishingGear gear) {
+        if (gear == null) {
+            return -1;
+        }
+        int id = file.gears.idOf(gear);
+        if (id < 0) {
+            id = file.gears.encode(gear);
+            record.reset();
+            record.putByte(GEAR).putVarLong(id).putString(gear.getType()).putString(gear.getBrand())
+                    .putString(gear.getSpecifications());
+            file.log.append(record);
+        }
+        return id;
+    }
+
+    private int define(LogFile file, Bait bait) {
+        if (bait == null) {
+            return -1;
+        }
+        int id = file.baits.idOf(bait);
+        if (id < 0) {
+            id = file.baits.encode(bait);
+            record.reset();
+            record.putByte(BAIT).putVarLong(id).putString(bait.getType()).putString(bait.getBrand())
+                    .putString(bait.getColor());
+            file.log.append(record);
+        }
+        return id;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Не удалось удалить пустой лог {}", path);
+        }
+    }
+
+    private Path logPath(long gen) {
+        return directory.resolve(String.format("journal-%010d.log", gen));
+    }
+
+    private Path snapshotPath(long gen) {
+        return directory.resolve(String.format("snapshot-%010d.fjsn", gen));
+    }
+
+    private List<Long> logGenerations() {
+        return generations(LOG_NAME);
+    }
+
+    private List<Long> snapshotGenerations() {
+        return generations(SNAPSHOT_NAME);
+    }
+
+    private List<Long> generations(Pattern name) {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = name.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать каталог журнала " + directory, e);
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    /**
+     * Открытый файл лога со словарями сущностей, определенных в нем. Каждый файл самодостаточен.
+     */
+    private static final class LogFile {
+        private final JournalLog log;
+        private final DictionaryEncoder<FishingLocation> locations = new DictionaryEncoder<>();
+        private final DictionaryEncoder<FishingGear> gears = new DictionaryEncoder<>();
+        private final DictionaryEncoder<Bait> baits = new DictionaryEncoder<>();
+        private final DictionaryEncoder<FishSpecies> species = new DictionaryEncoder<>();
+
+        private LogFile(Path path) {
+            this.log = new JournalLog(path);
+        }
+    }
+
+    /**
+     * Применяет записи одного файла к журналу в обход повторной записи на диск.
+     */
+    private final class Replay implements Consumer<ByteBuffer> {
+        private final List<FishingLocation> locations = new ArrayList<>();
+        private final List<FishingGear> gears = new ArrayList<>();
+        private final List<Bait> baits = new ArrayList<>();
+        private final List<FishSpecies> species = new ArrayList<>();
+
+        @Override
+        public void accept(ByteBuffer in) {
+            byte type = in.get();
+            switch (type) {
+                case LOCATION -> put(locations, RecordBuffer.getVarInt(in),
+                        FishingLocation.of(RecordBuffer.getString(in), RecordBuffer.getString(in)));
+                case GEAR -> put(gears, RecordBuffer.getVarInt(in), FishingGear.of(RecordBuffer.getString(in),
+                        RecordBuffer.getString(in), RecordBuffer.getString(in)));
+                case BAIT -> put(baits, RecordBuffer.getVarInt(in), Bait.of(RecordBuffer.getString(in),
+                        RecordBuffer.getString(in), RecordBuffer.getString(in)));
+                case SPECIES -> put(species, RecordBuffer.getVarInt(in), FishSpecies.of(RecordBuffer.getString(in),
+                        RecordBuffer.getString(in), in.getDouble(), in.getDouble()));
+                case TRIP -> replayTrip(in);
+                case CATCH -> replayCatch(in);
+                default -> throw new IllegalStateException("Неизвестный тип записи журнала: " + type);
+            }
+        }
+
+        private void replayTrip(ByteBuffer in) {
+            int tripId = RecordBuffer.getVarInt(in);
+            String date = RecordBuffer.getString(in);
+            FishingLocation location = lookup(locations, RecordBuffer.getVarInt(in) - 1);
+            String weather = RecordBuffer.getString(in);
+            double temperature = in.getDouble();
+            int windSpeed = in.getInt();
+            int pressure = in.getInt();
+            double duration = in.getDouble();
+            FishingGear gear = lookup(gears, RecordBuffer.getVarInt(in) - 1);
+            Bait bait = lookup(baits, RecordBuffer.getVarInt(in) - 1);
+            if (tripId != tripCount()) {
+                throw new IllegalStateException("Нарушен порядок поездок в журнале: " + tripId);
+            }
+            DurableFishingJournal.super.addTrip(date, location, weather, temperature, windSpeed,
+                    pressure, duration, gear, bait);
+        }
+
+        private void replayCatch(ByteBuffer in) {
+            int tripId = RecordBuffer.getVarInt(in);
+            FishSpecies fish = species.get(RecordBuffer.getVarInt(in));
+            double weight = in.getDouble();
+            double length = in.getDouble();
+            if (tripId >= tripCount()) {
+                logger.warn("Улов ссылается на неизвестную поездку {}", tripId);
+                return;
+            }
+            DurableFishingJournal.super.addCatch(tripAt(tripId), fish, weight, length);
+        }
+
+        private <T> void put(List<T> table, int id, T value) {
+            while (table.size() <= id) {
+                table.add(null);
+            }
+            table.set(id, value);
+        }
+
+        private <T> T lookup(List<T> table, int id) {
+            return id < 0 ? null : table.get(id);
+        }
+    }
+}
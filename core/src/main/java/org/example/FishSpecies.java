@@ -1,13 +1,56 @@
 package org.example;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 
-@Data
-@AllArgsConstructor
+/**
+ * Вид рыбы с допустимым диапазоном веса. Неизменяем, хеш вычисляется один раз.
+ */
+@Value
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class FishSpecies {
-    private String name;
-    private String description;
-    private double minWeight;
-    private double maxWeight;
+    private static final Interner<FishSpecies> INTERNER = new Interner<>();
+
+    String name;
+    String description;
+    double minWeight;
+    double maxWeight;
+
+    /**
+     * @throws IllegalArgumentException если вес отрицательный или минимальный вес больше максимального
+     */
+    public FishSpecies(String name, String description, double minWeight, double maxWeight) {
+        if (minWeight < 0 || maxWeight < 0) {
+            throw new IllegalArgumentException("Вес вида " + name + " не может быть отрицательным");
+        }
+        if (minWeight > maxWeight) {
+            throw new IllegalArgumentException("Минимальный вес вида " + name + " больше максимального");
+        }
+        this.name = name;
+        this.description = description;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Попадает ли вес в допустимый диапазон вида, границы включены.
+     */
+    public boolean isWithinRange(double weight) {
+        return weight >= minWeight && weight <= maxWeight;
+    }
+
+    /**
+     * Канонический экземпляр вида: для равных значений возвращается один и тот же объект.
+     */
+    public static FishSpecies of(String name, String description, double minWeight, double maxWeight) {
+        return INTERNER.intern(new FishSpecies(name, description, minWeight, maxWeight));
+    }
+
+    /**
+     * Канонический экземпляр равного значения, null для null. Журналы так заменяют значения,
+     * созданные конструктором, поэтому в данных журнала равные значения — один объект.
+     */
+    static FishSpecies canonical(FishSpecies species) {
+        return species == null ? null : INTERNER.intern(species);
+    }
 }
@@ -1,12 +1,34 @@
 package org.example;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 
-@Data
+/**
+ * Снасть. Неизменяема, хеш вычисляется один раз.
+ */
+@Value
 @AllArgsConstructor
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class FishingGear {
-    private String type;
-    private String brand;
-    private String specifications;
+    private static final Interner<FishingGear> INTERNER = new Interner<>();
+
+    String type;
+    String brand;
+    String specifications;
+
+    /**
+     * Канонический экземпляр снасти: для равных значений возвращается один и тот же объект.
+     */
+    public static FishingGear of(String type, String brand, String specifications) {
+        return INTERNER.intern(new FishingGear(type, brand, specifications));
+    }
+
+    /**
+     * Канонический экземпляр равного значения, null для null. Журналы так заменяют значения,
+     * созданные конструктором, поэтому в данных журнала равные значения — один объект.
+     */
+    static FishingGear canonical(FishingGear gear) {
+        return gear == null ? null : INTERNER.intern(gear);
+    }
 }
@@ -4,66 +4,293 @@ package org.example;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class FishingJournal {
     private static final Logger logger = LoggerFactory.getLogger(FishingJournal.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // Замеренный HeapFootprint объем поездки вместе с индексами и одной записи улова
+    private static final long TRIP_BYTES = 200;
+    private static final long CATCH_BYTES = 40;
     private Fisherman fisherman;
     private List<FishingTrip> trips;
-    private Map<Bait, Map<FishSpecies, Integer>> baitEffectiveness;
-
+    private StoredTripList storedTrips;
+    private Map<Bait, Map<FishSpecies, Counter>> baitEffectiveness;
+    private TripDateIndex dateIndex;
+    private TripLocationIndex locationIndex;
+    private Map<FishSpecies, SpeciesTotals> speciesTotals;
+    private BaitCube baitCube;
+    private CatchDistributions catchDistributions;
+    private QueryCache queryCache;
+    private JournalMetrics metrics;
+    private int totalFish;
+    private long outlierCount;
+    private double totalWeight;
+    private ReportRenderer textReport;
+
+    /**
+     * Журнал с режимом хранения из системного свойства fishing.journal.storage.
+     */
     public FishingJournal(Fisherman fisherman) {
-        this.trips = new ArrayList<>();
+        this(fisherman, JournalStorage.fromSystemProperty());
+    }
+
+    public FishingJournal(Fisherman fisherman, JournalStorage storage) {
+        if (storage == JournalStorage.OFF_HEAP) {
+            this.storedTrips = new OffHeapTripList();
+        } else if (storage == JournalStorage.COLUMNAR) {
+            this.storedTrips = new ColumnarTripList();
+        }
+        this.trips = storedTrips != null ? storedTrips : new ArrayList<>();
         this.fisherman = fisherman;
         this.baitEffectiveness = new HashMap<>();
+        this.dateIndex = new TripDateIndex();
+        this.locationIndex = new TripLocationIndex();
+        this.speciesTotals = new HashMap<>();
+        this.baitCube = new BaitCube();
+        this.catchDistributions = new CatchDistributions();
         logger.debug("Конструктор инициализирован, trips = {}", trips);
     }
 
     public FishingTrip addTrip(String date, FishingLocation location, String weatherConditions, double temperature,
                                int windSpeed, int pressure, double duration,
                                FishingGear gear, Bait bait) {
-        logger.debug("Добавление поездки: date={}, location={}, weather={}, temp={}, wind={}, pressure={}, " +
-                        "duration={}, gear={}, bait={}",
-                date, location, weatherConditions, temperature, windSpeed, pressure, duration, gear, bait);
-        FishingTrip trip = new FishingTrip(date, location, weatherConditions,
-                temperature, windSpeed, pressure,
-                duration, gear, bait);
-        trips.add(trip);
-        logger.info("Добавлена новая поездка ID: {}", trip.hashCode());
-        logger.debug("Всего поездок: {}", trips.size());
-        return trip;
+        long start = startTimer();
+        try {
+            FishingTrip trip = new FishingTrip(date, FishingLocation.canonical(location), weatherConditions,
+                    temperature, windSpeed, pressure,
+                    duration, FishingGear.canonical(gear), Bait.canonical(bait));
+            trip.setId(trips.size() + 1);
+            trips.add(trip);
+            // В колоночном режиме поездку журнала представляет объект хранилища, а не созданный здесь
+            trip = trips.get(trips.size() - 1);
+            index(trip, trips.size() - 1);
+            baitCube.addTrip(trip);
+            if (queryCache != null) {
+                queryCache.tripAdded(trip);
+            }
+            // Аргументы debug-сообщений упаковываются в массив и объекты, поэтому вызов только под проверкой уровня
+            if (logger.isDebugEnabled()) {
+                logger.debug("Добавлена поездка ID: {}, date={}, location={}, weather={}, temp={}, wind={}, " +
+                                "pressure={}, duration={}, gear={}, bait={}, всего поездок: {}",
+                        trip.getId(), date, location, weatherConditions, temperature, windSpeed, pressure, duration,
+                        gear, bait, trips.size());
+            }
+            return trip;
+        } finally {
+            stopTimer(JournalOperation.ADD_TRIP, start);
+        }
     }
 
-    public void addCatch(FishingTrip trip, FishSpecies species, double weight, double length) {
-        logger.debug("Добавление улова: trip={}, species={}, weight={}, length={}",
-                trip != null ? trip.hashCode() : "null", species, weight, length);
-        if (trip == null) {
-            logger.error("Попытка добавить улов в несуществующую поездку");
-            return;
+    /**
+     * Добавляет поездки массовой загрузки без индексации и журналирования каждой из них.
+     * До вызова finishBulk индексы и итоги не учитывают эти поездки.
+     *
+     * @return позиция первой добавленной поездки
+     */
+    int appendBulk(List<FishingTrip> batch) {
+        int from = trips.size();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(from + i + 1L);
         }
+        trips.addAll(batch);
+        return from;
+    }
 
-        if (species == null) {
-            logger.error("Не указан вид рыбы");
-            return;
+    /**
+     * Строит индексы и итоги для поездок, добавленных через appendBulk, начиная с позиции from.
+     */
+    void finishBulk(int from) {
+        for (int position = from; position < trips.size(); position++) {
+            FishingTrip trip = trips.get(position);
+            index(trip, position);
+            baitCube.addTrip(trip);
+            for (CatchRecord cr : trip.getCatches()) {
+                aggregate(trip, cr);
+            }
+        }
+        // Пакет может затронуть любой запрос, проверять каждую поездку дороже, чем пересчитать
+        if (queryCache != null) {
+            queryCache.clear();
+        }
+        logger.info("Загружено поездок: {}, всего в журнале: {}", trips.size() - from, trips.size());
+    }
+
+    private void index(FishingTrip trip, int position) {
+        indexDate(trip, position);
+        if (trip.getLocation() != null) {
+            locationIndex.add(trip.getLocation().getName(), position);
+        }
+    }
+
+    private void indexDate(FishingTrip trip, int position) {
+        try {
+            dateIndex.add(LocalDate.parse(trip.getDate(), DATE_FORMAT).toEpochDay(), position);
+        } catch (DateTimeParseException | NullPointerException e) {
+            dateIndex.addUndated(position);
+            logger.warn("Поездка с некорректной датой {} не попадет в фильтр по датам", trip.getDate());
         }
+    }
+
+    public void addCatch(FishingTrip trip, FishSpecies species, double weight, double length) {
+        long start = startTimer();
+        try {
+            if (trip == null) {
+                logger.error("Попытка добавить улов в несуществующую поездку");
+                return;
+            }
 
-        if (weight <= 0 || length <= 0) {
-            logger.warn("Некорректные параметры рыбы: вес={} длина={}", weight, length);
+            if (species == null) {
+                logger.error("Не указан вид рыбы");
+                return;
+            }
+            species = FishSpecies.canonical(species);
+
+            if (weight <= 0 || length <= 0) {
+                logger.warn("Некорректные параметры рыбы: вес={} длина={}", weight, length);
+            }
+
+            CatchRecord catchRecord = new CatchRecord(species, weight, length);
+            // Выбросы считаются в итогах и распределениях, в лог пишутся только при отладке
+            if (catchRecord.isOutlier() && logger.isDebugEnabled()) {
+                logger.debug("Вес {} кг вне диапазона вида {}: {}-{} кг",
+                        weight, species.getName(), species.getMinWeight(), species.getMaxWeight());
+            }
+            if (storedTrips != null) {
+                if (getTrip(trip.getId()) != trip) {
+                    logger.error("Поездка {} не из этого журнала", trip.getId());
+                    return;
+                }
+                storedTrips.addCatch(trip, catchRecord);
+            } else {
+                trip.appendCatch(catchRecord);
+            }
+            aggregate(trip, catchRecord);
+            if (queryCache != null) {
+                queryCache.catchAdded(trip, species);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Добавлен улов: trip={}, species={}, weight={}, length={}",
+                        trip.getId(), species, weight, length);
+            }
+        } finally {
+            stopTimer(JournalOperation.ADD_CATCH, start);
         }
+    }
 
-        CatchRecord catchRecord = new CatchRecord(species, weight, length);
-        trip.addCatch(catchRecord);
+    private void aggregate(FishingTrip trip, CatchRecord catchRecord) {
+        FishSpecies species = catchRecord.getSpecies();
+        SpeciesTotals totals = speciesTotals.get(species);
+        if (totals == null) {
+            totals = new SpeciesTotals();
+            speciesTotals.put(species, totals);
+        }
+        totals.count++;
+        totals.weight += catchRecord.getWeight();
+        totalFish++;
+        if (catchRecord.isOutlier()) {
+            outlierCount++;
+        }
+        totalWeight += catchRecord.getWeight();
 
         Bait bait = trip.getBait();
-        baitEffectiveness.putIfAbsent(bait, new HashMap<>());
-        Map<FishSpecies, Integer> speciesCount = baitEffectiveness.get(bait);
-        speciesCount.put(species, speciesCount.getOrDefault(species, 0) + 1);
+        Map<FishSpecies, Counter> speciesCount = baitEffectiveness.get(bait);
+        if (speciesCount == null) {
+            speciesCount = new HashMap<>();
+            baitEffectiveness.put(bait, speciesCount);
+        }
+        Counter counter = speciesCount.get(species);
+        if (counter == null) {
+            counter = new Counter();
+            speciesCount.put(species, counter);
+        }
+        counter.value++;
+        baitCube.addCatch(trip, species);
+        catchDistributions.add(trip, species, catchRecord.getWeight(), catchRecord.getLength());
+    }
+
+    /**
+     * Итоги журнала. Поддерживаются при добавлении поездок и улова, чтение не проходит по данным.
+     */
+    public JournalStatistics getStatistics() {
+        long start = startTimer();
+        try {
+            return new JournalStatistics(trips.size(), totalFish, totalWeight);
+        } finally {
+            stopTimer(JournalOperation.STATISTICS, start);
+        }
+    }
+
+    /**
+     * Итоги по виду рыбы или null, если такой вид еще не ловился.
+     */
+    public SpeciesStatistics getSpeciesStatistics(FishSpecies species) {
+        long start = startTimer();
+        try {
+            SpeciesTotals totals = speciesTotals.get(species);
+            return totals == null ? null : new SpeciesStatistics(species, totals.count, totals.weight);
+        } finally {
+            stopTimer(JournalOperation.SPECIES_STATISTICS, start);
+        }
+    }
+
+    /**
+     * Итоги по всем пойманным видам рыб.
+     */
+    public List<SpeciesStatistics> getSpeciesStatistics() {
+        long start = startTimer();
+        try {
+            List<SpeciesStatistics> result = new ArrayList<>(speciesTotals.size());
+            speciesTotals.forEach((species, totals) ->
+                    result.add(new SpeciesStatistics(species, totals.count, totals.weight)));
+            return result;
+        } finally {
+            stopTimer(JournalOperation.SPECIES_STATISTICS, start);
+        }
+    }
+
+    /**
+     * Копия распределений веса и длины улова по видам, местам и месяцам. Копию можно слить
+     * с распределениями других журналов, журнал от этого не меняется.
+     */
+    public CatchDistributions getCatchDistributions() {
+        long start = startTimer();
+        try {
+            return catchDistributions.copy();
+        } finally {
+            stopTimer(JournalOperation.SPECIES_STATISTICS, start);
+        }
+    }
+
+    /**
+     * Копии распределений веса и длины улова по видам рыб, без срезов по местам и месяцам.
+     */
+    public Map<FishSpecies, CatchDistribution> getSpeciesDistributions() {
+        long start = startTimer();
+        try {
+            return catchDistributions.copyBySpecies();
+        } finally {
+            stopTimer(JournalOperation.SPECIES_STATISTICS, start);
+        }
+    }
+
+    /**
+     * Один текстовый отчет на журнал: буферы отчета переиспользуются всеми print-методами.
+     */
+    private ReportRenderer textReport() {
+        if (textReport == null) {
+            textReport = new ReportRenderer(ReportFormat.TEXT);
+        }
+        return textReport;
     }
 
     public void printTotalStats() {
@@ -72,16 +299,11 @@ public class FishingJournal {
             return;
         }
 
-        int totalFish = trips.stream().mapToInt(FishingTrip::getTotalFish).sum();
-        double totalWeight = trips.stream().mapToDouble(FishingTrip::getTotalWeight).sum();
-
-        String message = "Рыбак: " + fisherman + "\n" +
-                "Всего рыбалок: " + trips.size() + "\n" +
-                "Общий улов: " + totalFish + " рыб\n" +
-                "Общий вес: " + String.format("%.2f", totalWeight) + " кг\n" +
-                "Средний улов за рыбалку: " + String.format("%.1f", (double) totalFish / trips.size());
-
-        logger.info(message);
+        try {
+            textReport().renderTotals(fisherman, getStatistics(), System.out);
+        } catch (IOException e) {
+            logger.error("Ошибка вывода отчета: {}", e.getMessage());
+        }
     }
 
     public void printSpeciesStats() {
@@ -90,22 +312,12 @@ public class FishingJournal {
             return;
         }
 
-        Map<FishSpecies, Integer> speciesCount = new HashMap<>();
-        Map<FishSpecies, Double> speciesWeight = new HashMap<>();
-
-        for (FishingTrip trip : trips) {
-            for (CatchRecord cr : trip.getCatches()) {
-                FishSpecies species = cr.getSpecies();
-                speciesCount.put(species, speciesCount.getOrDefault(species, 0) + 1);
-                speciesWeight.put(species, speciesWeight.getOrDefault(species, 0.0) + cr.getWeight());
-            }
+        try {
+            textReport().renderSpeciesStats(getSpeciesStatistics(),
+                    catchDistributions.bySpecies(), System.out);
+        } catch (IOException e) {
+            logger.error("Ошибка вывода отчета: {}", e.getMessage());
         }
-
-        speciesCount.forEach((species, count) -> {
-            double avgWeight = speciesWeight.get(species) / count;
-            System.out.printf("%s: %d шт, общий вес %.2f кг, средний вес %.2f кг%n",
-                    species.getName(), count, speciesWeight.get(species), avgWeight);
-        });
     }
 
     public void printTripReport(FishingTrip trip) {
@@ -114,24 +326,13 @@ public class FishingJournal {
             return;
         }
 
-        logger.debug("Формирование отчета для поездки ID: {}", trip.hashCode());
-
-        StringBuilder report = new StringBuilder();
-        report.append("Дата: ").append(trip.getDate()).append("\n");
-        report.append("Место: ").append(trip.getLocation()).append("\n");
-        report.append("Погода: ").append(trip.getWeatherConditions()).append("\n");
-        report.append("Длительность: ").append(trip.getDuration()).append(" часов\n");
-        report.append("Снасть: ").append(trip.getGear()).append("\n");
-        report.append("Приманка: ").append(trip.getBait()).append("\n");
-
-        report.append("\nУлов (").append(trip.getTotalFish()).append(" рыб, ")
-                .append(String.format("%.2f", trip.getTotalWeight())).append(" кг):\n");
-
-        for (CatchRecord cr : trip.getCatches()) {
-            report.append(" - ").append(cr).append("\n");
+        logger.debug("Формирование отчета для поездки ID: {}", trip.getId());
+        try {
+            System.out.println("Отчет по поездке:");
+            textReport().renderTrip(trip, System.out);
+        } catch (IOException e) {
+            logger.error("Ошибка вывода отчета: {}", e.getMessage());
         }
-
-        logger.info("Отчет по поездке:\n{}", report);
     }
 
     public void printBaitEffectiveness() {
@@ -139,58 +340,364 @@ public class FishingJournal {
             logger.warn("Нет данных об эффективности приманок");
             return;
         }
-        baitEffectiveness.forEach((bait, speciesMap) -> {
-            System.out.println("Приманка: " + bait);
-            speciesMap.forEach((species, count) ->
-                    System.out.println(" - " + species.getName() + ": " + count + " рыб"));
-        });
+
+        try {
+            textReport().renderBaitEffectiveness(getBaitEffectiveness(), System.out);
+        } catch (IOException e) {
+            logger.error("Ошибка вывода отчета: {}", e.getMessage());
+        }
     }
 
-    public List<FishingTrip> filterByLocation(String locationName) {
-        if (locationName == null || locationName.isBlank()) {
-            logger.warn("Пустой параметр locationName");
-            return new ArrayList<>();
+    /**
+     * Приманки по убыванию числа рыб в час при условиях среза. Ответ строится по предагрегированным
+     * ячейкам куба, а не по поездкам, поэтому время не зависит от размера журнала.
+     */
+    public List<BaitRate> rankBaits(BaitSlice slice) {
+        long start = startTimer();
+        try {
+            return baitCube.rank(slice);
+        } finally {
+            stopTimer(JournalOperation.RANK_BAITS, start);
         }
+    }
 
-        String searchTerm = locationName.toLowerCase();
-        return trips.stream()
-                .filter(trip -> trip.getLocation().getName().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+    /**
+     * Копия счетчиков эффективности приманок: приманка -> вид рыбы -> число пойманных рыб.
+     */
+    public Map<Bait, Map<FishSpecies, Long>> getBaitEffectiveness() {
+        long start = startTimer();
+        try {
+            Map<Bait, Map<FishSpecies, Long>> result = new HashMap<>();
+            baitEffectiveness.forEach((bait, counters) -> {
+                Map<FishSpecies, Long> counts = new HashMap<>();
+                counters.forEach((species, counter) -> counts.put(species, (long) counter.value));
+                result.put(bait, counts);
+            });
+            return result;
+        } finally {
+            stopTimer(JournalOperation.BAIT_EFFECTIVENESS, start);
+        }
     }
 
-    public List<FishingTrip> filterByDateRange(String startDate, String endDate) {
+    /**
+     * Включает сбор метрик операций журнала; повторный вызов возвращает уже включенные метрики.
+     * Без метрик операции не замеряют время.
+     */
+    public JournalMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new JournalMetrics(this);
+        }
+        return metrics;
+    }
+
+    /**
+     * Метрики журнала или null, если они не включены.
+     */
+    public JournalMetrics getMetrics() {
+        return metrics;
+    }
+
+    private long startTimer() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    private void stopTimer(JournalOperation operation, long start) {
+        JournalMetrics m = metrics;
+        if (m != null && start != 0) {
+            m.record(operation, start);
+        }
+    }
+
+    /**
+     * Включает кеш результатов query и фильтров не больше чем на maxEntries запросов.
+     * Запись в журнал сбрасывает только запросы, которым соответствует измененная поездка.
+     *
+     * @throws IllegalArgumentException если maxEntries не положительный
+     */
+    public void enableQueryCache(int maxEntries) {
+        queryCache = new QueryCache(maxEntries);
+    }
+
+    /**
+     * Счетчики кеша запросов или null, если кеш не включен.
+     */
+    public QueryCacheStats getQueryCacheStats() {
+        return queryCache == null ? null : queryCache.stats();
+    }
+
+    /**
+     * Отбирает поездки по запросу. Кандидаты берутся из самого избирательного индекса
+     * (по дате или по месту), остальные условия проверяются за один проход.
+     * При включенном кеше повторный запрос возвращает копию сохраненного результата.
+     */
+    public List<FishingTrip> query(TripQuery query) {
+        long start = startTimer();
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            LocalDate start = LocalDate.parse(startDate, formatter);
-            LocalDate end = LocalDate.parse(endDate, formatter);
+            return select(query);
+        } finally {
+            stopTimer(JournalOperation.QUERY, start);
+        }
+    }
+
+    private List<FishingTrip> select(TripQuery query) {
+        QueryCache cache = queryCache;
+        return cache == null ? execute(query) : cache.get(query, this::execute);
+    }
+
+    private List<FishingTrip> execute(TripQuery query) {
+        Plan plan = plan(query);
+        List<FishingTrip> result = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            int position = plan.positionAt(i);
+            if (plan.accepts(position)) {
+                result.add(trips.get(position));
+            }
+        }
+        return result;
+    }
 
-            if (start.isAfter(end)) {
-                logger.warn("Начальная дата {} позже конечной {}", startDate, endDate);
-                return new ArrayList<>();
+    /**
+     * Поездки журнала в порядке добавления без копирования списка. Поток видит поездки,
+     * добавленные до его создания, и хорошо делится для параллельной обработки.
+     */
+    public Stream<FishingTrip> stream() {
+        return IntStream.range(0, trips.size()).mapToObj(trips::get);
+    }
+
+    /**
+     * Ленивый вариант query: поездки проверяются по мере чтения потока, поэтому
+     * limit или findFirst останавливают проверку, а результат не собирается в список.
+     */
+    public Stream<FishingTrip> stream(TripQuery query) {
+        Plan plan = plan(query);
+        return IntStream.range(0, plan.size())
+                .map(plan::positionAt)
+                .filter(plan::accepts)
+                .mapToObj(trips::get);
+    }
+
+    /**
+     * Страница результатов запроса после поездки с номером afterId (0 — с начала журнала).
+     * Курсор — номер поездки, поэтому страницы не сдвигаются при добавлении новых поездок.
+     *
+     * @throws IllegalArgumentException если limit не положительный или afterId отрицательный
+     */
+    public TripPage page(TripQuery query, long afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным: " + limit);
+        }
+        if (afterId < 0) {
+            throw new IllegalArgumentException("Некорректный курсор: " + afterId);
+        }
+        Plan plan = plan(query);
+        List<FishingTrip> result = new ArrayList<>(Math.min(limit, 64));
+        for (int i = plan.firstAtOrAfter(afterId); i < plan.size(); i++) {
+            int position = plan.positionAt(i);
+            if (!plan.accepts(position)) {
+                continue;
+            }
+            if (result.size() == limit) {
+                return new TripPage(result, result.get(limit - 1).getId());
+            }
+            result.add(trips.get(position));
+        }
+        return new TripPage(result, 0);
+    }
+
+    /**
+     * Выбирает самый избирательный индекс (по дате или по месту) для кандидатов запроса.
+     */
+    private Plan plan(TripQuery query) {
+        if (query.hasDateRange() && query.hasLocation()) {
+            long fromDay = query.getFrom().toEpochDay();
+            long toDay = query.getTo().toEpochDay();
+            if (dateIndex.count(fromDay, toDay) <= locationIndex.estimate(query.getLocation())) {
+                return new Plan(query, dateIndex.range(fromDay, toDay), true, false);
             }
+            return new Plan(query, locationIndex.search(query.getLocation()), false, true);
+        } else if (query.hasDateRange()) {
+            return new Plan(query, dateIndex.range(query.getFrom().toEpochDay(), query.getTo().toEpochDay()),
+                    true, false);
+        } else if (query.hasLocation()) {
+            return new Plan(query, locationIndex.search(query.getLocation()), false, true);
+        }
+        return new Plan(query, null, false, false);
+    }
 
-            return trips.stream()
-                    .filter(trip -> {
-                        LocalDate tripDate = LocalDate.parse(trip.getDate(), formatter);
-                        return !tripDate.isBefore(start) && !tripDate.isAfter(end);
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.error("Ошибка парсинга даты: {}", e.getMessage());
-            return new ArrayList<>();
+    public List<FishingTrip> filterByLocation(String locationName) {
+        long start = startTimer();
+        try {
+            TripQuery query = TripFilters.byLocation(locationName, logger);
+            return query == null ? new ArrayList<>() : select(query);
+        } finally {
+            stopTimer(JournalOperation.FILTER_BY_LOCATION, start);
         }
     }
+
+    public List<FishingTrip> filterByDateRange(String startDate, String endDate) {
+        long start = startTimer();
+        try {
+            TripQuery query = TripFilters.byDateRange(startDate, endDate, logger);
+            return query == null ? new ArrayList<>() : select(query);
+        } finally {
+            stopTimer(JournalOperation.FILTER_BY_DATE_RANGE, start);
+        }
+    }
+
     public List<FishingTrip> filterByLocationAndDate(String locationName, String startDate, String endDate) {
-        List<FishingTrip> locationFiltered = filterByLocation(locationName);
-        List<FishingTrip> dateFiltered = filterByDateRange(startDate, endDate);
+        long start = startTimer();
+        try {
+            TripQuery query = TripFilters.byLocationAndDate(locationName, startDate, endDate, logger);
+            return query == null ? new ArrayList<>() : select(query);
+        } finally {
+            stopTimer(JournalOperation.FILTER_BY_LOCATION_AND_DATE, start);
+        }
+    }
+
+    public Fisherman getFisherman() {
+        return fisherman;
+    }
+
+    int tripCount() {
+        return trips.size();
+    }
+
+    long catchCount() {
+        return totalFish;
+    }
+
+    long outlierCount() {
+        return outlierCount;
+    }
+
+    int distinctLocations() {
+        return locationIndex.nameCount();
+    }
+
+    int distinctBaits() {
+        return baitCube.baitCount();
+    }
 
-        return locationFiltered.stream()
-                .filter(dateFiltered::contains)
-                .collect(Collectors.toList());
+    int distinctSpecies() {
+        return speciesTotals.size();
     }
+
+    /**
+     * Приблизительный объем журнала в куче по средним размерам поездки и улова и объему куба приманок.
+     * Вне кучи и в колонках поездки в куче представлены списком и индексами по дате и месту.
+     */
+    long estimatedHeapBytes() {
+        long records = storedTrips != null
+                ? storedTrips.heapBytes() + dateIndex.estimatedBytes() + locationIndex.estimatedBytes()
+                : trips.size() * TRIP_BYTES + totalFish * CATCH_BYTES;
+        return records + baitCube.estimatedBytes() + catchDistributions.estimatedBytes();
+    }
+
+    /**
+     * Объем прямых буферов с поездками и уловом, 0 в остальных режимах хранения.
+     */
+    long offHeapBytes() {
+        return storedTrips instanceof OffHeapTripList offHeapTrips ? offHeapTrips.offHeapBytes() : 0;
+    }
+
+    FishingTrip tripAt(int position) {
+        return trips.get(position);
+    }
+
+    /**
+     * Поездка, которую можно читать из другого потока, пока журнал пополняется: сама поездка
+     * или, в колоночном режиме, где представления читают общие колонки, ее копия в куче.
+     */
+    FishingTrip detachedTripAt(int position) {
+        FishingTrip trip = trips.get(position);
+        if (!(storedTrips instanceof ColumnarTripList)) {
+            return trip;
+        }
+        FishingTrip copy = new FishingTrip(trip.getDate(), trip.getLocation(), trip.getWeatherConditions(),
+                trip.getDuration(), trip.getGear(), trip.getBait(), trip.getTemperature(), trip.getWindSpeed(),
+                trip.getPressure(), trip.getCatches());
+        copy.setId(trip.getId());
+        return copy;
+    }
+
+    /**
+     * Поездка по номеру за O(1) или null, если поездки с таким номером нет.
+     * Номера выдаются подряд с 1, поэтому номер — это позиция в списке поездок плюс один.
+     */
+    public FishingTrip getTrip(long id) {
+        return id >= 1 && id <= trips.size() ? trips.get((int) (id - 1)) : null;
+    }
+
     public List<FishingTrip> getTrips() {
         return new ArrayList<>(trips);
     }
 
+    /**
+     * Кандидаты запроса: позиции из индекса по возрастанию или, без индекса, все поездки,
+     * добавленные к моменту планирования. Условие, по которому выбраны кандидаты, повторно не проверяется.
+     */
+    private final class Plan {
+        private final TripQuery query;
+        private final int[] candidates;
+        private final int size;
+        private final boolean byDate;
+        private final boolean byLocation;
+
+        private Plan(TripQuery query, int[] candidates, boolean byDate, boolean byLocation) {
+            this.query = query;
+            this.candidates = candidates;
+            this.size = candidates == null ? trips.size() : candidates.length;
+            this.byDate = byDate;
+            this.byLocation = byLocation;
+        }
 
+        int size() {
+            return size;
+        }
+
+        int positionAt(int i) {
+            return candidates == null ? i : candidates[i];
+        }
+
+        /**
+         * Индекс первого кандидата с номером поездки больше afterId.
+         */
+        int firstAtOrAfter(long afterId) {
+            // Номер поездки на единицу больше ее позиции
+            if (candidates == null) {
+                return (int) Math.min(afterId, size);
+            }
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (candidates[mid] < afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean accepts(int position) {
+            if (!byDate && query.hasDateRange() && !query.matchesDay(dateIndex.dayOf(position))) {
+                return false;
+            }
+            FishingTrip trip = trips.get(position);
+            if (!byLocation && !query.matchesLocation(trip)) {
+                return false;
+            }
+            return query.matchesRest(trip);
+        }
+    }
+
+    private static final class Counter {
+        private int value;
+    }
+
+    private static final class SpeciesTotals {
+        private int count;
+        private double weight;
+    }
 }
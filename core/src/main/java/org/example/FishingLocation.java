@@ -1,11 +1,33 @@
 package org.example;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 
-@Data
+/**
+ * Место рыбалки. Неизменяемо, хеш вычисляется один раз.
+ */
+@Value
 @AllArgsConstructor
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class FishingLocation {
-    private String name;
-    private String description;
+    private static final Interner<FishingLocation> INTERNER = new Interner<>();
+
+    String name;
+    String description;
+
+    /**
+     * Канонический экземпляр места: для равных значений возвращается один и тот же объект.
+     */
+    public static FishingLocation of(String name, String description) {
+        return INTERNER.intern(new FishingLocation(name, description));
+    }
+
+    /**
+     * Канонический экземпляр равного значения, null для null. Журналы так заменяют значения,
+     * созданные конструктором, поэтому в данных журнала равные значения — один объект.
+     */
+    static FishingLocation canonical(FishingLocation location) {
+        return location == null ? null : INTERNER.intern(location);
+    }
 }
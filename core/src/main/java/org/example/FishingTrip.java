@@ -1,15 +1,22 @@
 package org.example;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
+/**
+ * Поездка на рыбалку. Поля заполняются до добавления в журнал: журнал индексирует поездку
+ * и учитывает ее в итогах при добавлении, поэтому после этого поездку меняет только журнал.
+ */
 @Data
-@AllArgsConstructor
 public class FishingTrip {
+    /**
+     * Номер поездки в журнале, начиная с 1; 0 — поездка еще не добавлена в журнал.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private long id;
     private String date;
     private FishingLocation location;
     private String weatherConditions;
@@ -20,7 +27,19 @@ public class FishingTrip {
     private double temperature;
     private int windSpeed;
     private int pressure;
-    private List<CatchRecord> catches = new ArrayList<>();
+    private CatchList catches;
+    @Setter(AccessLevel.NONE)
+    private volatile double totalWeight;
+
+    /**
+     * Поездка с уже известным уловом; список копируется, общий вес считается по нему.
+     */
+    public FishingTrip(String date, FishingLocation location, String weatherConditions, double duration,
+                       FishingGear gear, Bait bait, double temperature, int windSpeed, int pressure,
+                       List<CatchRecord> catches) {
+        this(date, location, weatherConditions, temperature, windSpeed, pressure, duration, gear, bait);
+        setCatches(catches);
+    }
 
     public FishingTrip(String date, FishingLocation location, String weatherConditions, double temperature,
                        int windSpeed, int pressure, double duration, FishingGear gear, Bait bait) {
@@ -33,31 +52,152 @@ public class FishingTrip {
         this.duration = duration;
         this.gear = gear;
         this.bait = bait;
+        this.catches = new CatchList();
+    }
+
+    /**
+     * Поездка журнала без собственных полей и улова: подкласс читает их из хранилища.
+     */
+    FishingTrip(long id) {
+        this.id = id;
     }
 
+    /**
+     * Добавляет улов. Одновременно улов в поездку добавляет только один поток,
+     * читать поездку при этом можно из любых потоков: общий вес обновляется раньше списка
+     * и никогда не отстает от снимка улова.
+     */
     public void addCatch(CatchRecord catchRecord) {
+        requireWritable();
+        appendCatch(catchRecord);
+    }
+
+    /**
+     * Добавляет улов без проверки: так журнал дописывает улов в уже добавленную поездку.
+     */
+    void appendCatch(CatchRecord catchRecord) {
+        totalWeight += catchRecord.getWeight();
         catches.add(catchRecord);
     }
+
+    /**
+     * Улов поездки только для чтения: добавлять улов нужно через addCatch, иначе разойдется общий вес.
+     * Список — снимок улова на момент вызова, улов, добавленный позже, в нем не появится.
+     */
+    public List<CatchRecord> getCatches() {
+        return catches.snapshot();
+    }
+
+    /**
+     * Заменяет улов копией списка и пересчитывает общий вес.
+     */
+    public void setCatches(List<CatchRecord> catches) {
+        requireWritable();
+        this.catches = new CatchList(catches);
+        this.totalWeight = catches.stream().mapToDouble(CatchRecord::getWeight).sum();
+    }
+
+    public void setDate(String date) {
+        requireWritable();
+        this.date = date;
+    }
+
+    public void setLocation(FishingLocation location) {
+        requireWritable();
+        this.location = location;
+    }
+
+    public void setWeatherConditions(String weatherConditions) {
+        requireWritable();
+        this.weatherConditions = weatherConditions;
+    }
+
+    public void setDuration(double duration) {
+        requireWritable();
+        this.duration = duration;
+    }
+
+    public void setGear(FishingGear gear) {
+        requireWritable();
+        this.gear = gear;
+    }
+
+    public void setBait(Bait bait) {
+        requireWritable();
+        this.bait = bait;
+    }
+
+    public void setTemperature(double temperature) {
+        requireWritable();
+        this.temperature = temperature;
+    }
+
+    public void setWindSpeed(int windSpeed) {
+        requireWritable();
+        this.windSpeed = windSpeed;
+    }
+
+    public void setPressure(int pressure) {
+        requireWritable();
+        this.pressure = pressure;
+    }
+
+    /**
+     * Проверка перед изменением поездки. Поездку из журнала менять нельзя: ее поля уже в индексах
+     * и итогах, а хранилища вне кучи и в колонках после сборки мусора создают объект заново
+     * из записи, и изменение бы потерялось. Улов в такую поездку добавляет FishingJournal.addCatch.
+     */
+    void requireWritable() {
+        if (id != 0) {
+            throw new IllegalStateException("Поездка " + id + " уже в журнале и не меняется");
+        }
+    }
+
     public double getTotalWeight() {
-        return catches.stream().mapToDouble(CatchRecord::getWeight).sum();
+        return totalWeight;
     }
 
     public int getTotalFish() {
         return catches.size();
     }
 
+    /**
+     * Номер месяца поездки (год * 12 + месяц - 1) из даты yyyy-MM-dd без разбора строки в объекты,
+     * или -1 для даты в другом формате.
+     */
+    int monthIndex() {
+        String date = getDate();
+        if (date == null || date.length() < 7 || date.charAt(4) != '-') {
+            return -1;
+        }
+        int year = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = date.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            year = year * 10 + digit;
+        }
+        int tens = date.charAt(5) - '0';
+        int ones = date.charAt(6) - '0';
+        int month = tens * 10 + ones;
+        if (tens < 0 || tens > 1 || ones < 0 || ones > 9 || month < 1 || month > 12) {
+            return -1;
+        }
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Поездка равна только самой себе: две поездки в один день на одном месте — разные записи журнала.
+     */
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        FishingTrip that = (FishingTrip) o;
-        return Objects.equals(date, that.date) &&
-                Objects.equals(location, that.location);
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(date, location);
+        return System.identityHashCode(this);
     }
 
 }
@@ -0,0 +1,12 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Строка файла импорта, которую не удалось загрузить.
+ */
+@Value
+public class ImportError {
+    long line;
+    String message;
+}
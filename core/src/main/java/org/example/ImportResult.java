@@ -0,0 +1,19 @@
+package org.example;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Итог массовой загрузки: сколько поездок и уловов добавлено и какие строки пропущены.
+ */
+@Value
+public class ImportResult {
+    int trips;
+    int catches;
+    List<ImportError> errors;
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
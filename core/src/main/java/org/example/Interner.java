@@ -0,0 +1,79 @@
+package org.example;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пул канонических экземпляров неизменяемых значений: равные значения заменяются одним объектом,
+ * поэтому сравнение в хеш-таблицах обычно заканчивается на проверке ссылок.
+ * Пул держит значения слабыми ссылками: значение, на которое больше никто не ссылается, уходит
+ * из пула при сборке мусора, поэтому пул, который пополняют клиенты по HTTP, не растет без предела.
+ * Пул без общей блокировки: параллельные писатели журнала не ждут друг друга.
+ */
+final class Interner<T> {
+    private final ConcurrentHashMap<Entry<T>, Entry<T>> pool = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+    T intern(T value) {
+        forgetCollected();
+        Entry<T> entry = new Entry<>(value, collected);
+        while (true) {
+            Entry<T> existing = pool.get(entry);
+            if (existing == null) {
+                existing = pool.putIfAbsent(entry, entry);
+                if (existing == null) {
+                    return value;
+                }
+            }
+            T canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            // Значение собрано между поиском и чтением ссылки
+            pool.remove(existing, existing);
+        }
+    }
+
+    int size() {
+        forgetCollected();
+        return pool.size();
+    }
+
+    private void forgetCollected() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            pool.remove(ref, ref);
+        }
+    }
+
+    /**
+     * Слабая ссылка на значение с хешем значения. Пока значение живо, ссылки на равные значения
+     * равны; очищенная ссылка равна только самой себе, и ее можно удалить из пула.
+     */
+    private static final class Entry<T> extends WeakReference<T> {
+        private final int hash;
+
+        private Entry(T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry<?> other)) {
+                return false;
+            }
+            T value = get();
+            return value != null && value.equals(other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Журналы всех рыбаков клуба и запросы по клубу в целом.
+ * Каждый журнал обрабатывается отдельной задачей пула fork-join: задача читает счетчики журнала
+ * без блокировок и строит частичный результат, частичные результаты затем сливаются.
+ * Запись в журналы во время запроса не останавливается.
+ */
+public class JournalAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(JournalAggregator.class);
+    private final ConcurrentHashMap<String, ConcurrentFishingJournal> journals;
+    private final ForkJoinPool pool;
+
+    public JournalAggregator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public JournalAggregator(ForkJoinPool pool) {
+        this.journals = new ConcurrentHashMap<>();
+        this.pool = pool;
+    }
+
+    /**
+     * Журнал рыбака; создается при первом обращении. Рыбаки различаются по имени пользователя.
+     */
+    public ConcurrentFishingJournal journal(Fisherman fisherman) {
+        if (fisherman == null || fisherman.getUsername() == null) {
+            throw new IllegalArgumentException("Не указано имя пользователя рыбака");
+        }
+        return journals.computeIfAbsent(fisherman.getUsername(), name -> {
+            logger.info("Создан журнал рыбака {}", name);
+            return new ConcurrentFishingJournal(fisherman);
+        });
+    }
+
+    public ConcurrentFishingJournal getJournal(String username) {
+        return journals.get(username);
+    }
+
+    public Collection<ConcurrentFishingJournal> getJournals() {
+        return new ArrayList<>(journals.values());
+    }
+
+    public int getJournalCount() {
+        return journals.size();
+    }
+
+    /**
+     * Лучшие приманки для каждого вида рыбы по числу пойманных рыб, не больше limit на вид.
+     */
+    public Map<FishSpecies, List<BaitCount>> topBaitsPerSpecies(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit должен быть положительным: " + limit);
+        }
+        Map<FishSpecies, Map<Bait, Long>> counts = aggregate(HashMap::new, journal -> {
+            Map<FishSpecies, Map<Bait, Long>> partial = new HashMap<>();
+            journal.getBaitEffectiveness().forEach((bait, bySpecies) -> bySpecies.forEach((species, count) ->
+                    partial.computeIfAbsent(species, s -> new HashMap<>()).put(bait, count)));
+            return partial;
+        }, JournalAggregator::mergeNested);
+
+        Map<FishSpecies, List<BaitCount>> result = new HashMap<>();
+        counts.forEach((species, byBait) -> {
+            List<BaitCount> ranking = new ArrayList<>(byBait.size());
+            byBait.forEach((bait, count) -> ranking.add(new BaitCount(bait, count)));
+            ranking.sort(Comparator.comparingLong(BaitCount::getCount).reversed());
+            result.put(species, ranking.size() > limit ? new ArrayList<>(ranking.subList(0, limit)) : ranking);
+        });
+        return result;
+    }
+
+    /**
+     * Число пойманных рыб по месту и месяцу по всем журналам клуба. Месяцы упорядочены по возрастанию.
+     */
+    public Map<FishingLocation, Map<YearMonth, Long>> catchesPerLocationPerMonth() {
+        return aggregate(HashMap::new, ConcurrentFishingJournal::getCatchesByLocationMonth,
+                JournalAggregator::mergeNested);
+    }
+
+    /**
+     * Распределения веса и длины улова по всем журналам клуба, слитые из распределений журналов.
+     */
+    public CatchDistributions catchDistributions() {
+        return aggregate(CatchDistributions::new, ConcurrentFishingJournal::getCatchDistributions,
+                CatchDistributions::merge);
+    }
+
+    /**
+     * Рыбаки клуба по убыванию общего веса улова, не больше limit записей.
+     */
+    public List<LeaderboardEntry> leaderboardByWeight(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit должен быть положительным: " + limit);
+        }
+        List<LeaderboardEntry> entries = aggregate(ArrayList::new, journal -> {
+            JournalStatistics stats = journal.getStatistics();
+            List<LeaderboardEntry> partial = new ArrayList<>(1);
+            partial.add(new LeaderboardEntry(journal.getFisherman(), stats.getTotalFish(), stats.getTotalWeight()));
+            return partial;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+        entries.sort(Comparator.comparingDouble(LeaderboardEntry::getTotalWeight).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Строит частичный результат по каждому журналу в пуле и сливает их попарно.
+     */
+    private <R> R aggregate(Supplier<R> empty, Function<ConcurrentFishingJournal, R> partial, BinaryOperator<R> merge) {
+        List<ConcurrentFishingJournal> snapshot = new ArrayList<>(journals.values());
+        return pool.submit(() -> snapshot.parallelStream()
+                .map(partial)
+                .reduce(merge)
+                .orElseGet(empty)).join();
+    }
+
+    private static <K1, K2> Map<K1, Map<K2, Long>> mergeNested(Map<K1, Map<K2, Long>> left,
+                                                              Map<K1, Map<K2, Long>> right) {
+        if (left.size() < right.size()) {
+            Map<K1, Map<K2, Long>> swap = left;
+            left = right;
+            right = swap;
+        }
+        Map<K1, Map<K2, Long>> target = left;
+        right.forEach((key, counts) -> {
+            Map<K2, Long> existing = target.get(key);
+            if (existing == null) {
+                target.put(key, counts);
+            } else {
+                counts.forEach((inner, count) -> existing.merge(inner, count, Long::sum));
+            }
+        });
+        return target;
+    }
+}
@@ -0,0 +1,922 @@
+package org.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Потоковая массовая загрузка поездок и улова из CSV или JSON Lines.
+ *
+ * <p>Каждая строка описывает либо поездку, либо улов; улов относится к последней поездке выше него.
+ * CSV: {@code trip,date,location,locationDescription,weather,temperature,windSpeed,pressure,duration,
+ * gearType,gearBrand,gearSpecifications,baitType,baitBrand,baitColor} и
+ * {@code catch,species,speciesDescription,minWeight,maxWeight,weight,length[,tripId]}.
+ * Улов с необязательным полем tripId добавляется к поездке журнала с этим номером после того, как
+ * загружены все поездки файла, поэтому он может ссылаться и на поездку из того же файла.
+ * Пустые строки и строки, начинающиеся с {@code #}, пропускаются.
+ * JSON Lines: плоский объект с полем {@code "type": "trip"} или {@code "catch"} и полями с теми же именами.
+ *
+ * <p>Числа разбираются прямо из байтов, повторяющиеся строки и сущности берутся из пулов.
+ * Поездки добавляются в журнал пачками, индексы и итоги строятся один раз в конце загрузки.
+ * Некорректные строки не прерывают загрузку и возвращаются в результате с номерами строк.
+ */
+public class JournalImporter {
+    private static final Logger logger = LoggerFactory.getLogger(JournalImporter.class);
+    private static final int DEFAULT_BATCH_SIZE = 10_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int DATE = 0;
+    private static final int LOCATION = 1;
+    private static final int LOCATION_DESCRIPTION = 2;
+    private static final int WEATHER = 3;
+    private static final int TEMPERATURE = 4;
+    private static final int WIND_SPEED = 5;
+    private static final int PRESSURE = 6;
+    private static final int DURATION = 7;
+    private static final int GEAR_TYPE = 8;
+    private static final int GEAR_BRAND = 9;
+    private static final int GEAR_SPECIFICATIONS = 10;
+    private static final int BAIT_TYPE = 11;
+    private static final int BAIT_BRAND = 12;
+    private static final int BAIT_COLOR = 13;
+    private static final byte[][] TRIP_FIELDS = utf8("date", "location", "locationDescription", "weather",
+            "temperature", "windSpeed", "pressure", "duration", "gearType", "gearBrand", "gearSpecifications",
+            "baitType", "baitBrand", "baitColor");
+
+    private static final int SPECIES = 0;
+    private static final int SPECIES_DESCRIPTION = 1;
+    private static final int MIN_WEIGHT = 2;
+    private static final int MAX_WEIGHT = 3;
+    private static final int WEIGHT = 4;
+    private static final int LENGTH = 5;
+    private static final int TRIP_ID = 6;
+    private static final byte[][] CATCH_FIELDS = utf8("species", "speciesDescription", "minWeight", "maxWeight",
+            "weight", "length", "tripId");
+
+    private static final byte[] TRIP = "trip".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CATCH = "catch".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TYPE = "type".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    private final Target journal;
+    private final int batchSize;
+    private final BytePool<String> strings = new BytePool<>();
+    private final BytePool<FishingLocation> locations = new BytePool<>();
+    private final BytePool<FishingGear> gears = new BytePool<>();
+    private final BytePool<Bait> baits = new BytePool<>();
+    private final BytePool<FishSpecies> species = new BytePool<>();
+    private final Row row = new Row();
+    private byte[] key = new byte[256];
+
+    private List<ImportError> errors;
+    private List<FishingTrip> batch;
+    private List<PendingCatch> pendingCatches;
+    private FishingTrip currentTrip;
+    private int firstPosition;
+    private int tripCount;
+    private int catchCount;
+
+    public JournalImporter(FishingJournal journal) {
+        this(journal, DEFAULT_BATCH_SIZE);
+    }
+
+    public JournalImporter(FishingJournal journal, int batchSize) {
+        this(new Target() {
+            @Override
+            public int appendBulk(List<FishingTrip> batch) {
+                return journal.appendBulk(batch);
+            }
+
+            @Override
+            public void finishBulk(int from) {
+                journal.finishBulk(from);
+            }
+
+            @Override
+            public FishingTrip getTrip(long id) {
+                return journal.getTrip(id);
+            }
+
+            @Override
+            public void addCatch(FishingTrip trip, FishSpecies species, double weight, double length) {
+                journal.addCatch(trip, species, weight, length);
+            }
+        }, batchSize);
+    }
+
+    /**
+     * Загрузка в журнал с одновременной записью: поездка публикуется читателям вместе со всем своим уловом.
+     */
+    public JournalImporter(ConcurrentFishingJournal journal) {
+        this(journal, DEFAULT_BATCH_SIZE);
+    }
+
+    public JournalImporter(ConcurrentFishingJournal journal, int batchSize) {
+        this(new Target() {
+            @Override
+            public int appendBulk(List<FishingTrip> batch) {
+                return journal.appendBulk(batch);
+            }
+
+            @Override
+            public void finishBulk(int from) {
+                journal.finishBulk(from);
+            }
+
+            @Override
+            public FishingTrip getTrip(long id) {
+                return journal.getTrip(id);
+            }
+
+            @Override
+            public void addCatch(FishingTrip trip, FishSpecies species, double weight, double length) {
+                journal.addCatch(trip, species, weight, length);
+            }
+        }, batchSize);
+    }
+
+    private JournalImporter(Target journal, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным");
+        }
+        this.journal = journal;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importCsv(ReadableByteChannel channel) {
+        return run(channel, false);
+    }
+
+    public ImportResult importJsonLines(ReadableByteChannel channel) {
+        return run(channel, true);
+    }
+
+    private ImportResult run(ReadableByteChannel channel, boolean json) {
+        errors = new ArrayList<>();
+        batch = new ArrayList<>(batchSize);
+        pendingCatches = new ArrayList<>();
+        currentTrip = null;
+        firstPosition = -1;
+        tripCount = 0;
+        catchCount = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long line = 0;
+        boolean eof = false;
+        try {
+            while (!eof) {
+                eof = channel.read(buffer) < 0;
+                buffer.flip();
+                byte[] data = buffer.array();
+                int lineStart = 0;
+                int limit = buffer.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (data[i] == '\n') {
+                        processLine(data, lineStart, i, ++line, json);
+                        lineStart = i + 1;
+                    }
+                }
+                if (eof) {
+                    if (lineStart < limit) {
+                        processLine(data, lineStart, limit, ++line, json);
+                    }
+                    break;
+                }
+                buffer.position(lineStart);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения данных импорта на строке " + line, e);
+        } finally {
+            flushBatch();
+            if (firstPosition >= 0) {
+                journal.finishBulk(firstPosition);
+            }
+            applyPendingCatches();
+        }
+
+        if (!errors.isEmpty()) {
+            logger.warn("Импорт: пропущено строк с ошибками: {}", errors.size());
+        }
+        return new ImportResult(tripCount, catchCount, errors);
+    }
+
+    private void processLine(byte[] data, int from, int to, long line, boolean json) {
+        if (to > from && data[to - 1] == '\r') {
+            to--;
+        }
+        if (line == 1 && to - from >= 3 && data[from] == (byte) 0xEF && data[from + 1] == (byte) 0xBB
+                && data[from + 2] == (byte) 0xBF) {
+            from += 3;
+        }
+        int start = skipSpaces(data, from, to);
+        if (start == to || (!json && data[start] == '#')) {
+            return;
+        }
+        try {
+            boolean isTrip = json ? parseJson(data, start, to) : parseCsv(data, from, to);
+            if (isTrip) {
+                applyTrip();
+            } else {
+                applyCatch(line);
+            }
+        } catch (RowException e) {
+            errors.add(new ImportError(line, e.getMessage()));
+            // Неразобранная строка могла быть поездкой: улов после нее не должен попасть в предыдущую
+            if (row.kind != Row.CATCH) {
+                currentTrip = null;
+            }
+        }
+    }
+
+    private void applyTrip() throws RowException {
+        String date = date(DATE);
+        double temperature = number(TEMPERATURE);
+        int windSpeed = integer(WIND_SPEED);
+        int pressure = integer(PRESSURE);
+        double duration = number(DURATION);
+        FishingLocation location = location();
+        FishingGear gear = gear();
+        Bait bait = bait();
+        String weather = string(WEATHER);
+
+        // Пачка сбрасывается перед новой поездкой: к этому моменту улов предыдущих поездок прочитан целиком
+        if (batch.size() >= batchSize) {
+            flushBatch();
+        }
+        currentTrip = new FishingTrip(date, location, weather, temperature, windSpeed, pressure, duration, gear, bait);
+        batch.add(currentTrip);
+        tripCount++;
+    }
+
+    private void applyCatch(long line) throws RowException {
+        if (!row.isMissing(TRIP_ID)) {
+            // Поездка может быть еще в пачке, а в журнале с логом улов нельзя записать раньше поездки
+            pendingCatches.add(new PendingCatch(line, integer(TRIP_ID), species(), number(WEIGHT),
+                    number(LENGTH)));
+            return;
+        }
+        if (currentTrip == null) {
+            throw new RowException("Улов без поездки");
+        }
+        FishSpecies fish = species();
+        double weight = number(WEIGHT);
+        double length = number(LENGTH);
+        currentTrip.addCatch(new CatchRecord(fish, weight, length));
+        catchCount++;
+    }
+
+    /**
+     * Добавляет улов с tripId через обычный addCatch журнала: поездки к этому моменту проиндексированы
+     * и учтены в итогах, поэтому улов учитывается ровно один раз.
+     */
+    private void applyPendingCatches() {
+        if (pendingCatches.isEmpty()) {
+            return;
+        }
+        for (PendingCatch pending : pendingCatches) {
+            FishingTrip trip = journal.getTrip(pending.tripId);
+            if (trip == null) {
+                errors.add(new ImportError(pending.line, "Нет поездки с номером " + pending.tripId));
+                continue;
+            }
+            journal.addCatch(trip, pending.species, pending.weight, pending.length);
+            catchCount++;
+        }
+        pendingCatches.clear();
+        errors.sort(Comparator.comparingLong(ImportError::getLine));
+    }
+
+    private void flushBatch() {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        int position = journal.appendBulk(batch);
+        if (firstPosition < 0) {
+            firstPosition = position;
+        }
+        batch.clear();
+    }
+
+    private FishingLocation location() throws RowException {
+        if (row.isMissing(LOCATION)) {
+            return null;
+        }
+        int keyLength = key(LOCATION, LOCATION_DESCRIPTION);
+        FishingLocation location = locations.find(key, 0, keyLength);
+        if (location == null) {
+            location = FishingLocation.of(string(LOCATION), string(LOCATION_DESCRIPTION));
+            locations.put(key, 0, keyLength, location);
+        }
+        return location;
+    }
+
+    private FishingGear gear() throws RowException {
+        if (row.isMissing(GEAR_TYPE)) {
+            return null;
+        }
+        int keyLength = key(GEAR_TYPE, GEAR_SPECIFICATIONS);
+        FishingGear gear = gears.find(key, 0, keyLength);
+        if (gear == null) {
+            gear = FishingGear.of(string(GEAR_TYPE), string(GEAR_BRAND), string(GEAR_SPECIFICATIONS));
+            gears.put(key, 0, keyLength, gear);
+        }
+        return gear;
+    }
+
+    private Bait bait() throws RowException {
+        if (row.isMissing(BAIT_TYPE)) {
+            return null;
+        }
+        int keyLength = key(BAIT_TYPE, BAIT_COLOR);
+        Bait bait = baits.find(key, 0, keyLength);
+        if (bait == null) {
+            bait = Bait.of(string(BAIT_TYPE), string(BAIT_BRAND), string(BAIT_COLOR));
+            baits.put(key, 0, keyLength, bait);
+        }
+        return bait;
+    }
+
+    private FishSpecies species() throws RowException {
+        if (row.isMissing(SPECIES)) {
+            throw new RowException("Не указан вид рыбы");
+        }
+        int keyLength = key(SPECIES, MAX_WEIGHT);
+        FishSpecies fish = species.find(key, 0, keyLength);
+        if (fish == null) {
+            try {
+                fish = FishSpecies.of(string(SPECIES), string(SPECIES_DESCRIPTION),
+                        number(MIN_WEIGHT), number(MAX_WEIGHT));
+            } catch (IllegalArgumentException e) {
+                throw new RowException("Некорректный вид рыбы: " + e.getMessage());
+            }
+            species.put(key, 0, keyLength, fish);
+        }
+        return fish;
+    }
+
+    /**
+     * Собирает ключ пула из полей first..last: значения разделены байтом 0xFF, отсутствие — байтом 0xFE.
+     * Эти байты не встречаются в UTF-8, поэтому разные наборы полей дают разные ключи.
+     */
+    private int key(int first, int last) {
+        int length = 0;
+        for (int slot = first; slot <= last; slot++) {
+            int size = row.isMissing(slot) ? 1 : row.length[slot];
+            if (length + size + 1 > key.length) {
+                key = Arrays.copyOf(key, Math.max(key.length * 2, length + size + 1));
+            }
+            if (row.isMissing(slot)) {
+                key[length++] = (byte) 0xFE;
+            } else {
+                System.arraycopy(row.data, row.offset[slot], key, length, size);
+                length += size;
+            }
+            key[length++] = (byte) 0xFF;
+        }
+        return length;
+    }
+
+    private String string(int slot) {
+        if (row.isMissing(slot)) {
+            return null;
+        }
+        int offset = row.offset[slot];
+        int length = row.length[slot];
+        String value = strings.find(row.data, offset, length);
+        if (value == null) {
+            value = new String(row.data, offset, length, StandardCharsets.UTF_8);
+            strings.put(row.data, offset, length, value);
+        }
+        return value;
+    }
+
+    private String date(int slot) throws RowException {
+        if (row.isMissing(slot) || row.length[slot] != 10) {
+            throw new RowException("Дата должна быть в формате yyyy-MM-dd");
+        }
+        byte[] data = row.data;
+        int at = row.offset[slot];
+        if (data[at + 4] != '-' || data[at + 7] != '-') {
+            throw new RowException("Дата должна быть в формате yyyy-MM-dd");
+        }
+        int year = digits(data, at, 4);
+        int month = digits(data, at + 5, 2);
+        int day = digits(data, at + 8, 2);
+        try {
+            LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new RowException("Некорректная дата: " + e.getMessage());
+        }
+        return string(slot);
+    }
+
+    private static int digits(byte[] data, int from, int count) throws RowException {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new RowException("Дата должна быть в формате yyyy-MM-dd");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int integer(int slot) throws RowException {
+        if (row.isMissing(slot)) {
+            throw new RowException("Не указано поле " + fieldName(slot));
+        }
+        byte[] data = row.data;
+        int at = row.offset[slot];
+        int end = at + row.length[slot];
+        boolean negative = data[at] == '-';
+        if (negative || data[at] == '+') {
+            at++;
+        }
+        if (at == end) {
+            throw new RowException("Некорректное целое в поле " + fieldName(slot));
+        }
+        long value = 0;
+        for (; at < end; at++) {
+            int digit = data[at] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new RowException("Некорректное целое в поле " + fieldName(slot));
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw new RowException("Слишком большое число в поле " + fieldName(slot));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new RowException("Слишком большое число в поле " + fieldName(slot));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Разбирает десятичное число из байтов. Для мантиссы до 2^53 и не более 22 знаков после запятой
+     * деление на точную степень десяти дает корректно округленный результат; остальные случаи
+     * передаются Double.parseDouble. NaN, Infinity и числа за пределами double — ошибка строки.
+     */
+    private double number(int slot) throws RowException {
+        if (row.isMissing(slot)) {
+            throw new RowException("Не указано поле " + fieldName(slot));
+        }
+        byte[] data = row.data;
+        int at = row.offset[slot];
+        int end = at + row.length[slot];
+        boolean negative = data[at] == '-';
+        if (negative || data[at] == '+') {
+            at++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean simple = true;
+        for (; at < end; at++) {
+            byte b = data[at];
+            if (b >= '0' && b <= '9') {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    simple = false;
+                    break;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    scale++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                simple = false;
+                break;
+            }
+        }
+        if (simple && digits > 0 && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        double value;
+        try {
+            value = Double.parseDouble(new String(data, row.offset[slot], row.length[slot], StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new RowException("Некорректное число в поле " + fieldName(slot));
+        }
+        if (!Double.isFinite(value)) {
+            throw new RowException("Некорректное число в поле " + fieldName(slot));
+        }
+        return value;
+    }
+
+    private String fieldName(int slot) {
+        byte[][] names = row.kind == Row.TRIP ? TRIP_FIELDS : CATCH_FIELDS;
+        return new String(names[slot], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Разбирает строку CSV в поля. Поля в кавычках могут содержать запятые и удвоенные кавычки.
+     */
+    private boolean parseCsv(byte[] data, int from, int to) throws RowException {
+        row.reset();
+        int at = from;
+        int field = -1;
+        while (true) {
+            int valueStart = row.used;
+            boolean quoted = at < to && data[at] == '"';
+            if (quoted) {
+                at++;
+                while (true) {
+                    if (at >= to) {
+                        throw new RowException("Незакрытая кавычка");
+                    }
+                    if (data[at] == '"') {
+                        if (at + 1 < to && data[at + 1] == '"') {
+                            row.append(data[at]);
+                            at += 2;
+                            continue;
+                        }
+                        at++;
+                        break;
+                    }
+                    row.append(data[at++]);
+                }
+                if (at < to && data[at] != ',') {
+                    throw new RowException("Лишние символы после кавычки");
+                }
+            } else {
+                int end = at;
+                while (end < to && data[end] != ',') {
+                    end++;
+                }
+                row.append(data, at, end - at);
+                at = end;
+            }
+
+            if (field < 0) {
+                row.kind = kind(row.data, valueStart, row.used - valueStart);
+                row.used = valueStart;
+            } else if (field < row.fieldCount()) {
+                int length = row.used - valueStart;
+                if (length == 0 && !quoted) {
+                    row.setMissing(field);
+                } else {
+                    row.set(field, valueStart, length);
+                }
+            }
+            field++;
+            if (at >= to) {
+                break;
+            }
+            at++;
+        }
+        if (field < row.requiredFieldCount()) {
+            throw new RowException("Ожидалось полей: " + (row.requiredFieldCount() + 1) + ", получено: " + (field + 1));
+        }
+        return row.kind == Row.TRIP;
+    }
+
+    /**
+     * Разбирает плоский JSON-объект. Значения — строки, числа или null.
+     */
+    private boolean parseJson(byte[] data, int from, int to) throws RowException {
+        row.reset();
+        int at = skipSpaces(data, from, to);
+        if (at >= to || data[at] != '{') {
+            throw new RowException("Ожидался JSON-объект");
+        }
+        at = skipSpaces(data, at + 1, to);
+        int entries = 0;
+        if (at < to && data[at] == '}') {
+            at++;
+        } else {
+            while (true) {
+                if (at >= to || data[at] != '"') {
+                    throw new RowException("Ожидалось имя поля");
+                }
+                int keyStart = row.used;
+                at = readJsonString(data, at, to);
+                int keyLength = row.used - keyStart;
+                at = skipSpaces(data, at, to);
+                if (at >= to || data[at] != ':') {
+                    throw new RowException("Ожидалось ':'");
+                }
+                at = skipSpaces(data, at + 1, to);
+                if (at >= to) {
+                    throw new RowException("Нет значения поля");
+                }
+                int valueStart = row.used;
+                boolean isNull = false;
+                if (data[at] == '"') {
+                    at = readJsonString(data, at, to);
+                } else {
+                    int end = at;
+                    while (end < to && data[end] != ',' && data[end] != '}' && data[end] > ' ') {
+                        end++;
+                    }
+                    if (Arrays.equals(data, at, end, NULL, 0, NULL.length)) {
+                        isNull = true;
+                    } else if (end == at) {
+                        throw new RowException("Нет значения поля");
+                    } else {
+                        row.append(data, at, end - at);
+                    }
+                    at = end;
+                }
+                row.addEntry(keyStart, keyLength, valueStart, row.used - valueStart, isNull);
+                entries++;
+                at = skipSpaces(data, at, to);
+                if (at < to && data[at] == ',') {
+                    at = skipSpaces(data, at + 1, to);
+                    continue;
+                }
+                if (at < to && data[at] == '}') {
+                    at++;
+                    break;
+                }
+                throw new RowException("Ожидалось ',' или '}'");
+            }
+        }
+        if (skipSpaces(data, at, to) != to) {
+            throw new RowException("Лишние символы после объекта");
+        }
+
+        for (int i = 0; i < entries; i++) {
+            if (row.keyEquals(i, TYPE)) {
+                if (row.entryNull[i]) {
+                    break;
+                }
+                row.kind = kind(row.data, row.entryValueOffset[i], row.entryValueLength[i]);
+            }
+        }
+        if (row.kind == Row.UNKNOWN) {
+            throw new RowException("Не указан тип записи");
+        }
+        byte[][] names = row.kind == Row.TRIP ? TRIP_FIELDS : CATCH_FIELDS;
+        for (int i = 0; i < entries; i++) {
+            for (int slot = 0; slot < names.length; slot++) {
+                if (row.keyEquals(i, names[slot])) {
+                    if (row.entryNull[i]) {
+                        row.setMissing(slot);
+                    } else {
+                        row.set(slot, row.entryValueOffset[i], row.entryValueLength[i]);
+                    }
+                    break;
+                }
+            }
+        }
+        return row.kind == Row.TRIP;
+    }
+
+    /**
+     * Читает JSON-строку, начиная с открывающей кавычки, раскрывая escape-последовательности в буфер строки.
+     *
+     * @return позиция после закрывающей кавычки
+     */
+    private int readJsonString(byte[] data, int at, int to) throws RowException {
+        at++;
+        while (at < to) {
+            byte b = data[at];
+            if (b == '"') {
+                return at + 1;
+            }
+            if (b != '\\') {
+                row.append(b);
+                at++;
+                continue;
+            }
+            if (at + 1 >= to) {
+                break;
+            }
+            byte escaped = data[at + 1];
+            at += 2;
+            switch (escaped) {
+                case '"', '\\', '/' -> row.append(escaped);
+                case 'b' -> row.append((byte) '\b');
+                case 'f' -> row.append((byte) '\f');
+                case 'n' -> row.append((byte) '\n');
+                case 'r' -> row.append((byte) '\r');
+                case 't' -> row.append((byte) '\t');
+                case 'u' -> {
+                    if (at + 4 > to) {
+                        throw new RowException("Некорректная escape-последовательность");
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(data[at + i], 16);
+                        if (digit < 0) {
+                            throw new RowException("Некорректная escape-последовательность");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    at += 4;
+                    if (Character.isHighSurrogate((char) code) && at + 6 <= to && data[at] == '\\'
+                            && data[at + 1] == 'u') {
+                        int low = 0;
+                        for (int i = 2; i < 6; i++) {
+                            low = low * 16 + Math.max(0, Character.digit(data[at + i], 16));
+                        }
+                        if (Character.isLowSurrogate((char) low)) {
+                            row.appendCodePoint(Character.toCodePoint((char) code, (char) low));
+                            at += 6;
+                            continue;
+                        }
+                    }
+                    row.appendCodePoint(code);
+                }
+                default -> throw new RowException("Некорректная escape-последовательность");
+            }
+        }
+        throw new RowException("Незакрытая строка");
+    }
+
+    private static int kind(byte[] data, int offset, int length) throws RowException {
+        if (Arrays.equals(data, offset, offset + length, TRIP, 0, TRIP.length)) {
+            return Row.TRIP;
+        }
+        if (Arrays.equals(data, offset, offset + length, CATCH, 0, CATCH.length)) {
+            return Row.CATCH;
+        }
+        throw new RowException("Неизвестный тип записи: " + new String(data, offset, length, StandardCharsets.UTF_8));
+    }
+
+    private static int skipSpaces(byte[] data, int at, int to) {
+        while (at < to && (data[at] == ' ' || data[at] == '\t')) {
+            at++;
+        }
+        return at;
+    }
+
+    private static byte[][] utf8(String... names) {
+        byte[][] result = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /**
+     * Поля текущей строки. Все значения лежат в общем буфере data, поле — это смещение и длина.
+     */
+    private static final class Row {
+        private static final int UNKNOWN = 0;
+        private static final int TRIP = 1;
+        private static final int CATCH = 2;
+        private static final int SLOTS = 14;
+
+        private byte[] data = new byte[512];
+        private int used;
+        private int kind;
+        private final int[] offset = new int[SLOTS];
+        private final int[] length = new int[SLOTS];
+        private final boolean[] present = new boolean[SLOTS];
+
+        private int entryCount;
+        private int[] entryKeyOffset = new int[SLOTS * 2];
+        private int[] entryKeyLength = new int[SLOTS * 2];
+        private int[] entryValueOffset = new int[SLOTS * 2];
+        private int[] entryValueLength = new int[SLOTS * 2];
+        private boolean[] entryNull = new boolean[SLOTS * 2];
+
+        void reset() {
+            used = 0;
+            kind = UNKNOWN;
+            entryCount = 0;
+            Arrays.fill(present, false);
+        }
+
+        int fieldCount() {
+            return kind == TRIP ? TRIP_FIELDS.length : CATCH_FIELDS.length;
+        }
+
+        /**
+         * Последнее поле улова, tripId, в CSV можно не указывать.
+         */
+        int requiredFieldCount() {
+            return kind == TRIP ? TRIP_FIELDS.length : CATCH_FIELDS.length - 1;
+        }
+
+        boolean isMissing(int slot) {
+            return !present[slot];
+        }
+
+        void set(int slot, int valueOffset, int valueLength) {
+            offset[slot] = valueOffset;
+            length[slot] = valueLength;
+            present[slot] = true;
+        }
+
+        void setMissing(int slot) {
+            present[slot] = false;
+        }
+
+        void append(byte b) {
+            if (used == data.length) {
+                data = Arrays.copyOf(data, used * 2);
+            }
+            data[used++] = b;
+        }
+
+        void append(byte[] source, int from, int count) {
+            if (used + count > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, used + count));
+            }
+            System.arraycopy(source, from, data, used, count);
+            used += count;
+        }
+
+        void appendCodePoint(int codePoint) {
+            byte[] encoded = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+            append(encoded, 0, encoded.length);
+        }
+
+        void addEntry(int keyOffset, int keyLength, int valueOffset, int valueLength, boolean isNull) {
+            if (entryCount == entryKeyOffset.length) {
+                int capacity = entryCount * 2;
+                entryKeyOffset = Arrays.copyOf(entryKeyOffset, capacity);
+                entryKeyLength = Arrays.copyOf(entryKeyLength, capacity);
+                entryValueOffset = Arrays.copyOf(entryValueOffset, capacity);
+                entryValueLength = Arrays.copyOf(entryValueLength, capacity);
+                entryNull = Arrays.copyOf(entryNull, capacity);
+            }
+            entryKeyOffset[entryCount] = keyOffset;
+            entryKeyLength[entryCount] = keyLength;
+            entryValueOffset[entryCount] = valueOffset;
+            entryValueLength[entryCount] = valueLength;
+            entryNull[entryCount] = isNull;
+            entryCount++;
+        }
+
+        boolean keyEquals(int entry, byte[] name) {
+            int from = entryKeyOffset[entry];
+            return Arrays.equals(data, from, from + entryKeyLength[entry], name, 0, name.length);
+        }
+    }
+
+    /**
+     * Улов с tripId, отложенный до finishBulk.
+     */
+    private static final class PendingCatch {
+        private final long line;
+        private final long tripId;
+        private final FishSpecies species;
+        private final double weight;
+        private final double length;
+
+        private PendingCatch(long line, long tripId, FishSpecies species, double weight, double length) {
+            this.line = line;
+            this.tripId = tripId;
+            this.species = species;
+            this.weight = weight;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Журнал, в который идет загрузка: обычный или с одновременной записью.
+     */
+    private interface Target {
+        int appendBulk(List<FishingTrip> batch);
+
+        void finishBulk(int from);
+
+        FishingTrip getTrip(long id);
+
+        void addCatch(FishingTrip trip, FishSpecies species, double weight, double length);
+    }
+
+    /**
+     * Ошибка в одной строке файла. Стек не заполняется: исключение используется только для сообщения.
+     */
+    private static final class RowException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Файл записей только для добавления. Каждая запись: длина (4 байта), CRC32 содержимого (4 байта)
+ * и само содержимое. Записи копятся в памяти и сбрасываются на диск пачками: одна операция
+ * fsync покрывает все записи, накопленные с прошлого сброса (group commit).
+ */
+class JournalLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(JournalLog.class);
+    private static final int HEADER_SIZE = 8;
+    private static final int WRITE_THRESHOLD = 1 << 20;
+    private static final long MAP_WINDOW = 256L << 20;
+    private static final int MAX_RECORD_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocate(WRITE_THRESHOLD * 2);
+    private long appended;
+    private long written;
+    private volatile long durable;
+    private volatile boolean closed;
+
+    JournalLog(Path file) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал " + file, e);
+        }
+    }
+
+    /**
+     * Добавляет запись в буфер. Запись становится долговечной после ближайшего sync().
+     */
+    void append(RecordBuffer record) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Журнал закрыт");
+            }
+            int size = record.length();
+            if (pending.remaining() < HEADER_SIZE + size) {
+                writePending();
+                if (pending.capacity() < HEADER_SIZE + size) {
+                    pending = ByteBuffer.allocate(HEADER_SIZE + size);
+                }
+            }
+            crc.reset();
+            crc.update(record.array(), 0, size);
+            pending.putInt(size);
+            pending.putInt((int) crc.getValue());
+            pending.put(record.array(), 0, size);
+            appended++;
+            if (pending.position() >= WRITE_THRESHOLD) {
+                writePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Записывает накопленное и делает fsync. Параллельные вызовы объединяются в один fsync.
+     */
+    void sync() {
+        long target;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            writePending();
+            target = written;
+        } finally {
+            lock.unlock();
+        }
+        if (durable >= target) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (closed || durable >= target) {
+                return;
+            }
+            long covered;
+            lock.lock();
+            try {
+                covered = written;
+            } finally {
+                lock.unlock();
+            }
+            channel.force(false);
+            durable = covered;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка fsync журнала", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    long appendedRecords() {
+        return appended;
+    }
+
+    boolean hasUnsynced() {
+        return durable < appended;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        sync();
+        syncLock.lock();
+        lock.lock();
+        try {
+            closed = true;
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка закрытия журнала", e);
+        } finally {
+            lock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        if (pending.position() == 0) {
+            written = appended;
+            return;
+        }
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи журнала", e);
+        } finally {
+            pending.clear();
+        }
+        written = appended;
+    }
+
+    /**
+     * Сбрасывает на диск каталог, чтобы созданные, переименованные и удаленные в нем файлы
+     * пережили сбой питания. Там, где каталог нельзя открыть как файл (Windows), ничего не делает.
+     */
+    static void syncDirectory(Path directory) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            logger.debug("Каталог {} не открывается для fsync: {}", directory, e.getMessage());
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка fsync каталога " + directory, e);
+        }
+    }
+
+    /**
+     * Читает записи файла через отображение в память и передает содержимое каждой в обработчик.
+     * Недописанный или поврежденный хвост отбрасывается: файл обрезается по последней целой записи.
+     *
+     * @return число прочитанных записей
+     */
+    static long replay(Path file, Consumer<ByteBuffer> handler) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long offset = 0;
+            long records = 0;
+            CRC32 crc = new CRC32();
+            MappedByteBuffer window = null;
+            long windowStart = 0;
+            while (offset + HEADER_SIZE <= size) {
+                if (window == null || offset + HEADER_SIZE > windowStart + window.limit()) {
+                    windowStart = offset;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAP_WINDOW, size - offset));
+                }
+                int at = (int) (offset - windowStart);
+                int length = window.getInt(at);
+                int expectedCrc = window.getInt(at + 4);
+                if (length < 0 || length > MAX_RECORD_SIZE || offset + HEADER_SIZE + length > size) {
+                    break;
+                }
+                if (at + HEADER_SIZE + length > window.limit()) {
+                    windowStart = offset;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                            Math.min(Math.max(MAP_WINDOW, HEADER_SIZE + length), size - offset));
+                    at = 0;
+                }
+                ByteBuffer payload = window.slice(at + HEADER_SIZE, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                handler.accept(payload);
+                offset += HEADER_SIZE + length;
+                records++;
+            }
+            if (offset < size) {
+                logger.warn("Журнал {} поврежден после {} записей, отброшено {} байт", file, records, size - offset);
+                channel.truncate(offset);
+                channel.force(true);
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения журнала " + file, e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Счетчики, задержки операций и показатели размера журнала. Задержки пишутся в гистограммы
+ * без блокировок; показатели размера читаются из журнала в момент запроса.
+ */
+public class JournalMetrics implements JournalMetricsMXBean {
+    private static final JournalOperation[] OPERATIONS = JournalOperation.values();
+
+    private final FishingJournal journal;
+    private final LatencyHistogram[] histograms;
+    private ObjectName registeredName;
+
+    JournalMetrics(FishingJournal journal) {
+        this.journal = journal;
+        this.histograms = new LatencyHistogram[OPERATIONS.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    void record(JournalOperation operation, long startNanos) {
+        histograms[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public LatencyHistogram getHistogram(JournalOperation operation) {
+        return histograms[operation.ordinal()];
+    }
+
+    public OperationStats getOperationStats(JournalOperation operation) {
+        LatencyHistogram histogram = histograms[operation.ordinal()];
+        long count = histogram.getCount();
+        return new OperationStats(operation.name(), count,
+                count == 0 ? 0 : histogram.getTotalNanos() / count,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMaxNanos());
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        List<OperationStats> result = new ArrayList<>(OPERATIONS.length);
+        for (JournalOperation operation : OPERATIONS) {
+            result.add(getOperationStats(operation));
+        }
+        return result;
+    }
+
+    @Override
+    public int getTripCount() {
+        return journal.tripCount();
+    }
+
+    @Override
+    public long getCatchCount() {
+        return journal.catchCount();
+    }
+
+    @Override
+    public long getOutlierCount() {
+        return journal.outlierCount();
+    }
+
+    @Override
+    public int getDistinctLocations() {
+        return journal.distinctLocations();
+    }
+
+    @Override
+    public int getDistinctBaits() {
+        return journal.distinctBaits();
+    }
+
+    @Override
+    public int getDistinctSpecies() {
+        return journal.distinctSpecies();
+    }
+
+    @Override
+    public long getEstimatedHeapBytes() {
+        return journal.estimatedHeapBytes();
+    }
+
+    /**
+     * Регистрирует метрики в платформенном MBean-сервере под именем
+     * org.example:type=FishingJournal,name=&lt;имя пользователя рыбака&gt;.
+     *
+     * @throws IllegalStateException если регистрация не удалась, например имя уже занято
+     */
+    public synchronized ObjectName registerMBean() {
+        if (registeredName != null) {
+            return registeredName;
+        }
+        String owner = journal.getFisherman() == null ? "unknown" : journal.getFisherman().getUsername();
+        try {
+            ObjectName name = new ObjectName("org.example:type=FishingJournal,name=" + ObjectName.quote(owner));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать метрики журнала " + owner, e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(registeredName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось снять метрики журнала " + registeredName, e);
+        } finally {
+            registeredName = null;
+        }
+    }
+}
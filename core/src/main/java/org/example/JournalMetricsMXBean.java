@@ -0,0 +1,27 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Метрики журнала для JMX.
+ */
+public interface JournalMetricsMXBean {
+    int getTripCount();
+
+    long getCatchCount();
+
+    /**
+     * Число уловов с весом вне диапазона вида.
+     */
+    long getOutlierCount();
+
+    int getDistinctLocations();
+
+    int getDistinctBaits();
+
+    int getDistinctSpecies();
+
+    long getEstimatedHeapBytes();
+
+    List<OperationStats> getOperations();
+}
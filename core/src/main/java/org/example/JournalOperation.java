@@ -0,0 +1,17 @@
+package org.example;
+
+/**
+ * Операции журнала, для которых собираются счетчики и задержки.
+ */
+public enum JournalOperation {
+    ADD_TRIP,
+    ADD_CATCH,
+    QUERY,
+    FILTER_BY_LOCATION,
+    FILTER_BY_DATE_RANGE,
+    FILTER_BY_LOCATION_AND_DATE,
+    STATISTICS,
+    SPECIES_STATISTICS,
+    BAIT_EFFECTIVENESS,
+    RANK_BAITS
+}
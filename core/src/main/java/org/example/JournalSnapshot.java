@@ -0,0 +1,544 @@
+package org.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Двоичный снимок журнала для переноса между узлами и быстрой загрузки.
+ *
+ * <p>Файл: магическое число FJSN, версия формата, секции с длиной в байтах и CRC32 всего
+ * предшествующего содержимого. Секции: владелец и размеры, словари мест, снастей, приманок,
+ * видов рыб и погоды, колонки поездок и колонки улова. Ссылки на словари — varint номера плюс один,
+ * 0 означает null. Дата — varint zigzag-разности дней с предыдущей датой; даты не в формате yyyy-MM-dd
+ * хранятся строками в отдельной секции. Номера поездок не хранятся: номер — позиция плюс один,
+ * а улов привязан к поездкам числом уловов в каждой. Температура, длительность, вес и длина —
+ * double фиксированной ширины и читаются прямо из отображенного файла.
+ *
+ * <p>open отображает файл в память и раскладывает varint-колонки в примитивные массивы без создания
+ * объектов. query отвечает по колонкам и создает объекты только для подходящих поездок, toJournal
+ * материализует весь журнал массовой загрузкой. Файл ограничен 2 ГБ. Экземпляр не потокобезопасен.
+ */
+public final class JournalSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(JournalSnapshot.class);
+    private static final int MAGIC = 0x464A534E;
+    private static final int VERSION = 1;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final long RAW_DATE = Long.MIN_VALUE;
+
+    private final Fisherman fisherman;
+    private final int tripCount;
+    private final int catchCount;
+    private final List<FishingLocation> locations;
+    private final List<FishingGear> gears;
+    private final List<Bait> baits;
+    private final List<FishSpecies> species;
+    private final List<String> weather;
+
+    private final long[] days;
+    private final Map<Integer, String> rawDates;
+    private final int[] locationRefs;
+    private final int[] weatherRefs;
+    private final ByteBuffer temperatures;
+    private final int[] windSpeeds;
+    private final int[] pressures;
+    private final ByteBuffer durations;
+    private final int[] gearRefs;
+    private final int[] baitRefs;
+    private final int[] catchStart;
+    private final int[] speciesRefs;
+    private final ByteBuffer weights;
+    private final ByteBuffer lengths;
+    private final FishingTrip[] materialized;
+
+    private JournalSnapshot(ByteBuffer file) {
+        Sections in = new Sections(file);
+        ByteBuffer header = in.next();
+        fisherman = header.get() == 0 ? null : new Fisherman(RecordBuffer.getString(header),
+                RecordBuffer.getString(header), RecordBuffer.getString(header));
+        tripCount = RecordBuffer.getVarInt(header);
+        catchCount = RecordBuffer.getVarInt(header);
+
+        ByteBuffer section = in.next();
+        locations = new ArrayList<>();
+        for (int i = RecordBuffer.getVarInt(section); i > 0; i--) {
+            locations.add(FishingLocation.of(RecordBuffer.getString(section), RecordBuffer.getString(section)));
+        }
+        section = in.next();
+        gears = new ArrayList<>();
+        for (int i = RecordBuffer.getVarInt(section); i > 0; i--) {
+            gears.add(FishingGear.of(RecordBuffer.getString(section), RecordBuffer.getString(section),
+                    RecordBuffer.getString(section)));
+        }
+        section = in.next();
+        baits = new ArrayList<>();
+        for (int i = RecordBuffer.getVarInt(section); i > 0; i--) {
+            baits.add(Bait.of(RecordBuffer.getString(section), RecordBuffer.getString(section),
+                    RecordBuffer.getString(section)));
+        }
+        section = in.next();
+        species = new ArrayList<>();
+        for (int i = RecordBuffer.getVarInt(section); i > 0; i--) {
+            species.add(FishSpecies.of(RecordBuffer.getString(section), RecordBuffer.getString(section),
+                    section.getDouble(), section.getDouble()));
+        }
+        section = in.next();
+        weather = new ArrayList<>();
+        for (int i = RecordBuffer.getVarInt(section); i > 0; i--) {
+            weather.add(RecordBuffer.getString(section));
+        }
+
+        days = new long[tripCount];
+        rawDates = new HashMap<>();
+        ByteBuffer dateColumn = in.next();
+        ByteBuffer rawColumn = in.next();
+        long day = 0;
+        for (int p = 0; p < tripCount; p++) {
+            long code = RecordBuffer.getVarLong(dateColumn);
+            if (code == 0) {
+                days[p] = RAW_DATE;
+                rawDates.put(p, RecordBuffer.getString(rawColumn));
+            } else {
+                day += unzigzag(code - 1);
+                days[p] = day;
+            }
+        }
+        locationRefs = varInts(in.next(), tripCount);
+        weatherRefs = varInts(in.next(), tripCount);
+        temperatures = fixed(in.next(), tripCount);
+        windSpeeds = zigzagInts(in.next(), tripCount);
+        pressures = zigzagInts(in.next(), tripCount);
+        durations = fixed(in.next(), tripCount);
+        gearRefs = varInts(in.next(), tripCount);
+        baitRefs = varInts(in.next(), tripCount);
+        catchStart = new int[tripCount + 1];
+        ByteBuffer counts = in.next();
+        for (int p = 0; p < tripCount; p++) {
+            catchStart[p + 1] = catchStart[p] + RecordBuffer.getVarInt(counts);
+        }
+        if (catchStart[tripCount] != catchCount) {
+            throw new IllegalStateException("Число уловов в снимке не сходится: " + catchStart[tripCount]
+                    + " вместо " + catchCount);
+        }
+        speciesRefs = varInts(in.next(), catchCount);
+        weights = fixed(in.next(), catchCount);
+        lengths = fixed(in.next(), catchCount);
+        materialized = new FishingTrip[tripCount];
+    }
+
+    /**
+     * Записывает журнал в файл снимка. Файл заменяется атомарно, недописанный снимок не виден,
+     * а после замены каталог сбрасывается на диск, чтобы переименование пережило сбой питания.
+     */
+    public static void write(FishingJournal journal, Path file) {
+        int count = journal.tripCount();
+        List<FishingTrip> trips = new ArrayList<>(count);
+        List<List<CatchRecord>> catches = new ArrayList<>(count);
+        for (int position = 0; position < count; position++) {
+            FishingTrip trip = journal.tripAt(position);
+            trips.add(trip);
+            catches.add(trip.getCatches());
+        }
+        write(journal.getFisherman(), trips, catches, file);
+    }
+
+    /**
+     * Записывает снимок поездок trips, улов i-й поездки — catches.get(i). Поездки читаются только здесь,
+     * поэтому срез журнала можно собрать в одном потоке, а записать в другом.
+     */
+    static void write(Fisherman owner, List<FishingTrip> tripList, List<List<CatchRecord>> catchLists, Path file) {
+        DictionaryEncoder<FishingLocation> locationIds = new DictionaryEncoder<>();
+        DictionaryEncoder<FishingGear> gearIds = new DictionaryEncoder<>();
+        DictionaryEncoder<Bait> baitIds = new DictionaryEncoder<>();
+        DictionaryEncoder<FishSpecies> speciesIds = new DictionaryEncoder<>();
+        DictionaryEncoder<String> weatherIds = new DictionaryEncoder<>();
+        RecordBuffer dates = new RecordBuffer();
+        RecordBuffer rawDates = new RecordBuffer();
+        RecordBuffer locationColumn = new RecordBuffer();
+        RecordBuffer weatherColumn = new RecordBuffer();
+        RecordBuffer temperatureColumn = new RecordBuffer();
+        RecordBuffer windColumn = new RecordBuffer();
+        RecordBuffer pressureColumn = new RecordBuffer();
+        RecordBuffer durationColumn = new RecordBuffer();
+        RecordBuffer gearColumn = new RecordBuffer();
+        RecordBuffer baitColumn = new RecordBuffer();
+        RecordBuffer catchCounts = new RecordBuffer();
+        RecordBuffer speciesColumn = new RecordBuffer();
+        RecordBuffer weightColumn = new RecordBuffer();
+        RecordBuffer lengthColumn = new RecordBuffer();
+
+        int trips = tripList.size();
+        int catches = 0;
+        long previousDay = 0;
+        for (int position = 0; position < trips; position++) {
+            FishingTrip trip = tripList.get(position);
+            long day = epochDay(trip.getDate());
+            if (day == RAW_DATE) {
+                dates.putVarLong(0);
+                rawDates.putString(trip.getDate());
+            } else {
+                dates.putVarLong(zigzag(day - previousDay) + 1);
+                previousDay = day;
+            }
+            locationColumn.putVarLong(ref(locationIds, trip.getLocation()));
+            weatherColumn.putVarLong(ref(weatherIds, trip.getWeatherConditions()));
+            temperatureColumn.putDouble(trip.getTemperature());
+            windColumn.putVarLong(zigzag(trip.getWindSpeed()));
+            pressureColumn.putVarLong(zigzag(trip.getPressure()));
+            durationColumn.putDouble(trip.getDuration());
+            gearColumn.putVarLong(ref(gearIds, trip.getGear()));
+            baitColumn.putVarLong(ref(baitIds, trip.getBait()));
+            List<CatchRecord> tripCatches = catchLists.get(position);
+            catchCounts.putVarLong(tripCatches.size());
+            for (CatchRecord cr : tripCatches) {
+                speciesColumn.putVarLong(ref(speciesIds, cr.getSpecies()));
+                weightColumn.putDouble(cr.getWeight());
+                lengthColumn.putDouble(cr.getLength());
+            }
+            catches += tripCatches.size();
+        }
+
+        RecordBuffer header = new RecordBuffer();
+        if (owner == null) {
+            header.putByte(0);
+        } else {
+            header.putByte(1).putString(owner.getFirstName()).putString(owner.getLastName())
+                    .putString(owner.getUsername());
+        }
+        header.putVarLong(trips).putVarLong(catches);
+
+        RecordBuffer locationTable = new RecordBuffer().putVarLong(locationIds.size());
+        for (FishingLocation location : locationIds.values()) {
+            locationTable.putString(location.getName()).putString(location.getDescription());
+        }
+        RecordBuffer gearTable = new RecordBuffer().putVarLong(gearIds.size());
+        for (FishingGear gear : gearIds.values()) {
+            gearTable.putString(gear.getType()).putString(gear.getBrand()).putString(gear.getSpecifications());
+        }
+        RecordBuffer baitTable = new RecordBuffer().putVarLong(baitIds.size());
+        for (Bait bait : baitIds.values()) {
+            baitTable.putString(bait.getType()).putString(bait.getBrand()).putString(bait.getColor());
+        }
+        RecordBuffer speciesTable = new RecordBuffer().putVarLong(speciesIds.size());
+        for (FishSpecies fish : speciesIds.values()) {
+            speciesTable.putString(fish.getName()).putString(fish.getDescription())
+                    .putDouble(fish.getMinWeight()).putDouble(fish.getMaxWeight());
+        }
+        RecordBuffer weatherTable = new RecordBuffer().putVarLong(weatherIds.size());
+        for (String value : weatherIds.values()) {
+            weatherTable.putString(value);
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer start = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip();
+            writeChecked(channel, crc, start);
+            for (RecordBuffer section : new RecordBuffer[]{header, locationTable, gearTable, baitTable, speciesTable,
+                    weatherTable, dates, rawDates, locationColumn, weatherColumn, temperatureColumn, windColumn,
+                    pressureColumn, durationColumn, gearColumn, baitColumn, catchCounts, speciesColumn,
+                    weightColumn, lengthColumn}) {
+                writeChecked(channel, crc, ByteBuffer.allocate(4).putInt(section.length()).flip());
+                writeChecked(channel, crc, ByteBuffer.wrap(section.array(), 0, section.length()));
+            }
+            writeFully(channel, ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip());
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать снимок " + file, e);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            JournalLog.syncDirectory(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать снимок " + file, e);
+        }
+        logger.info("Снимок {} записан: {} поездок, {} уловов", file, trips, catches);
+    }
+
+    /**
+     * Отображает снимок в память и проверяет контрольную сумму. Объекты поездок не создаются.
+     *
+     * @throws IllegalStateException если файл не снимок, версия неизвестна или данные повреждены
+     */
+    public static JournalSnapshot open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Снимок больше 2 ГБ не поддерживается: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new JournalSnapshot(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть снимок " + file, e);
+        }
+    }
+
+    public Fisherman getFisherman() {
+        return fisherman;
+    }
+
+    public int tripCount() {
+        return tripCount;
+    }
+
+    public int catchCount() {
+        return catchCount;
+    }
+
+    /**
+     * Поездка по позиции с уловом. Объект создается при первом обращении и дальше переиспользуется.
+     */
+    public FishingTrip trip(int position) {
+        Objects.checkIndex(position, tripCount);
+        FishingTrip trip = materialized[position];
+        if (trip == null) {
+            trip = new FishingTrip(date(position), lookup(locations, locationRefs[position]),
+                    lookup(weather, weatherRefs[position]), temperature(position), windSpeeds[position],
+                    pressures[position], durations.getDouble(position * Double.BYTES),
+                    lookup(gears, gearRefs[position]), lookup(baits, baitRefs[position]));
+            trip.setId(position + 1L);
+            for (int c = catchStart[position]; c < catchStart[position + 1]; c++) {
+                trip.appendCatch(new CatchRecord(lookup(species, speciesRefs[c]),
+                        weights.getDouble(c * Double.BYTES), lengths.getDouble(c * Double.BYTES)));
+            }
+            materialized[position] = trip;
+        }
+        return trip;
+    }
+
+    /**
+     * Поездки снимка, подходящие под запрос, в порядке номеров. Условия проверяются по колонкам,
+     * объекты создаются только для подходящих поездок.
+     */
+    public List<FishingTrip> query(TripQuery query) {
+        List<FishingTrip> result = new ArrayList<>();
+        int gearRef = refOf(gears, query.getGear());
+        int baitRef = refOf(baits, query.getBait());
+        int speciesRef = refOf(species, query.getSpecies());
+        if (gearRef < 0 || baitRef < 0 || speciesRef < 0) {
+            return result;
+        }
+        boolean[] locationMatches = null;
+        if (query.hasLocation()) {
+            locationMatches = new boolean[locations.size() + 1];
+            for (int i = 0; i < locations.size(); i++) {
+                locationMatches[i + 1] = query.matchesLocationName(locations.get(i).getName());
+            }
+        }
+        boolean[] weatherMatches = null;
+        if (query.getWeatherConditions() != null) {
+            weatherMatches = new boolean[weather.size() + 1];
+            for (int i = 0; i < weather.size(); i++) {
+                weatherMatches[i + 1] = query.getWeatherConditions().equalsIgnoreCase(weather.get(i));
+            }
+        }
+        long fromDay = query.hasDateRange() ? query.getFrom().toEpochDay() : Long.MIN_VALUE;
+        long toDay = query.hasDateRange() ? query.getTo().toEpochDay() : Long.MAX_VALUE;
+
+        for (int p = 0; p < tripCount; p++) {
+            if (days[p] == RAW_DATE) {
+                // Редкий случай: дату не удалось разобрать при записи, проверяем поездку целиком
+                if (query.matches(trip(p))) {
+                    result.add(trip(p));
+                }
+                continue;
+            }
+            if (days[p] < fromDay || days[p] > toDay) {
+                continue;
+            }
+            if (locationMatches != null && !locationMatches[locationRefs[p]]) {
+                continue;
+            }
+            if (weatherMatches != null && !weatherMatches[weatherRefs[p]]) {
+                continue;
+            }
+            if (gearRef > 0 && gearRefs[p] != gearRef || baitRef > 0 && baitRefs[p] != baitRef) {
+                continue;
+            }
+            double temperature = temperature(p);
+            if (temperature < query.getMinTemperature() || temperature > query.getMaxTemperature()) {
+                continue;
+            }
+            if (windSpeeds[p] < query.getMinWindSpeed() || windSpeeds[p] > query.getMaxWindSpeed()) {
+                continue;
+            }
+            if (pressures[p] < query.getMinPressure() || pressures[p] > query.getMaxPressure()) {
+                continue;
+            }
+            if (speciesRef > 0 && !caught(p, speciesRef)) {
+                continue;
+            }
+            result.add(trip(p));
+        }
+        return result;
+    }
+
+    /**
+     * Материализует весь снимок в новый журнал с индексами и итогами. Поездки, уже полученные
+     * из снимка, становятся поездками журнала.
+     */
+    public FishingJournal toJournal() {
+        FishingJournal journal = new FishingJournal(fisherman);
+        journal.finishBulk(journal.appendBulk(trips()));
+        return journal;
+    }
+
+    /**
+     * Все поездки снимка по порядку.
+     */
+    List<FishingTrip> trips() {
+        List<FishingTrip> all = new ArrayList<>(tripCount);
+        for (int p = 0; p < tripCount; p++) {
+            all.add(trip(p));
+        }
+        return all;
+    }
+
+    private boolean caught(int position, int speciesRef) {
+        for (int c = catchStart[position]; c < catchStart[position + 1]; c++) {
+            if (speciesRefs[c] == speciesRef) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double temperature(int position) {
+        return temperatures.getDouble(position * Double.BYTES);
+    }
+
+    private String date(int position) {
+        return days[position] == RAW_DATE ? rawDates.get(position) : LocalDate.ofEpochDay(days[position]).toString();
+    }
+
+    /**
+     * Ссылка на значение словаря: 0 без условия, -1 если значения в снимке нет.
+     */
+    private static <T> int refOf(List<T> values, T value) {
+        if (value == null) {
+            return 0;
+        }
+        int index = values.indexOf(value);
+        return index < 0 ? -1 : index + 1;
+    }
+
+    private static <T> T lookup(List<T> values, int ref) {
+        return ref == 0 ? null : values.get(ref - 1);
+    }
+
+    private static <T> long ref(DictionaryEncoder<T> dictionary, T value) {
+        return value == null ? 0 : dictionary.encode(value) + 1L;
+    }
+
+    /**
+     * День даты, если она однозначно восстанавливается из номера дня, иначе RAW_DATE.
+     */
+    private static long epochDay(String date) {
+        if (date == null) {
+            return RAW_DATE;
+        }
+        try {
+            LocalDate parsed = LocalDate.parse(date, DATE_FORMAT);
+            return parsed.toString().equals(date) ? parsed.toEpochDay() : RAW_DATE;
+        } catch (RuntimeException e) {
+            return RAW_DATE;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int[] varInts(ByteBuffer column, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = RecordBuffer.getVarInt(column);
+        }
+        return values;
+    }
+
+    private static int[] zigzagInts(ByteBuffer column, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (int) unzigzag(RecordBuffer.getVarLong(column));
+        }
+        return values;
+    }
+
+    private static ByteBuffer fixed(ByteBuffer column, int count) {
+        if (column.remaining() != (long) count * Double.BYTES) {
+            throw new IllegalStateException("Неверный размер колонки снимка: " + column.remaining());
+        }
+        return column;
+    }
+
+    private static void writeChecked(FileChannel channel, CRC32 crc, ByteBuffer data) throws IOException {
+        crc.update(data.duplicate());
+        writeFully(channel, data);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Последовательное чтение секций после проверки заголовка и контрольной суммы.
+     */
+    private static final class Sections {
+        private final ByteBuffer file;
+
+        private Sections(ByteBuffer file) {
+            if (file.remaining() < 12 || file.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Файл не является снимком журнала");
+            }
+            int version = file.getInt(4);
+            if (version != VERSION) {
+                throw new IllegalStateException("Неподдерживаемая версия снимка: " + version);
+            }
+            int end = file.limit() - 4;
+            CRC32 crc = new CRC32();
+            crc.update(file.duplicate().position(0).limit(end));
+            if ((int) crc.getValue() != file.getInt(end)) {
+                throw new IllegalStateException("Снимок поврежден: не совпадает контрольная сумма");
+            }
+            this.file = file.duplicate().position(8).limit(end);
+        }
+
+        private ByteBuffer next() {
+            if (file.remaining() < 4) {
+                throw new IllegalStateException("Снимок обрезан");
+            }
+            int length = file.getInt();
+            if (length < 0 || length > file.remaining()) {
+                throw new IllegalStateException("Неверная длина секции снимка: " + length);
+            }
+            ByteBuffer section = file.slice(file.position(), length);
+            file.position(file.position() + length);
+            return section;
+        }
+    }
+}
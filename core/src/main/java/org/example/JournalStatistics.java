@@ -0,0 +1,17 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Итоги журнала на момент запроса.
+ */
+@Value
+public class JournalStatistics {
+    int tripCount;
+    int totalFish;
+    double totalWeight;
+
+    public double getAverageFishPerTrip() {
+        return tripCount == 0 ? 0 : (double) totalFish / tripCount;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Где FishingJournal хранит поездки и улов. Режим по умолчанию задается системным свойством
+ * {@code fishing.journal.storage}: {@code heap}, {@code offheap} или {@code columnar}.
+ */
+public enum JournalStorage {
+    /**
+     * Объекты FishingTrip и CatchRecord в куче.
+     */
+    HEAP,
+    /**
+     * Записи фиксированной длины в прямых буферах вне кучи; объекты поездок создаются при чтении
+     * и живут, пока на них есть ссылки.
+     */
+    OFF_HEAP,
+    /**
+     * Колонки примитивных массивов ColumnarCatchStore со словарями; поездки журнала — легковесные
+     * представления только для чтения.
+     */
+    COLUMNAR;
+
+    public static final String PROPERTY = "fishing.journal.storage";
+
+    /**
+     * Режим из системного свойства, HEAP если свойство не задано.
+     *
+     * @throws IllegalArgumentException если значение свойства не heap, offheap или columnar
+     */
+    public static JournalStorage fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "heap").trim().toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case "heap" -> HEAP;
+            case "offheap" -> OFF_HEAP;
+            case "columnar" -> COLUMNAR;
+            default -> throw new IllegalArgumentException("Неизвестный режим хранения " + PROPERTY + "=" + value);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Строка рейтинга рыбаков клуба.
+ */
+@Value
+public class LeaderboardEntry {
+    Fisherman fisherman;
+    int totalFish;
+    double totalWeight;
+}
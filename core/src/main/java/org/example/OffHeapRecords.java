@@ -0,0 +1,73 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Записи фиксированной длины в прямых буферах. Буферы выделяются блоками по 4 МБ и не копируются
+ * при росте, поэтому адрес записи не меняется; первый блок растет удвоением, чтобы маленькие
+ * журналы не занимали целый блок. Чтение и запись — по абсолютным смещениям.
+ */
+final class OffHeapRecords {
+    private static final int CHUNK_BYTES = 1 << 22;
+    private static final int INITIAL_RECORDS = 64;
+
+    private final int recordBytes;
+    private final int recordsPerChunk;
+    private ByteBuffer[] chunks = new ByteBuffer[8];
+    private int chunkCount;
+    private int size;
+
+    OffHeapRecords(int recordBytes) {
+        this.recordBytes = recordBytes;
+        this.recordsPerChunk = CHUNK_BYTES / recordBytes;
+    }
+
+    /**
+     * Резервирует место под следующую запись и возвращает ее номер.
+     */
+    int append() {
+        if (chunkCount == 0) {
+            chunks[chunkCount++] = allocate(INITIAL_RECORDS);
+        }
+        int chunk = size / recordsPerChunk;
+        if (chunk == chunkCount) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            chunks[chunkCount++] = allocate(recordsPerChunk);
+        } else if (chunk == 0 && offset(size) == chunks[0].capacity()) {
+            int records = Math.min(chunks[0].capacity() / recordBytes * 2, recordsPerChunk);
+            chunks[0] = allocate(records).put(chunks[0].clear());
+        }
+        return size++;
+    }
+
+    ByteBuffer chunk(int record) {
+        return chunks[record / recordsPerChunk];
+    }
+
+    int offset(int record) {
+        return record % recordsPerChunk * recordBytes;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Объем выделенных прямых буферов.
+     */
+    long capacityBytes() {
+        long bytes = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += chunks[i].capacity();
+        }
+        return bytes;
+    }
+
+    private ByteBuffer allocate(int records) {
+        return ByteBuffer.allocateDirect(records * recordBytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,131 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Список поездок журнала в режиме JournalStorage.OFF_HEAP. Поездка — запись 56 байт, улов — запись
+ * 24 байта в прямых буферах; улов поездки связан в цепочку, поэтому улов можно добавить позже.
+ * Строки и сущности (даты, погода, места, снасти, приманки, виды рыб) кодируются словарями в куче,
+ * их объем растет с числом различных значений, а не с числом записей.
+ * Объект, переданный в add, становится объектом этой поездки.
+ */
+final class OffHeapTripList extends StoredTripList {
+    private static final int TRIP_BYTES = 56;
+    private static final int DATE = 0;
+    private static final int LOCATION = 4;
+    private static final int WEATHER = 8;
+    private static final int GEAR = 12;
+    private static final int BAIT = 16;
+    private static final int WIND_SPEED = 20;
+    private static final int PRESSURE = 24;
+    private static final int FIRST_CATCH = 28;
+    private static final int LAST_CATCH = 32;
+    private static final int TEMPERATURE = 40;
+    private static final int DURATION = 48;
+
+    private static final int CATCH_BYTES = 24;
+    private static final int SPECIES = 0;
+    private static final int NEXT_CATCH = 4;
+    private static final int WEIGHT = 8;
+    private static final int LENGTH = 16;
+
+    private final OffHeapRecords trips = new OffHeapRecords(TRIP_BYTES);
+    private final OffHeapRecords catches = new OffHeapRecords(CATCH_BYTES);
+    private final DictionaryEncoder<String> dates = new DictionaryEncoder<>();
+    private final DictionaryEncoder<String> weather = new DictionaryEncoder<>();
+    private final DictionaryEncoder<FishingLocation> locations = new DictionaryEncoder<>();
+    private final DictionaryEncoder<FishingGear> gears = new DictionaryEncoder<>();
+    private final DictionaryEncoder<Bait> baits = new DictionaryEncoder<>();
+    private final DictionaryEncoder<FishSpecies> species = new DictionaryEncoder<>();
+
+    @Override
+    int write(FishingTrip trip) {
+        int position = trips.append();
+        ByteBuffer buffer = trips.chunk(position);
+        int offset = trips.offset(position);
+        buffer.putInt(offset + DATE, dates.encode(trip.getDate()))
+                .putInt(offset + LOCATION, locations.encode(trip.getLocation()))
+                .putInt(offset + WEATHER, weather.encode(trip.getWeatherConditions()))
+                .putInt(offset + GEAR, gears.encode(trip.getGear()))
+                .putInt(offset + BAIT, baits.encode(trip.getBait()))
+                .putInt(offset + WIND_SPEED, trip.getWindSpeed())
+                .putInt(offset + PRESSURE, trip.getPressure())
+                .putInt(offset + FIRST_CATCH, -1)
+                .putInt(offset + LAST_CATCH, -1)
+                .putDouble(offset + TEMPERATURE, trip.getTemperature())
+                .putDouble(offset + DURATION, trip.getDuration());
+        for (CatchRecord cr : trip.getCatches()) {
+            appendCatch(position, cr);
+        }
+        return position;
+    }
+
+    @Override
+    FishingTrip adopt(int position, FishingTrip trip) {
+        return trip;
+    }
+
+    @Override
+    void writeCatch(int position, FishingTrip trip, CatchRecord cr) {
+        appendCatch(position, cr);
+        trip.appendCatch(cr);
+    }
+
+    @Override
+    int storedSize() {
+        return trips.size();
+    }
+
+    @Override
+    long storeHeapBytes() {
+        return dates.estimatedBytes() + weather.estimatedBytes() + locations.estimatedBytes()
+                + gears.estimatedBytes() + baits.estimatedBytes() + species.estimatedBytes();
+    }
+
+    synchronized long offHeapBytes() {
+        return trips.capacityBytes() + catches.capacityBytes();
+    }
+
+    private void appendCatch(int position, CatchRecord cr) {
+        int index = catches.append();
+        ByteBuffer buffer = catches.chunk(index);
+        int offset = catches.offset(index);
+        buffer.putInt(offset + SPECIES, species.encode(cr.getSpecies()))
+                .putInt(offset + NEXT_CATCH, -1)
+                .putDouble(offset + WEIGHT, cr.getWeight())
+                .putDouble(offset + LENGTH, cr.getLength());
+        ByteBuffer tripBuffer = trips.chunk(position);
+        int tripOffset = trips.offset(position);
+        int last = tripBuffer.getInt(tripOffset + LAST_CATCH);
+        if (last < 0) {
+            tripBuffer.putInt(tripOffset + FIRST_CATCH, index);
+        } else {
+            catches.chunk(last).putInt(catches.offset(last) + NEXT_CATCH, index);
+        }
+        tripBuffer.putInt(tripOffset + LAST_CATCH, index);
+    }
+
+    @Override
+    FishingTrip read(int position) {
+        ByteBuffer buffer = trips.chunk(position);
+        int offset = trips.offset(position);
+        FishingTrip trip = new FishingTrip(dates.decode(buffer.getInt(offset + DATE)),
+                locations.decode(buffer.getInt(offset + LOCATION)),
+                weather.decode(buffer.getInt(offset + WEATHER)),
+                buffer.getDouble(offset + TEMPERATURE),
+                buffer.getInt(offset + WIND_SPEED),
+                buffer.getInt(offset + PRESSURE),
+                buffer.getDouble(offset + DURATION),
+                gears.decode(buffer.getInt(offset + GEAR)),
+                baits.decode(buffer.getInt(offset + BAIT)));
+        trip.setId(position + 1);
+        for (int index = buffer.getInt(offset + FIRST_CATCH); index >= 0; ) {
+            ByteBuffer catchBuffer = catches.chunk(index);
+            int catchOffset = catches.offset(index);
+            trip.appendCatch(new CatchRecord(species.decode(catchBuffer.getInt(catchOffset + SPECIES)),
+                    catchBuffer.getDouble(catchOffset + WEIGHT), catchBuffer.getDouble(catchOffset + LENGTH)));
+            index = catchBuffer.getInt(catchOffset + NEXT_CATCH);
+        }
+        return trip;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Снимок счетчика и задержек одной операции журнала, в наносекундах.
+ */
+@Value
+public class OperationStats {
+    String operation;
+    long count;
+    long meanNanos;
+    long p50Nanos;
+    long p99Nanos;
+    long p999Nanos;
+    long maxNanos;
+}
@@ -0,0 +1,269 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Сливаемый скетч квантилей в стиле KLL. Значения копятся в уровнях: когда уровень переполняется,
+ * он сортируется и каждое второе значение переходит на следующий уровень с удвоенным весом.
+ * Емкость уровней убывает вниз в 2/3 раза, поэтому скетч хранит O(k) значений при любом числе записей,
+ * а ошибка ранга квантиля около 1.7/k (меньше процента при k = 200).
+ * Два скетча сливаются поуровнево, результат такой же точности, как у скетча по объединенным данным.
+ * Значения хранятся во float: 7 значащих цифр хватает для веса и длины,
+ * а скетчей у журнала по одному на каждый вид, место и месяц. Число записей, минимум и максимум точные.
+ * Экземпляр не потокобезопасен.
+ */
+public final class QuantileSketch {
+    private static final int DEFAULT_K = 200;
+    private static final int MIN_CAPACITY = 8;
+
+    private final int k;
+    private float[][] levels;
+    private int[] sizes;
+    private int levelCount;
+    private int retained;
+    private int totalCapacity;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long random = 0x9E3779B97F4A7C15L;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @throws IllegalArgumentException если k меньше 8
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("Параметр точности скетча должен быть не меньше "
+                    + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.levels = new float[][]{new float[MIN_CAPACITY]};
+        this.sizes = new int[1];
+        this.levelCount = 1;
+        this.totalCapacity = totalCapacity();
+    }
+
+    /**
+     * Учитывает значение; NaN пропускается.
+     */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else if (value < min) {
+            min = value;
+        } else if (value > max) {
+            max = value;
+        }
+        count++;
+        append(0, (float) value);
+        retained++;
+        compress();
+    }
+
+    /**
+     * Добавляет к скетчу значения другого скетча; другой скетч не меняется.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (other == this) {
+            other = other.copy();
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+        // У другого скетча уровень может быть пустым, поэтому уровни создаются заранее, а не по одному в append
+        ensureLevels(other.levelCount);
+        for (int level = 0; level < other.levelCount; level++) {
+            float[] items = other.levels[level];
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, items[i]);
+            }
+            retained += other.sizes[level];
+        }
+        compress();
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(k);
+        copy.levels = new float[levelCount][];
+        for (int level = 0; level < levelCount; level++) {
+            copy.levels[level] = Arrays.copyOf(levels[level], Math.max(sizes[level], 1));
+        }
+        copy.sizes = Arrays.copyOf(sizes, levelCount);
+        copy.levelCount = levelCount;
+        copy.retained = retained;
+        copy.totalCapacity = totalCapacity;
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        copy.random = random;
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Наименьшее значение или NaN для пустого скетча.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Наибольшее значение или NaN для пустого скетча.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Приближенный квантиль: значение, не больше которого доля quantile всех записей. NaN для пустого скетча.
+     *
+     * @throws IllegalArgumentException если quantile вне диапазона 0..1
+     */
+    public double getQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Квантиль должен быть от 0 до 1: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (quantile == 0) {
+            return min;
+        }
+        if (quantile == 1) {
+            return max;
+        }
+        // Уровни сортируются по отдельности и сливаются, вес значения уровня h равен 2^h
+        float[][] sorted = new float[levelCount][];
+        int[] positions = new int[levelCount];
+        for (int level = 0; level < levelCount; level++) {
+            sorted[level] = Arrays.copyOf(levels[level], sizes[level]);
+            Arrays.sort(sorted[level]);
+        }
+        double target = quantile * count;
+        long cumulative = 0;
+        while (true) {
+            int next = -1;
+            for (int level = 0; level < levelCount; level++) {
+                if (positions[level] < sorted[level].length
+                        && (next < 0 || sorted[level][positions[level]] < sorted[next][positions[next]])) {
+                    next = level;
+                }
+            }
+            if (next < 0) {
+                return max;
+            }
+            float value = sorted[next][positions[next]++];
+            cumulative += 1L << next;
+            if (cumulative >= target) {
+                // Кратчайшая десятичная запись float, чтобы 0.4f вернулся как 0.4, а не 0.4000000059604645
+                return Double.parseDouble(Float.toString(value));
+            }
+        }
+    }
+
+    /**
+     * Примерный объем скетча в куче.
+     */
+    long estimatedBytes() {
+        long bytes = 64 + 16L * levelCount;
+        for (int level = 0; level < levelCount; level++) {
+            bytes += 16 + 4L * levels[level].length;
+        }
+        return bytes;
+    }
+
+    private void append(int level, float value) {
+        ensureLevels(level + 1);
+        float[] items = levels[level];
+        if (sizes[level] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels[level] = items;
+        }
+        items[sizes[level]++] = value;
+    }
+
+    private void ensureLevels(int needed) {
+        if (needed <= levelCount) {
+            return;
+        }
+        if (needed > levels.length) {
+            int length = Math.max(needed, levels.length * 2);
+            levels = Arrays.copyOf(levels, length);
+            sizes = Arrays.copyOf(sizes, length);
+        }
+        for (int level = levelCount; level < needed; level++) {
+            levels[level] = new float[MIN_CAPACITY];
+        }
+        levelCount = needed;
+        totalCapacity = totalCapacity();
+    }
+
+    private void compress() {
+        while (retained >= totalCapacity) {
+            for (int level = 0; level < levelCount; level++) {
+                if (sizes[level] >= capacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Переносит половину четного числа значений уровня на следующий уровень; при нечетном размере
+     * одно значение остается на месте, поэтому суммарный вес значений всегда равен числу записей.
+     */
+    private void compact(int level) {
+        int size = sizes[level];
+        float[] items = levels[level];
+        Arrays.sort(items, 0, size);
+        int even = size & ~1;
+        for (int i = nextBit(); i < even; i += 2) {
+            append(level + 1, items[i]);
+        }
+        // append мог заменить массив уровней, но не массив этого уровня
+        if ((size & 1) != 0) {
+            items[0] = items[size - 1];
+        }
+        sizes[level] = size & 1;
+        retained -= even / 2;
+    }
+
+    private int capacity(int level) {
+        int depth = levelCount - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int level = 0; level < levelCount; level++) {
+            total += capacity(level);
+        }
+        return total;
+    }
+
+    private int nextBit() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random >>> 63);
+    }
+}
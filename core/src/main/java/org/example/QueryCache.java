@@ -0,0 +1,136 @@
+package org.example;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Кеш результатов запросов с вытеснением давно не использованных. При записи в журнал
+ * сбрасываются только те запросы, которым соответствует измененная поездка.
+ * Операции с таблицей выполняются под блокировкой кеша, поэтому читать можно из многих потоков;
+ * сам запрос при промахе считается без блокировки, и другие читатели его не ждут.
+ */
+class QueryCache {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final int maxEntries;
+    private final LinkedHashMap<TripQuery, List<FishingTrip>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    // Растет при каждой записи в журнал: результат, посчитанный во время записи, в кеш не попадает
+    private long generation;
+
+    QueryCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Размер кеша должен быть положительным: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TripQuery, List<FishingTrip>> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Копия результата из кеша; при промахе результат считается функцией query вне блокировки
+     * и запоминается, если журнал за это время не менялся. Вызывающий может менять полученный список.
+     */
+    List<FishingTrip> get(TripQuery query, Function<TripQuery, List<FishingTrip>> compute) {
+        long computedAt;
+        synchronized (this) {
+            List<FishingTrip> cached = entries.get(query);
+            if (cached != null) {
+                hits++;
+                return new ArrayList<>(cached);
+            }
+            misses++;
+            computedAt = generation;
+        }
+        List<FishingTrip> computed = List.copyOf(compute.apply(query));
+        synchronized (this) {
+            if (generation == computedAt) {
+                entries.put(query, computed);
+            }
+        }
+        return new ArrayList<>(computed);
+    }
+
+    /**
+     * Новая поездка меняет результат только тех запросов, которым она соответствует.
+     */
+    synchronized void tripAdded(FishingTrip trip) {
+        generation++;
+        if (entries.isEmpty()) {
+            return;
+        }
+        long day = epochDay(trip);
+        Iterator<TripQuery> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (matches(it.next(), trip, day)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Улов меняет только запросы по пойманному виду: поездка могла начать им соответствовать.
+     * Результаты остальных запросов ссылаются на ту же поездку и видят новый улов сами.
+     */
+    synchronized void catchAdded(FishingTrip trip, FishSpecies species) {
+        generation++;
+        if (entries.isEmpty()) {
+            return;
+        }
+        long day = epochDay(trip);
+        Iterator<TripQuery> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            TripQuery query = it.next();
+            if (species.equals(query.getSpecies()) && matches(query, trip, day)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    synchronized QueryCacheStats stats() {
+        return new QueryCacheStats(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    /**
+     * То же, что TripQuery.matches, но дата поездки разбирается один раз на все запросы кеша.
+     */
+    private static boolean matches(TripQuery query, FishingTrip trip, long day) {
+        if (query.hasDateRange() && (day == Long.MIN_VALUE || !query.matchesDay(day))) {
+            return false;
+        }
+        return query.matchesLocation(trip) && query.matchesRest(trip);
+    }
+
+    private static long epochDay(FishingTrip trip) {
+        try {
+            return LocalDate.parse(trip.getDate(), DATE_FORMAT).toEpochDay();
+        } catch (RuntimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
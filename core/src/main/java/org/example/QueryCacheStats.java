@@ -0,0 +1,20 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Счетчики кеша запросов журнала с момента его включения.
+ */
+@Value
+public class QueryCacheStats {
+    long hits;
+    long misses;
+    long evictions;
+    long invalidations;
+    int size;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Переиспользуемый буфер для кодирования двоичных записей журнала и чтения их обратно.
+ * Целые пишутся как varint, строки — как varint длины + 1 (0 означает null) и байты UTF-8.
+ */
+class RecordBuffer {
+    private byte[] bytes = new byte[256];
+    private int length;
+
+    void reset() {
+        length = 0;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    int length() {
+        return length;
+    }
+
+    RecordBuffer putByte(int value) {
+        ensure(1);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    RecordBuffer putVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    RecordBuffer putInt(int value) {
+        ensure(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    RecordBuffer putDouble(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        putInt((int) (bits >>> 32));
+        return putInt((int) bits);
+    }
+
+    RecordBuffer putString(String value) {
+        if (value == null) {
+            return putVarLong(0);
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        putVarLong(utf8.length + 1L);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, bytes, length, utf8.length);
+        length += utf8.length;
+        return this;
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalStateException("Слишком длинный varint");
+            }
+        }
+    }
+
+    static int getVarInt(ByteBuffer in) {
+        return (int) getVarLong(in);
+    }
+
+    static String getString(ByteBuffer in) {
+        int size = (int) getVarLong(in) - 1;
+        if (size < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[size];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example;
+
+/**
+ * Формат отчетов ReportRenderer.
+ */
+public enum ReportFormat {
+    /**
+     * Текст для чтения человеком.
+     */
+    TEXT,
+    /**
+     * JSON: отдельный отчет — объект, пачка поездок — массив объектов.
+     */
+    JSON
+}
@@ -0,0 +1,464 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Формирует отчеты по поездкам, видам рыб и приманкам сразу в Appendable или WritableByteChannel.
+ * Отчет собирается в переиспользуемый буфер, который сбрасывается в приемник по достижении
+ * порога, поэтому память не зависит от числа поездок в пачке. Числа записываются
+ * с фиксированным числом знаков без String.format; toString сущностей не используется.
+ * Буфер байтов для WritableByteChannel создается при первом выводе в канал. Экземпляр стоит
+ * переиспользовать, но он не потокобезопасен: буферы общие для всех вызовов.
+ * В JSON NaN и бесконечности записываются как null.
+ */
+public class ReportRenderer {
+    private static final int FLUSH_THRESHOLD = 16 * 1024;
+
+    private final ReportFormat format;
+    private final StringBuilder buffer = new StringBuilder();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer bytes;
+    private Appendable appendable;
+    private WritableByteChannel channel;
+
+    public ReportRenderer(ReportFormat format) {
+        this.format = format;
+    }
+
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    public void renderTrip(FishingTrip trip, Appendable out) throws IOException {
+        begin(out, null);
+        trip(trip);
+        finish();
+    }
+
+    /**
+     * Отчеты по всем поездкам за один проход: в тексте разделены пустой строкой, в JSON — массив.
+     * Поездки читаются по одной, поэтому можно передать итератор потока запроса.
+     */
+    public void renderTrips(Iterable<FishingTrip> trips, Appendable out) throws IOException {
+        begin(out, null);
+        trips(trips);
+        finish();
+    }
+
+    public void renderTrips(Iterable<FishingTrip> trips, WritableByteChannel out) throws IOException {
+        begin(null, out);
+        trips(trips);
+        finish();
+    }
+
+    public void renderTotals(Fisherman fisherman, JournalStatistics stats, Appendable out) throws IOException {
+        begin(out, null);
+        if (format == ReportFormat.JSON) {
+            buffer.append("{\"fisherman\":");
+            fisherman(fisherman);
+            buffer.append(",\"tripCount\":").append(stats.getTripCount())
+                    .append(",\"totalFish\":").append(stats.getTotalFish())
+                    .append(",\"totalWeight\":");
+            number(stats.getTotalWeight());
+            buffer.append(",\"averageFishPerTrip\":");
+            number(stats.getAverageFishPerTrip());
+            buffer.append("}\n");
+        } else {
+            buffer.append("Рыбак: ");
+            if (fisherman != null) {
+                buffer.append(fisherman.getFirstName()).append(' ').append(fisherman.getLastName())
+                        .append(" (").append(fisherman.getUsername()).append(')');
+            }
+            buffer.append("\nВсего рыбалок: ").append(stats.getTripCount())
+                    .append("\nОбщий улов: ").append(stats.getTotalFish()).append(" рыб")
+                    .append("\nОбщий вес: ");
+            Decimals.append(buffer, stats.getTotalWeight(), 2).append(" кг\nСредний улов за рыбалку: ");
+            Decimals.append(buffer, stats.getAverageFishPerTrip(), 1).append('\n');
+        }
+        finish();
+    }
+
+    public void renderSpeciesStats(Collection<SpeciesStatistics> statistics, Appendable out) throws IOException {
+        renderSpeciesStats(statistics, Map.of(), out);
+    }
+
+    /**
+     * Итоги по видам рыб с медианой, p90 и p99 веса и длины и числом выбросов для видов,
+     * у которых есть распределение.
+     */
+    public void renderSpeciesStats(Collection<SpeciesStatistics> statistics,
+                                   Map<FishSpecies, CatchDistribution> distributions,
+                                   Appendable out) throws IOException {
+        begin(out, null);
+        boolean json = format == ReportFormat.JSON;
+        if (json) {
+            buffer.append('[');
+        }
+        boolean first = true;
+        for (SpeciesStatistics stats : statistics) {
+            if (json) {
+                if (!first) {
+                    buffer.append(',');
+                }
+                buffer.append("{\"species\":");
+                string(stats.getSpecies().getName());
+                buffer.append(",\"count\":").append(stats.getCount()).append(",\"totalWeight\":");
+                number(stats.getTotalWeight());
+                buffer.append(",\"averageWeight\":");
+                number(stats.getAverageWeight());
+                distributionJson(distributions.get(stats.getSpecies()));
+                buffer.append('}');
+            } else {
+                buffer.append(stats.getSpecies().getName()).append(": ").append(stats.getCount())
+                        .append(" шт, общий вес ");
+                Decimals.append(buffer, stats.getTotalWeight(), 2).append(" кг, средний вес ");
+                Decimals.append(buffer, stats.getAverageWeight(), 2).append(" кг");
+                distributionText(distributions.get(stats.getSpecies()));
+                buffer.append('\n');
+            }
+            first = false;
+            flushIfFull();
+        }
+        if (json) {
+            buffer.append("]\n");
+        }
+        finish();
+    }
+
+    /**
+     * Отчет об эффективности приманок: приманка -> вид рыбы -> число пойманных рыб.
+     */
+    public void renderBaitEffectiveness(Map<Bait, ? extends Map<FishSpecies, ? extends Number>> counts,
+                                        Appendable out) throws IOException {
+        begin(out, null);
+        boolean json = format == ReportFormat.JSON;
+        if (json) {
+            buffer.append('[');
+        }
+        boolean first = true;
+        for (Map.Entry<Bait, ? extends Map<FishSpecies, ? extends Number>> entry : counts.entrySet()) {
+            if (json) {
+                if (!first) {
+                    buffer.append(',');
+                }
+                buffer.append("{\"bait\":");
+                bait(entry.getKey());
+                buffer.append(",\"catches\":{");
+                boolean firstSpecies = true;
+                for (Map.Entry<FishSpecies, ? extends Number> count : entry.getValue().entrySet()) {
+                    if (!firstSpecies) {
+                        buffer.append(',');
+                    }
+                    string(count.getKey().getName());
+                    buffer.append(':').append(count.getValue().longValue());
+                    firstSpecies = false;
+                }
+                buffer.append("}}");
+            } else {
+                buffer.append("Приманка: ");
+                baitText(entry.getKey());
+                buffer.append('\n');
+                for (Map.Entry<FishSpecies, ? extends Number> count : entry.getValue().entrySet()) {
+                    buffer.append(" - ").append(count.getKey().getName()).append(": ")
+                            .append(count.getValue().longValue()).append(" рыб\n");
+                }
+            }
+            first = false;
+            flushIfFull();
+        }
+        if (json) {
+            buffer.append("]\n");
+        }
+        finish();
+    }
+
+    private void trips(Iterable<FishingTrip> trips) throws IOException {
+        boolean json = format == ReportFormat.JSON;
+        if (json) {
+            buffer.append('[');
+        }
+        boolean first = true;
+        for (FishingTrip trip : trips) {
+            if (!first) {
+                buffer.append(json ? "," : "\n");
+            }
+            trip(trip);
+            first = false;
+            flushIfFull();
+        }
+        if (json) {
+            buffer.append("]\n");
+        }
+    }
+
+    private void trip(FishingTrip trip) {
+        if (format == ReportFormat.JSON) {
+            tripJson(trip);
+        } else {
+            tripText(trip);
+        }
+    }
+
+    private void tripText(FishingTrip trip) {
+        buffer.append("Дата: ").append(trip.getDate())
+                .append("\nМесто: ");
+        FishingLocation location = trip.getLocation();
+        if (location != null) {
+            buffer.append(location.getName());
+            if (location.getDescription() != null) {
+                buffer.append(" (").append(location.getDescription()).append(')');
+            }
+        }
+        buffer.append("\nПогода: ").append(trip.getWeatherConditions())
+                .append("\nДлительность: ");
+        Decimals.append(buffer, trip.getDuration(), 1).append(" часов\nСнасть: ");
+        FishingGear gear = trip.getGear();
+        if (gear != null) {
+            buffer.append(gear.getType()).append(", ").append(gear.getBrand());
+            if (gear.getSpecifications() != null) {
+                buffer.append(" (").append(gear.getSpecifications()).append(')');
+            }
+        }
+        buffer.append("\nПриманка: ");
+        baitText(trip.getBait());
+        buffer.append("\n\nУлов (").append(trip.getTotalFish()).append(" рыб, ");
+        Decimals.append(buffer, trip.getTotalWeight(), 2).append(" кг):\n");
+        for (CatchRecord cr : trip.getCatches()) {
+            buffer.append(" - ").append(cr.getSpecies().getName()).append(": ");
+            Decimals.append(buffer, cr.getWeight(), 2).append(" кг, ");
+            Decimals.append(buffer, cr.getLength(), 1).append(" см\n");
+        }
+    }
+
+    private void tripJson(FishingTrip trip) {
+        buffer.append("{\"id\":").append(trip.getId()).append(",\"date\":");
+        string(trip.getDate());
+        buffer.append(",\"location\":");
+        FishingLocation location = trip.getLocation();
+        if (location == null) {
+            buffer.append("null");
+        } else {
+            buffer.append("{\"name\":");
+            string(location.getName());
+            buffer.append(",\"description\":");
+            string(location.getDescription());
+            buffer.append('}');
+        }
+        buffer.append(",\"weather\":");
+        string(trip.getWeatherConditions());
+        buffer.append(",\"temperature\":");
+        number(trip.getTemperature());
+        buffer.append(",\"windSpeed\":").append(trip.getWindSpeed())
+                .append(",\"pressure\":").append(trip.getPressure())
+                .append(",\"duration\":");
+        number(trip.getDuration());
+        buffer.append(",\"gear\":");
+        FishingGear gear = trip.getGear();
+        if (gear == null) {
+            buffer.append("null");
+        } else {
+            buffer.append("{\"type\":");
+            string(gear.getType());
+            buffer.append(",\"brand\":");
+            string(gear.getBrand());
+            buffer.append(",\"specifications\":");
+            string(gear.getSpecifications());
+            buffer.append('}');
+        }
+        buffer.append(",\"bait\":");
+        bait(trip.getBait());
+        buffer.append(",\"totalFish\":").append(trip.getTotalFish()).append(",\"totalWeight\":");
+        number(trip.getTotalWeight());
+        buffer.append(",\"catches\":[");
+        boolean first = true;
+        for (CatchRecord cr : trip.getCatches()) {
+            if (!first) {
+                buffer.append(',');
+            }
+            buffer.append("{\"species\":");
+            string(cr.getSpecies().getName());
+            buffer.append(",\"weight\":");
+            number(cr.getWeight());
+            buffer.append(",\"length\":");
+            number(cr.getLength());
+            buffer.append('}');
+            first = false;
+        }
+        buffer.append("]}");
+    }
+
+    private void distributionJson(CatchDistribution distribution) {
+        if (distribution == null) {
+            return;
+        }
+        buffer.append(",\"weightP50\":");
+        number(distribution.getWeightQuantile(0.5));
+        buffer.append(",\"weightP90\":");
+        number(distribution.getWeightQuantile(0.9));
+        buffer.append(",\"weightP99\":");
+        number(distribution.getWeightQuantile(0.99));
+        buffer.append(",\"lengthP50\":");
+        number(distribution.getLengthQuantile(0.5));
+        buffer.append(",\"lengthP90\":");
+        number(distribution.getLengthQuantile(0.9));
+        buffer.append(",\"lengthP99\":");
+        number(distribution.getLengthQuantile(0.99));
+        buffer.append(",\"outliers\":").append(distribution.getOutlierCount());
+    }
+
+    private void distributionText(CatchDistribution distribution) {
+        if (distribution == null) {
+            return;
+        }
+        buffer.append(", вес p50/p90/p99 ");
+        Decimals.append(buffer, distribution.getWeightQuantile(0.5), 2).append('/');
+        Decimals.append(buffer, distribution.getWeightQuantile(0.9), 2).append('/');
+        Decimals.append(buffer, distribution.getWeightQuantile(0.99), 2).append(" кг, длина p50/p90/p99 ");
+        Decimals.append(buffer, distribution.getLengthQuantile(0.5), 1).append('/');
+        Decimals.append(buffer, distribution.getLengthQuantile(0.9), 1).append('/');
+        Decimals.append(buffer, distribution.getLengthQuantile(0.99), 1).append(" см, выбросов ")
+                .append(distribution.getOutlierCount());
+    }
+
+    private void fisherman(Fisherman fisherman) {
+        if (fisherman == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append("{\"firstName\":");
+        string(fisherman.getFirstName());
+        buffer.append(",\"lastName\":");
+        string(fisherman.getLastName());
+        buffer.append(",\"username\":");
+        string(fisherman.getUsername());
+        buffer.append('}');
+    }
+
+    private void bait(Bait bait) {
+        if (bait == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append("{\"type\":");
+        string(bait.getType());
+        buffer.append(",\"brand\":");
+        string(bait.getBrand());
+        buffer.append(",\"color\":");
+        string(bait.getColor());
+        buffer.append('}');
+    }
+
+    private void baitText(Bait bait) {
+        if (bait != null) {
+            buffer.append(bait.getType()).append(", ").append(bait.getBrand()).append(", ").append(bait.getColor());
+        }
+    }
+
+    /**
+     * Число JSON: в JSON нет NaN и бесконечностей, вместо них null.
+     */
+    private void number(double value) {
+        if (Double.isFinite(value)) {
+            buffer.append(value);
+        } else {
+            buffer.append("null");
+        }
+    }
+
+    private void string(String value) {
+        if (value == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        buffer.append("\\u00");
+                        buffer.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        buffer.append(c);
+                    }
+                }
+            }
+        }
+        buffer.append('"');
+    }
+
+    private void begin(Appendable out, WritableByteChannel channelOut) {
+        buffer.setLength(0);
+        appendable = out;
+        channel = channelOut;
+    }
+
+    private void finish() throws IOException {
+        try {
+            flush();
+        } finally {
+            appendable = null;
+            channel = null;
+            if (buffer.capacity() > FLUSH_THRESHOLD * 4) {
+                // Один огромный отчет не должен навсегда раздуть буфер
+                buffer.setLength(0);
+                buffer.trimToSize();
+            }
+        }
+    }
+
+    private void flushIfFull() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        if (appendable != null) {
+            appendable.append(buffer);
+        } else {
+            if (bytes == null) {
+                bytes = ByteBuffer.allocate(FLUSH_THRESHOLD * 4);
+            }
+            CharBuffer chars = CharBuffer.wrap(buffer);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                write();
+            } while (result.isOverflow());
+            do {
+                result = encoder.flush(bytes);
+                write();
+            } while (result.isOverflow());
+        }
+        buffer.setLength(0);
+    }
+
+    private void write() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package org.example;
+
+import lombok.Value;
+
+/**
+ * Итоги улова по одному виду рыбы.
+ */
+@Value
+public class SpeciesStatistics {
+    FishSpecies species;
+    int count;
+    double totalWeight;
+
+    public double getAverageWeight() {
+        return count == 0 ? 0 : totalWeight / count;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Список поездок журнала, которые хранятся не объектами FishingTrip, а записями: вне кучи
+ * (JournalStorage.OFF_HEAP) или в колонках (JournalStorage.COLUMNAR).
+ *
+ * <p>get создает объект поездки из записи и запоминает его слабой ссылкой: пока объект
+ * достижим, get возвращает его же, как и список в куче, а после сборки мусора поездка снова
+ * читается из записи. В куче на поездку остается ячейка массива слабых ссылок, а пока объект
+ * поездки жив или его ссылка не разобрана — еще и сама ссылка.
+ * Методы синхронизированы: параллельные потоки журнала читают поездки по очереди.
+ */
+abstract class StoredTripList extends AbstractList<FishingTrip> implements RandomAccess {
+    // Объект WeakReference с позицией
+    private static final long REF_BYTES = 48;
+
+    private final ReferenceQueue<FishingTrip> collected = new ReferenceQueue<>();
+    private TripRef[] cache = new TripRef[64];
+    private int liveRefs;
+
+    /**
+     * Записывает поездку вместе с ее текущим уловом.
+     */
+    @Override
+    public synchronized boolean add(FishingTrip trip) {
+        forgetCollected();
+        int position = write(trip);
+        FishingTrip stored = adopt(position, trip);
+        if (stored != null) {
+            remember(position, stored);
+        }
+        return true;
+    }
+
+    /**
+     * Дописывает улов в запись поездки trip, полученной из этого списка.
+     */
+    synchronized void addCatch(FishingTrip trip, CatchRecord cr) {
+        int position = (int) trip.getId() - 1;
+        Objects.checkIndex(position, storedSize());
+        writeCatch(position, trip, cr);
+    }
+
+    @Override
+    public synchronized FishingTrip get(int position) {
+        Objects.checkIndex(position, storedSize());
+        forgetCollected();
+        TripRef ref = position < cache.length ? cache[position] : null;
+        FishingTrip trip = ref == null ? null : ref.get();
+        if (trip == null) {
+            trip = read(position);
+            remember(position, trip);
+        }
+        return trip;
+    }
+
+    @Override
+    public synchronized int size() {
+        return storedSize();
+    }
+
+    /**
+     * Примерный объем списка в куче: массив слабых ссылок, еще не разобранные ссылки
+     * и то, что хранилище держит в куче.
+     */
+    synchronized long heapBytes() {
+        forgetCollected();
+        return 16 + 4L * cache.length + REF_BYTES * liveRefs + storeHeapBytes();
+    }
+
+    /**
+     * Записывает поездку и возвращает ее позицию.
+     */
+    abstract int write(FishingTrip trip);
+
+    /**
+     * Объект, который представляет только что записанную поездку, или null, если его создаст read.
+     */
+    abstract FishingTrip adopt(int position, FishingTrip trip);
+
+    abstract void writeCatch(int position, FishingTrip trip, CatchRecord cr);
+
+    /**
+     * Новый объект поездки с номером position + 1 по записи.
+     */
+    abstract FishingTrip read(int position);
+
+    abstract int storedSize();
+
+    abstract long storeHeapBytes();
+
+    private void remember(int position, FishingTrip trip) {
+        if (position >= cache.length) {
+            cache = Arrays.copyOf(cache, Math.max(cache.length * 2, position + 1));
+        }
+        cache[position] = new TripRef(trip, position, collected);
+        liveRefs++;
+    }
+
+    /**
+     * Освобождает ячейки поездок, объекты которых собраны сборщиком мусора.
+     */
+    private void forgetCollected() {
+        TripRef ref;
+        while ((ref = (TripRef) collected.poll()) != null) {
+            liveRefs--;
+            if (cache[ref.position] == ref) {
+                cache[ref.position] = null;
+            }
+        }
+    }
+
+    private static final class TripRef extends WeakReference<FishingTrip> {
+        private final int position;
+
+        private TripRef(FishingTrip trip, int position, ReferenceQueue<FishingTrip> queue) {
+            super(trip, queue);
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Индекс поездок по дате: позиции поездок в журнале, упорядоченные по epoch-day.
+ * Дата каждой поездки разбирается один раз при добавлении, диапазонный запрос —
+ * это два бинарных поиска и непрерывный срез.
+ */
+class TripDateIndex {
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    private long[] epochDays = new long[16];
+    private int[] positions = new int[16];
+    private int size;
+    private long[] daysByPosition = new long[16];
+    private int positionCount;
+
+    /**
+     * Добавляет поездку. При хронологическом порядке добавления вставка идет в конец
+     * без сдвига элементов.
+     */
+    void add(long epochDay, int position) {
+        if (size == epochDays.length) {
+            epochDays = Arrays.copyOf(epochDays, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        int insertAt = size == 0 || epochDays[size - 1] <= epochDay ? size : upperBound(epochDay);
+        if (insertAt < size) {
+            System.arraycopy(epochDays, insertAt, epochDays, insertAt + 1, size - insertAt);
+            System.arraycopy(positions, insertAt, positions, insertAt + 1, size - insertAt);
+        }
+        epochDays[insertAt] = epochDay;
+        positions[insertAt] = position;
+        size++;
+        remember(position, epochDay);
+    }
+
+    /**
+     * Регистрирует поездку без распознанной даты, чтобы dayOf оставался согласованным с позициями.
+     */
+    void addUndated(int position) {
+        remember(position, NO_DATE);
+    }
+
+    /**
+     * Дата поездки в epoch-day по ее позиции в журнале или NO_DATE.
+     */
+    long dayOf(int position) {
+        return position < positionCount ? daysByPosition[position] : NO_DATE;
+    }
+
+    private void remember(int position, long epochDay) {
+        if (position >= daysByPosition.length) {
+            int capacity = daysByPosition.length;
+            while (capacity <= position) {
+                capacity *= 2;
+            }
+            daysByPosition = Arrays.copyOf(daysByPosition, capacity);
+        }
+        for (int i = positionCount; i < position; i++) {
+            daysByPosition[i] = NO_DATE;
+        }
+        daysByPosition[position] = epochDay;
+        positionCount = Math.max(positionCount, position + 1);
+    }
+
+    /**
+     * Приблизительный объем индекса в куче: три массива с заголовками.
+     */
+    long estimatedBytes() {
+        return 3 * 16L + (long) epochDays.length * Long.BYTES + (long) positions.length * Integer.BYTES
+                + (long) daysByPosition.length * Long.BYTES;
+    }
+
+    /**
+     * Позиции поездок с датой в [startDay, endDay] в порядке добавления в журнал.
+     */
+    int[] range(long startDay, long endDay) {
+        int from = lowerBound(startDay);
+        int to = upperBound(endDay);
+        if (from >= to) {
+            return new int[0];
+        }
+        int[] slice = Arrays.copyOfRange(positions, from, to);
+        Arrays.sort(slice);
+        return slice;
+    }
+
+    /**
+     * Количество поездок в диапазоне без построения среза.
+     */
+    int count(long startDay, long endDay) {
+        return Math.max(0, upperBound(endDay) - lowerBound(startDay));
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int lowerBound(long key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(long key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
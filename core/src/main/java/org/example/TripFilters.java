@@ -0,0 +1,58 @@
+package org.example;
+
+import org.slf4j.Logger;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Запросы для методов filterBy* журналов. Некорректные параметры записываются в лог журнала,
+ * а вместо запроса возвращается null: такой фильтр дает пустой список.
+ */
+final class TripFilters {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private TripFilters() {
+    }
+
+    static TripQuery byLocation(String locationName, Logger logger) {
+        if (locationName == null || locationName.isBlank()) {
+            logger.warn("Пустой параметр locationName");
+            return null;
+        }
+        return TripQuery.builder().location(locationName).build();
+    }
+
+    static TripQuery byDateRange(String startDate, String endDate, Logger logger) {
+        TripQuery.Builder builder = TripQuery.builder();
+        return withDateRange(builder, startDate, endDate, logger) ? builder.build() : null;
+    }
+
+    static TripQuery byLocationAndDate(String locationName, String startDate, String endDate, Logger logger) {
+        if (locationName == null || locationName.isBlank()) {
+            logger.warn("Пустой параметр locationName");
+            return null;
+        }
+        TripQuery.Builder builder = TripQuery.builder().location(locationName);
+        return withDateRange(builder, startDate, endDate, logger) ? builder.build() : null;
+    }
+
+    private static boolean withDateRange(TripQuery.Builder builder, String startDate, String endDate,
+                                         Logger logger) {
+        try {
+            LocalDate start = LocalDate.parse(startDate, DATE_FORMAT);
+            LocalDate end = LocalDate.parse(endDate, DATE_FORMAT);
+
+            if (start.isAfter(end)) {
+                logger.warn("Начальная дата {} позже конечной {}", startDate, endDate);
+                return false;
+            }
+
+            builder.dateRange(start, end);
+            return true;
+        } catch (Exception e) {
+            logger.error("Ошибка парсинга даты: {}", e.getMessage());
+            return false;
+        }
+    }
+}
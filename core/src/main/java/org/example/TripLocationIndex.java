@@ -0,0 +1,180 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Индекс поездок по названию места для поиска подстроки без учета регистра.
+ * Названия мест нормализуются один раз при добавлении, по ним строится триграммный
+ * индекс, а каждому названию соответствует список позиций поездок в журнале.
+ */
+class TripLocationIndex {
+    private static final int GRAM = 3;
+    // Узел HashMap вместе с ячейкой таблицы
+    private static final long MAP_ENTRY_BYTES = 40;
+
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<Long, int[]> gramPostings = new HashMap<>();
+    private String[] lowerNames = new String[16];
+    private int[][] tripPositions = new int[16][];
+    private int[] tripCounts = new int[16];
+    private int nameCount;
+
+    void add(String locationName, int position) {
+        if (locationName == null) {
+            return;
+        }
+        Integer id = idsByName.get(locationName);
+        if (id == null) {
+            id = registerName(locationName);
+        }
+        int[] postings = tripPositions[id];
+        int count = tripCounts[id];
+        if (count == postings.length) {
+            postings = Arrays.copyOf(postings, count * 2);
+            tripPositions[id] = postings;
+        }
+        postings[count] = position;
+        tripCounts[id] = count + 1;
+    }
+
+    /**
+     * Позиции поездок, в названии места которых есть подстрока, в порядке добавления в журнал.
+     */
+    int[] search(String term) {
+        String needle = term.toLowerCase();
+        int matchedNames = 0;
+        int firstMatch = -1;
+        int total = 0;
+        int[] matches = null;
+
+        int[] candidates = candidateNames(needle);
+        int candidateCount = candidates == null ? nameCount : candidates.length;
+        for (int i = 0; i < candidateCount; i++) {
+            int id = candidates == null ? i : candidates[i];
+            if (!lowerNames[id].contains(needle)) {
+                continue;
+            }
+            if (matchedNames == 0) {
+                firstMatch = id;
+            } else {
+                if (matches == null) {
+                    matches = new int[candidateCount];
+                    matches[0] = firstMatch;
+                }
+                matches[matchedNames] = id;
+            }
+            matchedNames++;
+            total += tripCounts[id];
+        }
+
+        if (matchedNames == 0) {
+            return new int[0];
+        }
+        if (matchedNames == 1) {
+            return Arrays.copyOf(tripPositions[firstMatch], tripCounts[firstMatch]);
+        }
+        int[] result = new int[total];
+        int offset = 0;
+        for (int i = 0; i < matchedNames; i++) {
+            int id = matches[i];
+            System.arraycopy(tripPositions[id], 0, result, offset, tripCounts[id]);
+            offset += tripCounts[id];
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Оценка числа поездок-кандидатов для запроса без проверки подстроки.
+     */
+    int estimate(String term) {
+        int[] candidates = candidateNames(term.toLowerCase());
+        if (candidates == null) {
+            return Integer.MAX_VALUE;
+        }
+        int total = 0;
+        for (int id : candidates) {
+            total += tripCounts[id];
+        }
+        return total;
+    }
+
+    /**
+     * Названия, содержащие самую редкую триграмму запроса, или null, если запрос короче триграммы
+     * и проверять нужно все названия.
+     */
+    private int[] candidateNames(String needle) {
+        if (needle.length() < GRAM) {
+            return null;
+        }
+        int[] best = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            int[] postings = gramPostings.get(gramKey(needle, i));
+            if (postings == null) {
+                return new int[0];
+            }
+            if (best == null || postings[0] < best[0]) {
+                best = postings;
+            }
+        }
+        return Arrays.copyOfRange(best, 1, best[0] + 1);
+    }
+
+    /**
+     * Число разных названий мест в индексе.
+     */
+    int nameCount() {
+        return nameCount;
+    }
+
+    /**
+     * Приблизительный объем индекса в куче: узлы хеш-таблиц с ключами, нормализованные названия
+     * и списки позиций. Исходные названия принадлежат местам и не учитываются.
+     */
+    long estimatedBytes() {
+        long bytes = 4 * 16L + 4L * lowerNames.length + 4L * tripPositions.length + 4L * tripCounts.length;
+        bytes += idsByName.size() * (MAP_ENTRY_BYTES + 16L);
+        for (int[] postings : gramPostings.values()) {
+            bytes += MAP_ENTRY_BYTES + 24 + 16 + 4L * postings.length;
+        }
+        for (int id = 0; id < nameCount; id++) {
+            bytes += 40 + 2L * lowerNames[id].length() + 16 + 4L * tripPositions[id].length;
+        }
+        return bytes;
+    }
+
+    private int registerName(String locationName) {
+        int id = nameCount++;
+        if (id == lowerNames.length) {
+            lowerNames = Arrays.copyOf(lowerNames, id * 2);
+            tripPositions = Arrays.copyOf(tripPositions, id * 2);
+            tripCounts = Arrays.copyOf(tripCounts, id * 2);
+        }
+        String lower = locationName.toLowerCase();
+        lowerNames[id] = lower;
+        tripPositions[id] = new int[4];
+        idsByName.put(locationName, id);
+
+        for (int i = 0; i + GRAM <= lower.length(); i++) {
+            Long key = gramKey(lower, i);
+            // postings[0] хранит число идентификаторов названий в списке
+            int[] postings = gramPostings.get(key);
+            if (postings == null) {
+                postings = new int[4];
+            } else if (postings[postings[0]] == id) {
+                continue;
+            } else if (postings[0] + 1 == postings.length) {
+                postings = Arrays.copyOf(postings, postings.length * 2);
+            }
+            postings[++postings[0]] = id;
+            gramPostings.put(key, postings);
+        }
+        return id;
+    }
+
+    private static Long gramKey(String s, int from) {
+        return ((long) s.charAt(from) << 32) | ((long) s.charAt(from + 1) << 16) | s.charAt(from + 2);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Страница результатов запроса. Следующая страница запрашивается с курсором nextAfterId;
+ * 0 означает, что это последняя страница.
+ */
+@Value
+public class TripPage {
+    List<FishingTrip> trips;
+    long nextAfterId;
+
+    public boolean hasMore() {
+        return nextAfterId > 0;
+    }
+}
@@ -0,0 +1,254 @@
+package org.example;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Неизменяемый набор условий отбора поездок. Условия объединяются через И,
+ * незаданное условие пропускает любую поездку.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class TripQuery {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final String location;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final FishSpecies species;
+    private final Bait bait;
+    private final FishingGear gear;
+    private final String weatherConditions;
+    private final double minTemperature;
+    private final double maxTemperature;
+    private final int minWindSpeed;
+    private final int maxWindSpeed;
+    private final int minPressure;
+    private final int maxPressure;
+
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final String locationNeedle;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final long fromDay;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final long toDay;
+
+    private TripQuery(Builder builder) {
+        this.location = builder.location;
+        this.from = builder.from;
+        this.to = builder.to;
+        this.species = builder.species;
+        this.bait = builder.bait;
+        this.gear = builder.gear;
+        this.weatherConditions = builder.weatherConditions;
+        this.minTemperature = builder.minTemperature;
+        this.maxTemperature = builder.maxTemperature;
+        this.minWindSpeed = builder.minWindSpeed;
+        this.maxWindSpeed = builder.maxWindSpeed;
+        this.minPressure = builder.minPressure;
+        this.maxPressure = builder.maxPressure;
+        this.locationNeedle = location == null ? null : location.toLowerCase();
+        this.fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        this.toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean hasLocation() {
+        return location != null;
+    }
+
+    public boolean hasDateRange() {
+        return from != null;
+    }
+
+    /**
+     * Проверяет поездку по всем условиям запроса.
+     */
+    public boolean matches(FishingTrip trip) {
+        if (hasDateRange()) {
+            long day;
+            try {
+                day = LocalDate.parse(trip.getDate(), DATE_FORMAT).toEpochDay();
+            } catch (RuntimeException e) {
+                return false;
+            }
+            if (!matchesDay(day)) {
+                return false;
+            }
+        }
+        return matchesLocation(trip) && matchesRest(trip);
+    }
+
+    boolean matchesDay(long epochDay) {
+        return epochDay >= fromDay && epochDay <= toDay;
+    }
+
+    boolean matchesLocation(FishingTrip trip) {
+        if (locationNeedle == null) {
+            return true;
+        }
+        FishingLocation place = trip.getLocation();
+        return place != null && matchesLocationName(place.getName());
+    }
+
+    /**
+     * Проверка названия места без поездки, например по словарю мест. Сравнивает без учета
+     * регистра на месте, не создавая строку в нижнем регистре для каждой поездки.
+     */
+    boolean matchesLocationName(String name) {
+        if (locationNeedle == null) {
+            return true;
+        }
+        if (name == null) {
+            return false;
+        }
+        int needleLength = locationNeedle.length();
+        for (int from = 0; from + needleLength <= name.length(); from++) {
+            if (name.regionMatches(true, from, locationNeedle, 0, needleLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Условия, для которых у журнала нет индекса.
+     */
+    boolean matchesRest(FishingTrip trip) {
+        if (bait != null && !bait.equals(trip.getBait())) {
+            return false;
+        }
+        if (gear != null && !gear.equals(trip.getGear())) {
+            return false;
+        }
+        if (weatherConditions != null && !weatherConditions.equalsIgnoreCase(trip.getWeatherConditions())) {
+            return false;
+        }
+        if (trip.getTemperature() < minTemperature || trip.getTemperature() > maxTemperature) {
+            return false;
+        }
+        if (trip.getWindSpeed() < minWindSpeed || trip.getWindSpeed() > maxWindSpeed) {
+            return false;
+        }
+        if (trip.getPressure() < minPressure || trip.getPressure() > maxPressure) {
+            return false;
+        }
+        if (species != null) {
+            for (CatchRecord cr : trip.getCatches()) {
+                if (species.equals(cr.getSpecies())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public static final class Builder {
+        private String location;
+        private LocalDate from;
+        private LocalDate to;
+        private FishSpecies species;
+        private Bait bait;
+        private FishingGear gear;
+        private String weatherConditions;
+        private double minTemperature = Double.NEGATIVE_INFINITY;
+        private double maxTemperature = Double.POSITIVE_INFINITY;
+        private int minWindSpeed = Integer.MIN_VALUE;
+        private int maxWindSpeed = Integer.MAX_VALUE;
+        private int minPressure = Integer.MIN_VALUE;
+        private int maxPressure = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        /**
+         * Подстрока названия места без учета регистра.
+         */
+        public Builder location(String location) {
+            if (location == null || location.isBlank()) {
+                throw new IllegalArgumentException("Пустое название места");
+            }
+            this.location = location;
+            return this;
+        }
+
+        /**
+         * Даты поездки, обе границы включаются.
+         */
+        public Builder dateRange(LocalDate from, LocalDate to) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Не указана граница диапазона дат");
+            }
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("Начальная дата " + from + " позже конечной " + to);
+            }
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        /**
+         * Поездки, в которых пойман хотя бы один экземпляр вида.
+         */
+        public Builder species(FishSpecies species) {
+            this.species = species;
+            return this;
+        }
+
+        public Builder bait(Bait bait) {
+            this.bait = bait;
+            return this;
+        }
+
+        public Builder gear(FishingGear gear) {
+            this.gear = gear;
+            return this;
+        }
+
+        /**
+         * Погодные условия, сравниваются без учета регистра.
+         */
+        public Builder weather(String weatherConditions) {
+            this.weatherConditions = weatherConditions;
+            return this;
+        }
+
+        public Builder temperature(double min, double max) {
+            this.minTemperature = min;
+            this.maxTemperature = max;
+            return this;
+        }
+
+        public Builder windSpeed(int min, int max) {
+            this.minWindSpeed = min;
+            this.maxWindSpeed = max;
+            return this;
+        }
+
+        public Builder pressure(int min, int max) {
+            this.minPressure = min;
+            this.maxPressure = max;
+            return this;
+        }
+
+        public TripQuery build() {
+            return new TripQuery(this);
+        }
+    }
+}
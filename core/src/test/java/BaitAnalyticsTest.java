@@ -0,0 +1,92 @@
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaitAnalyticsTest {
+    private FishingJournal journal;
+    private FishingLocation lake;
+    private FishingGear gear;
+    private Bait worm;
+    private Bait lure;
+    private FishSpecies perch;
+    private FishSpecies pike;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        worm = new Bait("Червь", "Натуральная", "Красный");
+        lure = new Bait("Воблер", "Rapala", "Красный");
+        perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+        pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+
+        FishingTrip summerWorm = journal.addTrip("2023-07-15", lake, "Солнечно", 24, 2, 760, 4, gear, worm);
+        journal.addCatch(summerWorm, perch, 0.3, 20);
+        journal.addCatch(summerWorm, perch, 0.4, 22);
+        FishingTrip summerLure = journal.addTrip("2023-07-20", lake, "Солнечно", 26, 3, 762, 2, gear, lure);
+        journal.addCatch(summerLure, pike, 2.0, 55);
+        journal.addCatch(summerLure, perch, 0.5, 25);
+        journal.addCatch(summerLure, perch, 0.6, 26);
+        FishingTrip autumnLure = journal.addTrip("2023-10-03", lake, "Дождь", 8, 9, 742, 5, gear, lure);
+        journal.addCatch(autumnLure, pike, 3.5, 70);
+        journal.addTrip("2023-10-04", lake, "Дождь", 7, 10, 741, 3, gear, worm);
+    }
+
+    @Test
+    void testRankBySlice() {
+        List<BaitRate> july = journal.rankBaits(BaitSlice.builder().month(Month.JULY).build());
+        assertEquals(2, july.size());
+        assertEquals(lure, july.get(0).getBait());
+        assertEquals(3, july.get(0).getCatches());
+        assertEquals(1.5, july.get(0).getCatchesPerHour(), 1e-9);
+        assertEquals(0.5, july.get(1).getCatchesPerHour(), 1e-9);
+
+        List<BaitRate> lowPressure = journal.rankBaits(BaitSlice.builder().pressure(735, 749).build());
+        assertEquals(lure, lowPressure.get(0).getBait());
+        assertEquals(0.2, lowPressure.get(0).getCatchesPerHour(), 1e-9);
+        assertEquals(worm, lowPressure.get(1).getBait());
+        assertEquals(0, lowPressure.get(1).getCatches());
+        assertEquals(3, lowPressure.get(1).getHours(), 1e-9);
+
+        List<BaitRate> rainyPike = journal.rankBaits(BaitSlice.builder()
+                .species(pike).weather("дождь").temperature(5, 9).windSpeed(9, 11).build());
+        assertEquals(1, rainyPike.get(0).getCatches());
+        assertEquals(lure, rainyPike.get(0).getBait());
+    }
+
+    @Test
+    void testCubeMatchesTripScan() {
+        for (int i = 0; i < 500; i++) {
+            FishingTrip trip = journal.addTrip(String.format("2022-%02d-10", 1 + i % 12), lake,
+                    i % 3 == 0 ? "Облачно" : "Солнечно", -10 + i % 40, i % 15, 730 + i % 50,
+                    1 + i % 6, gear, i % 2 == 0 ? worm : lure);
+            for (int c = 0; c < i % 4; c++) {
+                journal.addCatch(trip, c % 2 == 0 ? perch : pike, 0.5, 30);
+            }
+        }
+        BaitSlice slice = BaitSlice.builder().species(perch).months(Month.MARCH, Month.AUGUST)
+                .temperature(0, 19.9).pressure(740, 764).build();
+        for (BaitRate rate : journal.rankBaits(slice)) {
+            long catches = 0;
+            double hours = 0;
+            for (FishingTrip trip : journal.getTrips()) {
+                int month = Integer.parseInt(trip.getDate().substring(5, 7));
+                if (!trip.getBait().equals(rate.getBait()) || month < 3 || month > 8
+                        || trip.getTemperature() < 0 || trip.getTemperature() >= 20
+                        || trip.getPressure() < 740 || trip.getPressure() > 764) {
+                    continue;
+                }
+                hours += trip.getDuration();
+                catches += trip.getCatches().stream().filter(cr -> cr.getSpecies().equals(perch)).count();
+            }
+            assertEquals(catches, rate.getCatches());
+            assertEquals(hours, rate.getHours(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+import org.example.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatchDistributionTest {
+    private final FishingLocation lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+    private final FishingLocation river = new FishingLocation("Река Быстрая", "Река с течением");
+    private final FishingGear gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+    private final Bait worm = new Bait("Червь", "Натуральная", "Красный");
+    private final FishSpecies perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+    private final FishSpecies pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+
+    @Test
+    void testSketchQuantilesWithinRankError() {
+        Random random = new Random(42);
+        double[] values = new double[200_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            sketch.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, sketch.getCount());
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[values.length - 1], sketch.getMax());
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            assertEquals(q, rank(values, sketch.getQuantile(q)), 0.02, "квантиль " + q);
+        }
+        assertTrue(Double.isNaN(new QuantileSketch().getQuantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(1.5));
+    }
+
+    @Test
+    void testMergedSketchMatchesWholeData() {
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            // Половины из разных диапазонов: слияние должно сохранить оба хвоста
+            values[i] = i % 2 == 0 ? random.nextDouble() : 10 + random.nextDouble();
+            (i % 2 == 0 ? left : right).update(values[i]);
+        }
+        Arrays.sort(values);
+
+        left.merge(right);
+        assertEquals(values.length, left.getCount());
+        assertEquals(values[values.length - 1], left.getMax());
+        for (double q : new double[]{0.1, 0.25, 0.5, 0.75, 0.99}) {
+            assertEquals(q, rank(values, left.getQuantile(q)), 0.02, "квантиль " + q);
+        }
+        assertEquals(50_000, right.getCount());
+    }
+
+    @Test
+    void testMergeIntoEmptySketch() {
+        Random random = new Random(11);
+        double[] values = new double[20_000];
+        QuantileSketch source = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * 100;
+            source.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        // У сжатого скетча бывают пустые уровни в середине, пустой скетч должен принять их все
+        QuantileSketch merged = new QuantileSketch();
+        merged.merge(source);
+        assertEquals(values.length, merged.getCount());
+        assertEquals(values[0], merged.getMin());
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(q, rank(values, merged.getQuantile(q)), 0.02, "квантиль " + q);
+        }
+    }
+
+    @Test
+    void testJournalDistributionsBySpeciesLocationAndMonth() throws IOException {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        FishingTrip july = journal.addTrip("2023-07-15", lake, "Солнечно", 25, 2, 755, 4.5, gear, worm);
+        FishingTrip august = journal.addTrip("2023-08-05", river, "Дождь", 18, 7, 750, 3.5, gear, worm);
+        journal.addCatch(july, perch, 0.3, 20);
+        journal.addCatch(july, perch, 0.5, 24);
+        journal.addCatch(july, perch, 0.4, 22);
+        journal.addCatch(august, perch, 2.5, 40);
+        journal.addCatch(august, pike, 3.0, 60);
+
+        CatchDistributions distributions = journal.getCatchDistributions();
+        CatchDistribution perchAll = distributions.get(perch);
+        assertEquals(4, perchAll.getCount());
+        assertEquals(0.4, perchAll.getWeightQuantile(0.5));
+        assertEquals(2.5, perchAll.getWeightQuantile(1));
+        assertEquals(1, perchAll.getOutlierCount());
+        assertNull(distributions.get(new FishSpecies("Лещ", "Пресноводная", 0.3, 5.0)));
+
+        Map<FishingLocation, CatchDistribution> byLocation = distributions.byLocation(perch);
+        assertEquals(3, byLocation.get(lake).getCount());
+        assertEquals(24, byLocation.get(lake).getLengthQuantile(1));
+        assertEquals(1, byLocation.get(river).getOutlierCount());
+
+        Map<YearMonth, CatchDistribution> byMonth = distributions.byMonth(perch);
+        assertEquals(YearMonth.of(2023, 7), byMonth.keySet().iterator().next());
+        assertEquals(1, byMonth.get(YearMonth.of(2023, 8)).getCount());
+
+        journal.addCatch(july, perch, 0.6, 26);
+        assertEquals(4, perchAll.getCount(), "копия не меняется при добавлении улова");
+
+        StringBuilder report = new StringBuilder();
+        new ReportRenderer(ReportFormat.JSON).renderSpeciesStats(journal.getSpeciesStatistics(),
+                distributions.bySpecies(), report);
+        assertTrue(report.toString().contains("\"weightP50\":0.4"));
+        assertTrue(report.toString().contains("\"outliers\":1"));
+    }
+
+    @Test
+    void testOutlierFlag() {
+        assertFalse(new CatchRecord(perch, 0.1, 15).isOutlier());
+        assertFalse(new CatchRecord(perch, 2.0, 45).isOutlier());
+        assertTrue(new CatchRecord(perch, 2.01, 45).isOutlier());
+        assertTrue(new CatchRecord(pike, 0.2, 20).isOutlier());
+        assertFalse(new CatchRecord(null, 0.2, 20).isOutlier());
+    }
+
+    @Test
+    void testClubDistributionsMergeJournals() {
+        JournalAggregator club = new JournalAggregator();
+        ConcurrentFishingJournal ivan = club.journal(new Fisherman("Иван", "Сидоров", "ivan"));
+        ConcurrentFishingJournal petr = club.journal(new Fisherman("Петр", "Иванов", "petr"));
+        FishingTrip ivanTrip = ivan.addTrip("2023-07-15", lake, "Солнечно", 25, 2, 755, 4.5, gear, worm);
+        FishingTrip petrTrip = petr.addTrip("2023-07-20", lake, "Облачно", 20, 3, 750, 3, gear, worm);
+        for (int i = 1; i <= 100; i++) {
+            ivan.addCatch(ivanTrip, perch, 0.5 + i / 200.0, 20);
+            petr.addCatch(petrTrip, perch, 1 + i / 200.0, 30);
+        }
+        petr.addCatch(petrTrip, perch, 3.0, 50);
+        petr.addCatch(petrTrip, pike, 20.0, 110);
+
+        CatchDistributions clubDistributions = club.catchDistributions();
+        CatchDistribution perchAll = clubDistributions.get(perch);
+        assertEquals(201, perchAll.getCount());
+        assertEquals(1.0, perchAll.getWeightQuantile(0.5), 0.02);
+        assertEquals(1, perchAll.getOutlierCount());
+        assertEquals(201, clubDistributions.byLocation(perch).get(lake).getCount());
+        assertEquals(1, clubDistributions.get(pike).getOutlierCount());
+        assertEquals(100, ivan.getSpeciesDistributions().get(perch).getCount(), "журналы не меняются при слиянии");
+    }
+
+    private static double rank(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        return (index < 0 ? -index - 1 : index + 1) / (double) sorted.length;
+    }
+}
@@ -0,0 +1,71 @@
+
+import org.example.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarCatchStoreTest {
+
+    @Test
+    void testViewsMatchJournal() {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        FishingLocation lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        FishingGear gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        Bait bait = new Bait("Червь", "Натуральная", "Красный");
+        FishSpecies perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+        FishSpecies pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+
+        FishingTrip first = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+        FishingTrip second = journal.addTrip("2023-07-22", lake, "Пасмурно", 20.0, 3, 755, 6.0, gear, bait);
+        journal.addCatch(first, perch, 0.5, 22.0);
+        journal.addCatch(second, pike, 3.25, 65.0);
+        journal.addCatch(first, pike, 2.5, 60.0);
+
+        ColumnarCatchStore store = ColumnarCatchStore.of(journal);
+        assertEquals(2, store.tripCount());
+        assertEquals(3, store.catchCount());
+        assertEquals(1, store.getLocations().size());
+        assertEquals(2, store.getSpecies().size());
+
+        FishingTrip view = store.tripAt(0);
+        assertEquals("2023-07-15", view.getDate());
+        assertEquals(lake, view.getLocation());
+        assertEquals(760, view.getPressure());
+        assertEquals(2, view.getTotalFish());
+        assertEquals(3.0, view.getTotalWeight(), 0.001);
+
+        List<CatchRecord> catches = store.catchesOf(1);
+        assertEquals(1, catches.size());
+        assertEquals(pike, catches.get(0).getSpecies());
+        assertEquals(3.25, catches.get(0).getWeight(), 0.001);
+        assertEquals(store.getSpecies().idOf(pike), store.speciesId(2));
+        assertEquals(1, store.tripId(2));
+
+        assertEquals(1, view.getId());
+        assertThrows(IllegalStateException.class, () -> view.setPressure(700));
+        assertThrows(IllegalStateException.class, () -> view.addCatch(new CatchRecord(perch, 1.0, 30.0)));
+        store.addCatch(0, perch, 0.25, 18.0);
+        assertEquals(3, view.getTotalFish());
+        assertEquals(3.25, view.getTotalWeight(), 0.001);
+    }
+
+    @Test
+    void testColumnarJournal() {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"),
+                JournalStorage.COLUMNAR);
+        FishingLocation lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        FishingGear gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        Bait bait = new Bait("Червь", "Натуральная", "Красный");
+        FishSpecies perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+
+        FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+        journal.addCatch(trip, perch, 0.123456789, 22.0);
+
+        assertSame(trip, journal.getTrip(1));
+        assertEquals(0.123456789, trip.getTotalWeight());
+        assertEquals(1, journal.filterByLocation("Озеро Глубокое").size());
+        assertEquals(1, journal.getStatistics().getTotalFish());
+    }
+}
@@ -0,0 +1,148 @@
+
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentFishingJournalTest {
+    private static final int WRITERS = 32;
+    private static final int TRIPS_PER_WRITER = 200;
+    private static final int CATCHES_PER_TRIP = 5;
+
+    private ConcurrentFishingJournal journal;
+    private FishingLocation lake;
+    private FishingGear gear;
+    private Bait worm;
+    private Bait lure;
+    private FishSpecies perch;
+    private FishSpecies pike;
+
+    @BeforeEach
+    void setUp() {
+        journal = new ConcurrentFishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        worm = new Bait("Червь", "Натуральная", "Красный");
+        lure = new Bait("Воблер", "Rapala", "Красный");
+        perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+        pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+    }
+
+    @Test
+    void testNoLostIncrementsUnderContention() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        FishingTrip shared = journal.addTrip("2023-07-01", lake, "Солнечно", 20.0, 3, 755, 8.0, gear, worm);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            Bait bait = w % 2 == 0 ? worm : lure;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int t = 0; t < TRIPS_PER_WRITER; t++) {
+                    FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 20.0, 3, 755, 4.0, gear, bait);
+                    for (int c = 0; c < CATCHES_PER_TRIP; c++) {
+                        journal.addCatch(trip, c % 2 == 0 ? perch : pike, 1.0, 30.0);
+                    }
+                    journal.addCatch(shared, perch, 1.0, 30.0);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int writerTrips = WRITERS * TRIPS_PER_WRITER;
+        int writerCatches = writerTrips * CATCHES_PER_TRIP;
+        int expectedFish = writerCatches + writerTrips;
+
+        List<FishingTrip> trips = journal.getTrips();
+        assertEquals(writerTrips + 1, trips.size());
+        assertTrue(trips.stream().allMatch(trip -> trip != null));
+        assertEquals(expectedFish, trips.stream().mapToInt(FishingTrip::getTotalFish).sum());
+        assertEquals(writerTrips, shared.getTotalFish());
+
+        JournalStatistics stats = journal.getStatistics();
+        assertEquals(expectedFish, stats.getTotalFish());
+        assertEquals(expectedFish, stats.getTotalWeight(), 0.001);
+
+        int perchPerTrip = (CATCHES_PER_TRIP + 1) / 2;
+        assertEquals(writerTrips * perchPerTrip + writerTrips, journal.getSpeciesStatistics(perch).getCount());
+        assertEquals(writerTrips * (CATCHES_PER_TRIP - perchPerTrip), journal.getSpeciesStatistics(pike).getCount());
+
+        Map<Bait, Map<FishSpecies, Long>> effectiveness = journal.getBaitEffectiveness();
+        long halfTrips = writerTrips / 2;
+        assertEquals(halfTrips * perchPerTrip + writerTrips, effectiveness.get(worm).get(perch));
+        assertEquals(halfTrips * perchPerTrip, effectiveness.get(lure).get(perch));
+        assertEquals(halfTrips * (CATCHES_PER_TRIP - perchPerTrip), effectiveness.get(lure).get(pike));
+    }
+
+    @Test
+    void testReadersIterateCatchesWhileWritersAdd() throws Exception {
+        FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 20.0, 3, 755, 4.0, gear, worm);
+        TripQuery byPike = TripQuery.builder().species(pike).build();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<?> writer = pool.submit(() -> {
+            for (int c = 0; c < 20_000; c++) {
+                journal.addCatch(trip, c == 19_999 ? pike : perch, 1.0, 30.0);
+            }
+        });
+        Future<?> reader = pool.submit(() -> {
+            while (!writer.isDone()) {
+                double weight = 0;
+                for (CatchRecord cr : trip.getCatches()) {
+                    weight += cr.getWeight();
+                }
+                assertTrue(weight <= trip.getTotalWeight());
+                journal.query(byPike);
+            }
+        });
+        writer.get(60, TimeUnit.SECONDS);
+        reader.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(20_000, trip.getCatches().size());
+        assertEquals(1, journal.query(byPike).size());
+    }
+
+    @Test
+    void testSnapshotIsStable() {
+        journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, worm);
+        List<FishingTrip> snapshot = journal.getTrips();
+        journal.addTrip("2023-07-22", lake, "Пасмурно", 20.0, 3, 755, 6.0, gear, worm);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(2, journal.getTrips().size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(null));
+        assertEquals(2, journal.filterByLocationAndDate("озеро", "2023-07-01", "2023-07-31").size());
+    }
+
+    @Test
+    void testPagingById() {
+        for (int i = 0; i < 30; i++) {
+            journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, i % 3 == 0 ? lure : worm);
+        }
+        TripQuery byLure = TripQuery.builder().bait(lure).build();
+        TripPage first = journal.page(byLure, 0, 6);
+        assertEquals(6, first.getTrips().size());
+        assertTrue(first.hasMore());
+        TripPage second = journal.page(byLure, first.getNextAfterId(), 6);
+        assertEquals(4, second.getTrips().size());
+        assertFalse(second.hasMore());
+        assertEquals(28, second.getTrips().get(3).getId());
+        assertSame(second.getTrips().get(0), journal.getTrip(second.getTrips().get(0).getId()));
+        assertEquals(10, journal.stream(byLure).parallel().count());
+    }
+}
@@ -0,0 +1,179 @@
+
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableFishingJournalTest {
+    @TempDir
+    Path directory;
+
+    private Fisherman fisherman;
+    private FishingLocation lake;
+    private FishingLocation river;
+    private FishingGear gear;
+    private Bait bait;
+    private FishSpecies pike;
+
+    @BeforeEach
+    void setUp() {
+        fisherman = new Fisherman("Иван", "Сидоров", "ivan_angler");
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        river = new FishingLocation("Река Быстрая", "Река с течением");
+        gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        bait = new Bait("Червь", "Натуральная", "Красный");
+        pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+    }
+
+    @Test
+    void testReplayRestoresTripsAndCatches() {
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+            journal.addTrip("2023-08-05", river, null, 18.0, 7, 750, 3.5, gear, null);
+            journal.addCatch(trip, pike, 3.2, 65.0);
+            journal.addCatch(trip, pike, 1.8, 50.0);
+        }
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            List<FishingTrip> trips = journal.getTrips();
+            assertEquals(2, trips.size());
+            FishingTrip trip = trips.get(0);
+            assertEquals("2023-07-15", trip.getDate());
+            assertEquals(lake, trip.getLocation());
+            assertEquals(bait, trip.getBait());
+            assertEquals(760, trip.getPressure());
+            assertEquals(2, trip.getTotalFish());
+            assertEquals(5.0, trip.getTotalWeight(), 0.001);
+            assertNull(trips.get(1).getBait());
+            assertNull(trips.get(1).getWeatherConditions());
+            assertEquals(2, journal.getSpeciesStatistics(pike).getCount());
+            assertEquals(1, journal.filterByLocation("река").size());
+
+            journal.addCatch(trips.get(1), pike, 2.0, 55.0);
+        }
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            assertEquals(3, journal.getStatistics().getTotalFish());
+        }
+    }
+
+    @Test
+    void testCorruptedTailIsTruncated() throws IOException {
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+            journal.addCatch(trip, pike, 3.2, 65.0);
+        }
+        Path log = lastLog();
+        long validSize = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 20, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            assertEquals(1, journal.getTrips().size());
+            assertEquals(1, journal.getStatistics().getTotalFish());
+        }
+        assertEquals(validSize, Files.size(log));
+    }
+
+    @Test
+    void testCorruptedRecordKeepsEarlierRecords() throws IOException {
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+            journal.addCatch(trip, pike, 3.2, 65.0);
+        }
+        Path log = lastLog();
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(log, bytes);
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            assertEquals(1, journal.getTrips().size());
+            assertEquals(0, journal.getStatistics().getTotalFish());
+        }
+    }
+
+    @Test
+    void testSnapshotBoundsReplay() throws IOException {
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman, 5, 10)) {
+            for (int i = 0; i < 20; i++) {
+                FishingTrip trip = journal.addTrip("2023-07-" + (10 + i), lake, "Солнечно", 25.0, 5, 760, 4.5,
+                        gear, bait);
+                journal.addCatch(trip, pike, 1.0, 40.0);
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(p -> p.getFileName().toString().endsWith(".fjsn")).count());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(p -> p.getFileName().toString().endsWith(".log")).count() <= 2);
+        }
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            assertEquals(20, journal.getTrips().size());
+            assertEquals(20, journal.getStatistics().getTotalFish());
+            assertEquals(20.0, journal.getStatistics().getTotalWeight(), 0.001);
+            assertEquals(11, journal.filterByDateRange("2023-07-19", "2023-07-29").size());
+        }
+    }
+
+    @Test
+    void testExplicitSnapshotKeepsLaterRecords() {
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+            journal.addCatch(trip, pike, 3.2, 65.0);
+            journal.snapshot();
+            journal.addCatch(trip, pike, 1.8, 50.0);
+            journal.addTrip("2023-08-05", river, null, 18.0, 7, 750, 3.5, gear, null);
+        }
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            assertEquals(2, journal.getTrips().size());
+            assertEquals(2, journal.getTrip(1).getTotalFish());
+            assertEquals(5.0, journal.getStatistics().getTotalWeight(), 0.001);
+            assertEquals(2, journal.getSpeciesStatistics(pike).getCount());
+        }
+    }
+
+    @Test
+    void testImportedTripIdCatchesAreLoggedAfterTrips() {
+        String csv = "trip,2023-07-15,Озеро,Пресное,Солнечно,25,5,760,4.5,,,,,,\n"
+                + "catch,Щука,Хищная,0.5,15,3.2,65,1\n";
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            ImportResult result = new JournalImporter(journal).importCsv(Channels.newChannel(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+            assertFalse(result.hasErrors(), () -> result.getErrors().toString());
+            assertEquals(1, journal.getStatistics().getTotalFish());
+        }
+
+        try (DurableFishingJournal journal = DurableFishingJournal.open(directory, fisherman)) {
+            assertEquals(1, journal.getTrip(1).getTotalFish());
+            assertEquals(1, journal.getStatistics().getTotalFish());
+        }
+    }
+
+    private Path lastLog() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log"))
+                    .filter(p -> {
+                        try {
+                            return Files.size(p) > 0;
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    })
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+}
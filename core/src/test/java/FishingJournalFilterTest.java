@@ -2,8 +2,10 @@ import org.example.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,6 +65,133 @@ public class FishingJournalFilterTest {
         assertEquals(0, augustLakeTrips.size());
     }
 
+    @Test
+    void testSameDaySameLocationTripsAreDistinct() {
+        journal.addTrip("2023-07-15", lake, "Ветрено", 22.0, 8, 758, 2.0, gear, bait);
+        List<FishingTrip> trips = journal.filterByLocationAndDate("Озеро", "2023-07-15", "2023-07-15");
+        assertEquals(2, trips.size());
+    }
+
+    @Test
+    void testQueryCombinesPredicates() {
+        FishSpecies pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+        journal.addCatch(journal.getTrips().get(1), pike, 2.5, 60.0);
+
+        TripQuery query = TripQuery.builder()
+                .location("озеро")
+                .dateRange(LocalDate.of(2023, 7, 1), LocalDate.of(2023, 8, 31))
+                .temperature(19.0, 30.0)
+                .species(pike)
+                .build();
+        List<FishingTrip> trips = journal.query(query);
+        assertEquals(1, trips.size());
+        assertEquals("2023-07-22", trips.get(0).getDate());
+
+        List<FishingTrip> windy = journal.query(TripQuery.builder().windSpeed(6, 10).build());
+        assertEquals(1, windy.size());
+        assertEquals(river, windy.get(0).getLocation());
+    }
+
+    @Test
+    void testRunningStatistics() {
+        FishSpecies pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+        FishSpecies perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+        FishingTrip trip = journal.getTrips().get(0);
+        journal.addCatch(trip, pike, 3.0, 65.0);
+        journal.addCatch(trip, perch, 0.5, 22.0);
+        journal.addCatch(journal.getTrips().get(2), pike, 2.0, 55.0);
+
+        JournalStatistics stats = journal.getStatistics();
+        assertEquals(3, stats.getTripCount());
+        assertEquals(3, stats.getTotalFish());
+        assertEquals(5.5, stats.getTotalWeight(), 0.001);
+        assertEquals(1.0, stats.getAverageFishPerTrip(), 0.001);
+
+        SpeciesStatistics pikeStats = journal.getSpeciesStatistics(pike);
+        assertEquals(2, pikeStats.getCount());
+        assertEquals(2.5, pikeStats.getAverageWeight(), 0.001);
+        assertEquals(3.5, trip.getTotalWeight(), 0.001);
+        assertEquals(2, trip.getTotalFish());
+        assertThrows(UnsupportedOperationException.class,
+                () -> trip.getCatches().add(new CatchRecord(pike, 9.0, 90.0)));
+        assertEquals(3.5, trip.getTotalWeight(), 0.001);
+    }
+
+    @Test
+    void testTripIdsFollowInsertionOrder() {
+        List<FishingTrip> trips = journal.getTrips();
+        assertEquals(1, trips.get(0).getId());
+        assertEquals(3, trips.get(2).getId());
+        FishingTrip added = journal.addTrip("2023-09-01", lake, "Облачно", 15.0, 4, 750, 3.0, gear, bait);
+        assertEquals(4, added.getId());
+    }
+
+    @Test
+    void testGetTripById() {
+        FishingTrip added = journal.addTrip("2023-07-15", lake, "Ветрено", 22.0, 8, 758, 2.0, gear, bait);
+        assertSame(added, journal.getTrip(added.getId()));
+        assertSame(journal.getTrips().get(0), journal.getTrip(1));
+        assertNull(journal.getTrip(0));
+        assertNull(journal.getTrip(added.getId() + 1));
+        assertNotEquals(journal.getTrip(1), added);
+    }
+
+    @Test
+    void testInternedEntities() {
+        Bait first = Bait.of("Воблер", "Rapala", "Красный");
+        assertSame(first, Bait.of("Воблер", "Rapala", "Красный"));
+        assertEquals(first, new Bait("Воблер", "Rapala", "Красный"));
+        assertSame(FishSpecies.of("Окунь", "Пресноводная", 0.1, 2.0),
+                FishSpecies.of("Окунь", "Пресноводная", 0.1, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> FishSpecies.of("Окунь", "Пресноводная", 3.0, 2.0));
+
+        FishingTrip trip = journal.addTrip("2023-07-15", new FishingLocation("Озеро Глубокое", "Пресное озеро"),
+                "Солнечно", 25.0, 5, 760, 4.5, null, new Bait("Воблер", "Rapala", "Красный"));
+        journal.addCatch(trip, new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0), 0.4, 20.0);
+        assertSame(first, trip.getBait());
+        assertSame(FishingLocation.of("Озеро Глубокое", "Пресное озеро"), trip.getLocation());
+        assertSame(FishSpecies.of("Окунь", "Пресноводная", 0.1, 2.0), trip.getCatches().get(0).getSpecies());
+    }
+
+    @Test
+    void testPagesFollowTripIds() {
+        for (int i = 0; i < 117; i++) {
+            journal.addTrip("2023-09-" + (10 + i % 20), i % 2 == 0 ? lake : river, "Облачно",
+                    15.0, 4, 750, 3.0, gear, bait);
+        }
+        TripQuery lakeQuery = TripQuery.builder().location("Озеро").build();
+        List<FishingTrip> expected = journal.query(lakeQuery);
+
+        List<FishingTrip> paged = new ArrayList<>();
+        long cursor = 0;
+        int pages = 0;
+        TripPage page;
+        do {
+            page = journal.page(lakeQuery, cursor, 25);
+            paged.addAll(page.getTrips());
+            cursor = page.getNextAfterId();
+            pages++;
+        } while (page.hasMore());
+        assertEquals(expected, paged);
+        assertEquals(3, pages);
+
+        TripPage tail = journal.page(TripQuery.builder().build(), 110, 50);
+        assertEquals(10, tail.getTrips().size());
+        assertEquals(111, tail.getTrips().get(0).getId());
+        assertFalse(tail.hasMore());
+    }
+
+    @Test
+    void testStreamQuery() {
+        TripQuery july = TripQuery.builder()
+                .dateRange(LocalDate.of(2023, 7, 1), LocalDate.of(2023, 7, 31))
+                .build();
+        assertEquals(journal.query(july), journal.stream(july).collect(Collectors.toList()));
+        assertEquals(1, journal.stream(july).limit(1).count());
+        assertEquals(3, journal.stream().count());
+        assertEquals(journal.getTrips(), journal.stream().parallel().collect(Collectors.toList()));
+    }
+
     @Test
     void testInvalidDateRange() {
         List<FishingTrip> invalidRange = journal.filterByDateRange("2023-07-31", "2023-07-01");
@@ -86,6 +215,15 @@ public class FishingJournalFilterTest {
         assertEquals("2023-07-22", edgeCase.get(0).getDate());
     }
 
+    @Test
+    void testDateRangeKeepsInsertionOrder() {
+        journal.addTrip("2023-07-01", river, "Ветрено", 15.0, 9, 745, 2.0, gear, bait);
+        List<FishingTrip> julyTrips = journal.filterByDateRange("2023-07-01", "2023-07-31");
+        assertEquals(3, julyTrips.size());
+        assertEquals("2023-07-15", julyTrips.get(0).getDate());
+        assertEquals("2023-07-22", julyTrips.get(1).getDate());
+        assertEquals("2023-07-01", julyTrips.get(2).getDate());
+    }
 
     @Test
     void testNullParameters() {
@@ -0,0 +1,122 @@
+import org.example.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalAggregatorTest {
+    private ForkJoinPool pool;
+    private JournalAggregator aggregator;
+    private FishingLocation lake;
+    private FishingLocation river;
+    private FishingGear gear;
+    private Bait worm;
+    private Bait lure;
+    private FishSpecies perch;
+    private FishSpecies pike;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        aggregator = new JournalAggregator(pool);
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        river = new FishingLocation("Река Быстрая", "Горная река");
+        gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        worm = new Bait("Червь", "Натуральная", "Красный");
+        lure = new Bait("Воблер", "Rapala", "Красный");
+        perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+        pike = new FishSpecies("Щука", "Хищная", 0.5, 15.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testClubWideQueries() {
+        ConcurrentFishingJournal ivan = aggregator.journal(new Fisherman("Иван", "Сидоров", "ivan"));
+        ConcurrentFishingJournal petr = aggregator.journal(new Fisherman("Петр", "Иванов", "petr"));
+        assertSame(ivan, aggregator.journal(new Fisherman("Иван", "Сидоров", "ivan")));
+        assertEquals(2, aggregator.getJournalCount());
+
+        FishingTrip ivanJuly = ivan.addTrip("2023-07-15", lake, "Солнечно", 25, 3, 755, 4, gear, worm);
+        ivan.addCatch(ivanJuly, perch, 0.5, 25);
+        ivan.addCatch(ivanJuly, perch, 0.4, 22);
+        FishingTrip ivanAugust = ivan.addTrip("2023-08-02", lake, "Облачно", 20, 5, 750, 3, gear, lure);
+        ivan.addCatch(ivanAugust, pike, 3.0, 60);
+
+        FishingTrip petrJuly = petr.addTrip("2023-07-20", lake, "Солнечно", 27, 2, 760, 5, gear, lure);
+        petr.addCatch(petrJuly, perch, 0.6, 27);
+        petr.addCatch(petrJuly, pike, 5.0, 80);
+        FishingTrip petrRiver = petr.addTrip("2023-07-21", river, "Дождь", 18, 7, 745, 2, gear, lure);
+        petr.addCatch(petrRiver, perch, 0.3, 20);
+
+        Map<FishSpecies, List<BaitCount>> topBaits = aggregator.topBaitsPerSpecies(1);
+        assertEquals(List.of(new BaitCount(lure, 2)), topBaits.get(pike));
+        assertEquals(1, topBaits.get(perch).size());
+        assertEquals(2, aggregator.topBaitsPerSpecies(5).get(perch).size());
+
+        Map<FishingLocation, Map<YearMonth, Long>> perMonth = aggregator.catchesPerLocationPerMonth();
+        assertEquals(Map.of(YearMonth.of(2023, 7), 4L, YearMonth.of(2023, 8), 1L), perMonth.get(lake));
+        assertEquals(Map.of(YearMonth.of(2023, 7), 1L), perMonth.get(river));
+
+        List<LeaderboardEntry> leaderboard = aggregator.leaderboardByWeight(10);
+        assertEquals(2, leaderboard.size());
+        assertEquals("petr", leaderboard.get(0).getFisherman().getUsername());
+        assertEquals(5.9, leaderboard.get(0).getTotalWeight(), 0.0001);
+        assertEquals(3, leaderboard.get(1).getTotalFish());
+        assertEquals(1, aggregator.leaderboardByWeight(1).size());
+    }
+
+    @Test
+    void testQueriesRunDuringIngestion() throws Exception {
+        int writers = 8;
+        int catchesPerWriter = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            Future<?>[] futures = new Future<?>[writers];
+            for (int w = 0; w < writers; w++) {
+                ConcurrentFishingJournal journal = aggregator.journal(new Fisherman("Рыбак", "" + w, "user" + w));
+                futures[w] = executor.submit(() -> {
+                    FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25, 3, 755, 4, gear, worm);
+                    for (int i = 0; i < catchesPerWriter; i++) {
+                        journal.addCatch(trip, perch, 1.0, 25);
+                    }
+                });
+            }
+            long previous = 0;
+            while (!done.get()) {
+                long seen = aggregator.leaderboardByWeight(writers).stream()
+                        .mapToLong(LeaderboardEntry::getTotalFish).sum();
+                assertTrue(seen >= previous, "Счетчики не должны уменьшаться");
+                previous = seen;
+                boolean all = true;
+                for (Future<?> future : futures) {
+                    all &= future.isDone();
+                }
+                done.set(all);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long total = (long) writers * catchesPerWriter;
+        assertEquals(total, aggregator.catchesPerLocationPerMonth().get(lake).get(YearMonth.of(2023, 7)));
+        assertEquals(List.of(new BaitCount(worm, total)), aggregator.topBaitsPerSpecies(3).get(perch));
+    }
+}
@@ -0,0 +1,178 @@
+
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalImporterTest {
+    private FishingJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+    }
+
+    @Test
+    void testCsvImport() {
+        String csv = "# история из другого приложения\n"
+                + "trip,2023-07-15,Озеро Глубокое,Пресное озеро,Солнечно,25.5,5,760,4.5,Удочка,Бренд,\"5 м, тест 10-30\",Червь,Натуральная,Красный\n"
+                + "catch,Щука,Хищная,0.5,15,3.2,65\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.45,22.0\r\n"
+                + "\n"
+                + "trip,2023-08-05,Река Быстрая,\"Река с \"\"течением\"\"\",Дождь,-1.5,7,750,3,Удочка,Бренд,\"5 м, тест 10-30\",,,\n"
+                + "catch,Щука,Хищная,0.5,15,2.0,55";
+
+        ImportResult result = new JournalImporter(journal, 1).importCsv(channel(csv));
+
+        assertFalse(result.hasErrors(), () -> result.getErrors().toString());
+        assertEquals(2, result.getTrips());
+        assertEquals(3, result.getCatches());
+
+        List<FishingTrip> trips = journal.getTrips();
+        assertEquals(2, trips.size());
+        FishingTrip lakeTrip = trips.get(0);
+        assertEquals("2023-07-15", lakeTrip.getDate());
+        assertEquals(25.5, lakeTrip.getTemperature(), 0.0);
+        assertEquals(760, lakeTrip.getPressure());
+        assertEquals("5 м, тест 10-30", lakeTrip.getGear().getSpecifications());
+        assertEquals(new Bait("Червь", "Натуральная", "Красный"), lakeTrip.getBait());
+
+        FishingTrip riverTrip = trips.get(1);
+        assertEquals("Река с \"течением\"", riverTrip.getLocation().getDescription());
+        assertEquals(-1.5, riverTrip.getTemperature(), 0.0);
+        assertNull(riverTrip.getBait());
+        assertSame(lakeTrip.getGear(), riverTrip.getGear());
+        assertSame(lakeTrip.getCatches().get(0).getSpecies(), riverTrip.getCatches().get(0).getSpecies());
+
+        assertEquals(3, journal.getStatistics().getTotalFish());
+        assertEquals(5.65, journal.getStatistics().getTotalWeight(), 0.001);
+        assertEquals(1, journal.filterByLocation("река").size());
+        assertEquals(1, journal.filterByDateRange("2023-07-01", "2023-07-31").size());
+    }
+
+    @Test
+    void testJsonLinesImport() {
+        String jsonl = "{\"type\": \"trip\", \"date\": \"2023-07-15\", \"location\": \"Озеро \\\"Глубокое\\\"\","
+                + " \"locationDescription\": null, \"weather\": \"\\u0421олнечно\", \"temperature\": 25,"
+                + " \"windSpeed\": 5, \"pressure\": 760, \"duration\": 4.5, \"baitType\": \"Червь\","
+                + " \"baitBrand\": \"Натуральная\", \"baitColor\": \"Красный\"}\n"
+                + "{\"weight\": 3.2, \"length\": 65, \"type\": \"catch\", \"species\": \"Щука\","
+                + " \"speciesDescription\": \"Хищная\", \"minWeight\": 0.5, \"maxWeight\": 1.5e1}\n";
+
+        ImportResult result = new JournalImporter(journal).importJsonLines(channel(jsonl));
+
+        assertFalse(result.hasErrors(), () -> result.getErrors().toString());
+        FishingTrip trip = journal.getTrips().get(0);
+        assertEquals("Озеро \"Глубокое\"", trip.getLocation().getName());
+        assertNull(trip.getLocation().getDescription());
+        assertEquals("Солнечно", trip.getWeatherConditions());
+        assertNull(trip.getGear());
+        assertEquals(15.0, trip.getCatches().get(0).getSpecies().getMaxWeight(), 0.0);
+        assertEquals(3.2, journal.getStatistics().getTotalWeight(), 0.0);
+    }
+
+    @Test
+    void testMalformedRowsAreReported() {
+        String csv = "trip,2023-07-15,Озеро,Пресное,Солнечно,25,5,760,4.5,Удочка,Бренд,5 м,Червь,Натуральная,Красный\n"
+                + "catch,Щука,Хищная,0.5,15,abc,65\n"
+                + "trip,2023-02-30,Озеро,Пресное,Солнечно,25,5,760,4.5,,,,,,\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.4,20\n"
+                + "trip,2023-07-16,Озеро,Пресное\n"
+                + "fish,Окунь\n"
+                + "trip,2023-07-17,Озеро,Пресное,Солнечно,25,5,99999999999,4.5,,,,,,\n"
+                + "trip,2023-07-18,Озеро,Пресное,Солнечно,25,5,760,4.5,,,,,,\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.4,20\n"
+                + "catch,Окунь,Пресноводная,0.1,2,NaN,20\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.4,1e400\n"
+                + "catch,Окунь,Пресноводная,0.1,-Infinity,0.4,20\n";
+
+        ImportResult result = new JournalImporter(journal).importCsv(channel(csv));
+
+        assertEquals(2, result.getTrips());
+        assertEquals(1, result.getCatches());
+        List<ImportError> errors = result.getErrors();
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L, 10L, 11L, 12L), errors.stream().map(ImportError::getLine).toList());
+        assertEquals(2, journal.getTrips().size());
+        assertEquals(1, journal.getStatistics().getTotalFish());
+    }
+
+    @Test
+    void testCatchAfterUnparsedRowIsNotAttachedToPreviousTrip() {
+        String jsonl = "{\"type\": \"trip\", \"date\": \"2023-07-15\", \"location\": \"Озеро\","
+                + " \"temperature\": 25, \"windSpeed\": 5, \"pressure\": 760, \"duration\": 4.5}\n"
+                + "{\"type\": \"trip\", \"date\": \"2023-07-16\", \"location\": \n"
+                + "{\"type\": \"catch\", \"species\": \"Щука\", \"minWeight\": 0.5, \"maxWeight\": 15,"
+                + " \"weight\": 3.2, \"length\": 65}\n";
+
+        ImportResult jsonResult = new JournalImporter(journal).importJsonLines(channel(jsonl));
+
+        assertEquals(1, jsonResult.getTrips(), () -> jsonResult.getErrors().toString());
+        assertEquals(0, jsonResult.getCatches());
+        assertEquals(List.of(2L, 3L), jsonResult.getErrors().stream().map(ImportError::getLine).toList());
+
+        String csv = "trip,2023-07-17,Озеро,Пресное,Солнечно,25,5,760,4.5,,,,,,\n"
+                + "fish,Окунь\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.4,20\n";
+
+        ImportResult csvResult = new JournalImporter(journal).importCsv(channel(csv));
+
+        assertEquals(1, csvResult.getTrips());
+        assertEquals(0, csvResult.getCatches());
+        assertEquals(List.of(2L, 3L), csvResult.getErrors().stream().map(ImportError::getLine).toList());
+        assertEquals(0, journal.getStatistics().getTotalFish());
+    }
+
+    @Test
+    void testImportIntoConcurrentJournalWithTripIds() {
+        ConcurrentFishingJournal concurrent = new ConcurrentFishingJournal(
+                new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        String first = "{\"type\": \"trip\", \"date\": \"2023-07-15\", \"location\": \"Озеро\","
+                + " \"weather\": \"Солнечно\", \"temperature\": 25, \"windSpeed\": 5, \"pressure\": 760,"
+                + " \"duration\": 4.5, \"baitType\": \"Червь\"}\n"
+                + "{\"type\": \"catch\", \"species\": \"Щука\", \"minWeight\": 0.5, \"maxWeight\": 15,"
+                + " \"weight\": 3.2, \"length\": 65}\n"
+                + "{\"type\": \"trip\", \"date\": \"2023-07-16\", \"location\": \"Река\","
+                + " \"temperature\": 20, \"windSpeed\": 3, \"pressure\": 755, \"duration\": 2}\n";
+        ImportResult trips = new JournalImporter(concurrent, 1).importJsonLines(channel(first));
+        assertFalse(trips.hasErrors(), () -> trips.getErrors().toString());
+        assertEquals(2, concurrent.getTripCount());
+
+        String csv = "catch,Окунь,Пресноводная,0.1,2,0.4,20,2\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.5,21,2\n"
+                + "catch,Окунь,Пресноводная,0.1,2,0.5,21,7\n";
+        ImportResult catches = new JournalImporter(concurrent).importCsv(channel(csv));
+
+        assertEquals(2, catches.getCatches());
+        assertEquals(List.of(3L), catches.getErrors().stream().map(ImportError::getLine).toList());
+        assertEquals(1, concurrent.getTrip(1).getCatches().size());
+        assertEquals(2, concurrent.getTrip(2).getCatches().size());
+        assertEquals(3, concurrent.getStatistics().getTotalFish());
+        assertEquals(4.1, concurrent.getStatistics().getTotalWeight(), 0.001);
+    }
+
+    @Test
+    void testTripIdCatchOfTripFromSameImport() {
+        String csv = "trip,2023-07-15,Озеро,Пресное,Солнечно,25,5,760,4.5,,,,,,\n"
+                + "catch,Щука,Хищная,0.5,15,3.2,65,1\n"
+                + "catch,Щука,Хищная,0.5,15,3.2,65,5\n";
+
+        ImportResult result = new JournalImporter(journal).importCsv(channel(csv));
+
+        assertEquals(1, result.getCatches());
+        assertEquals(List.of(3L), result.getErrors().stream().map(ImportError::getLine).toList());
+        assertEquals(1, journal.getTrip(1).getTotalFish());
+        assertEquals(1, journal.getStatistics().getTotalFish());
+        assertEquals(3.2, journal.getStatistics().getTotalWeight(), 0.001);
+    }
+
+    private static ReadableByteChannel channel(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,91 @@
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalMetricsTest {
+    private FishingJournal journal;
+    private JournalMetrics metrics;
+    private FishingLocation lake;
+    private FishingGear gear;
+    private Bait bait;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "metrics_angler"));
+        metrics = journal.enableMetrics();
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        bait = new Bait("Червь", "Натуральная", "Красный");
+    }
+
+    @Test
+    void testOperationsAreCountedAndTimed() {
+        FishSpecies perch = new FishSpecies("Окунь", "Perca fluviatilis", 0.1, 2.0);
+        FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+        journal.addTrip("2023-07-22", new FishingLocation("Река Быстрая", "Река"), "Дождь", 18.0, 7, 750, 3.5,
+                gear, new Bait("Блесна", "Искусственная", "Серебро"));
+        journal.addCatch(trip, perch, 0.5, 25);
+        journal.addCatch(trip, perch, 0.7, 28);
+        journal.addCatch(trip, perch, 2.5, 40);
+        journal.filterByLocation("Озеро");
+        journal.filterByDateRange("2023-07-01", "2023-07-31");
+        journal.getStatistics();
+
+        assertEquals(2, metrics.getOperationStats(JournalOperation.ADD_TRIP).getCount());
+        assertEquals(3, metrics.getOperationStats(JournalOperation.ADD_CATCH).getCount());
+        assertEquals(1, metrics.getOperationStats(JournalOperation.FILTER_BY_LOCATION).getCount());
+        assertEquals(1, metrics.getOperationStats(JournalOperation.FILTER_BY_DATE_RANGE).getCount());
+        assertEquals(0, metrics.getOperationStats(JournalOperation.QUERY).getCount(),
+                "Фильтры не должны учитываться еще и как query");
+        OperationStats addTrip = metrics.getOperationStats(JournalOperation.ADD_TRIP);
+        assertTrue(addTrip.getMaxNanos() > 0);
+        assertTrue(addTrip.getP50Nanos() <= addTrip.getMaxNanos());
+
+        assertEquals(2, metrics.getTripCount());
+        assertEquals(3, metrics.getCatchCount());
+        assertEquals(1, metrics.getOutlierCount());
+        assertEquals(2, metrics.getDistinctLocations());
+        assertEquals(2, metrics.getDistinctBaits());
+        assertEquals(1, metrics.getDistinctSpecies());
+        assertTrue(metrics.getEstimatedHeapBytes() > 0);
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 * 0.04);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 * 0.04);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    @Test
+    void testJmxExposure() throws Exception {
+        journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+        ObjectName name = metrics.registerMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1, server.getAttribute(name, "TripCount"));
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            assertEquals(JournalOperation.values().length, operations.length);
+            assertEquals("ADD_TRIP", operations[0].get("operation"));
+            assertEquals(1L, operations[0].get("count"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
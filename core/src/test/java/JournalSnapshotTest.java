@@ -0,0 +1,111 @@
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalSnapshotTest {
+    @TempDir
+    Path dir;
+
+    private FishingJournal journal;
+    private FishingLocation lake;
+    private FishSpecies perch;
+    private FishSpecies pike;
+    private Bait worm;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        FishingLocation river = new FishingLocation("Река Быстрая", "Река с течением");
+        FishingGear rod = new FishingGear("Удочка", "Бренд", "Характеристики");
+        worm = new Bait("Червь", "Натуральная", "Красный");
+        perch = new FishSpecies("Окунь", "Perca fluviatilis", 0.1, 2.0);
+        pike = new FishSpecies("Щука", "Esox lucius", 0.5, 20.0);
+
+        FishingTrip first = journal.addTrip("2023-07-15", lake, "Солнечно", 25.5, 5, 760, 4.5, rod, worm);
+        journal.addCatch(first, perch, 0.5, 25);
+        journal.addCatch(first, pike, 2.25, 60);
+        journal.addTrip("2023-07-01", river, null, -3.0, -1, 745, 2.0, null, null);
+        FishingTrip third = journal.addTrip("15.08.2023", null, "Дождь", 18.0, 7, 750, 3.5, rod, worm);
+        journal.addCatch(third, perch, 0.3, 20);
+        journal.addTrip("2023-08-20", lake, "солнечно", 21.0, 2, 758, 6.0, rod, new Bait("Блесна", "Mepps", "Серебро"));
+    }
+
+    @Test
+    void testRoundTrip() {
+        Path file = dir.resolve("journal.snap");
+        JournalSnapshot.write(journal, file);
+        FishingJournal loaded = JournalSnapshot.open(file).toJournal();
+
+        assertEquals(journal.getFisherman(), loaded.getFisherman());
+        List<FishingTrip> expected = journal.getTrips();
+        List<FishingTrip> actual = loaded.getTrips();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            FishingTrip e = expected.get(i);
+            FishingTrip a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getDate(), a.getDate());
+            assertEquals(e.getLocation(), a.getLocation());
+            assertEquals(e.getWeatherConditions(), a.getWeatherConditions());
+            assertEquals(e.getTemperature(), a.getTemperature());
+            assertEquals(e.getWindSpeed(), a.getWindSpeed());
+            assertEquals(e.getPressure(), a.getPressure());
+            assertEquals(e.getDuration(), a.getDuration());
+            assertEquals(e.getGear(), a.getGear());
+            assertEquals(e.getBait(), a.getBait());
+            assertEquals(e.getCatches(), a.getCatches());
+        }
+        assertEquals(journal.getStatistics(), loaded.getStatistics());
+        assertEquals(journal.getBaitEffectiveness(), loaded.getBaitEffectiveness());
+        assertEquals(2, loaded.filterByDateRange("2023-07-01", "2023-07-31").size());
+    }
+
+    @Test
+    void testQueryBeforeMaterialization() {
+        Path file = dir.resolve("journal.snap");
+        JournalSnapshot.write(journal, file);
+        JournalSnapshot snapshot = JournalSnapshot.open(file);
+        assertEquals(4, snapshot.tripCount());
+        assertEquals(3, snapshot.catchCount());
+
+        List<TripQuery> queries = List.of(
+                TripQuery.builder().build(),
+                TripQuery.builder().location("озеро").build(),
+                TripQuery.builder().dateRange(LocalDate.of(2023, 7, 1), LocalDate.of(2023, 7, 31)).build(),
+                TripQuery.builder().species(perch).build(),
+                TripQuery.builder().bait(worm).temperature(0, 30).build(),
+                TripQuery.builder().weather("СОЛНЕЧНО").build(),
+                TripQuery.builder().windSpeed(-5, 0).build(),
+                TripQuery.builder().species(new FishSpecies("Лещ", "Abramis brama", 0.2, 6.0)).build());
+        for (TripQuery query : queries) {
+            List<Long> expected = journal.query(query).stream().map(FishingTrip::getId).toList();
+            List<Long> actual = snapshot.query(query).stream().map(FishingTrip::getId).toList();
+            assertEquals(expected, actual, query.toString());
+        }
+        assertSame(snapshot.trip(0), snapshot.query(queries.get(1)).get(0));
+    }
+
+    @Test
+    void testRejectsDamagedFile() throws Exception {
+        Path file = dir.resolve("journal.snap");
+        JournalSnapshot.write(journal, file);
+        byte[] data = Files.readAllBytes(file);
+        data[data.length / 2] ^= 1;
+        Path damaged = dir.resolve("damaged.snap");
+        Files.write(damaged, data);
+        assertThrows(IllegalStateException.class, () -> JournalSnapshot.open(damaged));
+
+        Path other = dir.resolve("other.snap");
+        Files.writeString(other, "trip,2023-07-15,Озеро");
+        assertThrows(IllegalStateException.class, () -> JournalSnapshot.open(other));
+    }
+}
@@ -0,0 +1,84 @@
+import org.example.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapStorageTest {
+    private final FishingLocation lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+    private final FishingLocation river = new FishingLocation("Река Быстрая", "Река с течением");
+    private final FishingGear gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+    private final Bait worm = new Bait("Червь", "Натуральная", "Красный");
+    private final FishSpecies perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+
+    @Test
+    void testTripsReadBackFromOffHeapRecords() {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan"),
+                JournalStorage.OFF_HEAP);
+        // Поездок больше начального блока буфера, ссылки на объекты поездок не сохраняются
+        for (int i = 0; i < 5_000; i++) {
+            FishingTrip trip = journal.addTrip(i % 2 == 0 ? "2023-07-15" : "2023-08-05", i % 2 == 0 ? lake : river,
+                    "Солнечно", 20.5, 3, 755, 4.5, gear, i % 3 == 0 ? null : worm);
+            journal.addCatch(trip, perch, 0.25 + i % 7, 20);
+            journal.addCatch(trip, perch, 0.5, 21.5);
+        }
+        System.gc();
+
+        FishingTrip trip = journal.getTrip(4_000);
+        assertEquals(4_000, trip.getId());
+        assertEquals("2023-08-05", trip.getDate());
+        assertEquals(river, trip.getLocation());
+        assertNull(trip.getBait());
+        assertEquals(20.5, trip.getTemperature());
+        assertEquals(755, trip.getPressure());
+        assertEquals(List.of(new CatchRecord(perch, 0.25 + 3_999 % 7, 20), new CatchRecord(perch, 0.5, 21.5)),
+                trip.getCatches());
+        assertEquals(worm, journal.getTrip(2).getBait());
+        assertSame(trip, journal.getTrip(4_000), "объект поездки один, пока на него есть ссылка");
+
+        journal.addCatch(trip, perch, 1.0, 30);
+        trip = null;
+        System.gc();
+        assertEquals(3, journal.getTrip(4_000).getTotalFish());
+        assertEquals(2_500, journal.filterByLocation("Река").size());
+        assertEquals(10_001, journal.getStatistics().getTotalFish());
+    }
+
+    @Test
+    void testTripInJournalIsReadOnly() {
+        FishingJournal journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan"),
+                JournalStorage.OFF_HEAP);
+        FishingTrip trip = journal.addTrip("2023-07-15", lake, "Солнечно", 20.5, 3, 755, 4.5, gear, worm);
+
+        // Изменение объекта не попало бы в запись и пропало бы после сборки мусора
+        assertThrows(IllegalStateException.class, () -> trip.setDate("2023-07-16"));
+        assertThrows(IllegalStateException.class, () -> trip.setCatches(List.of()));
+        assertThrows(IllegalStateException.class, () -> trip.addCatch(new CatchRecord(perch, 1.0, 30)));
+        assertThrows(UnsupportedOperationException.class, () -> trip.getCatches().add(new CatchRecord(perch, 1.0, 30)));
+
+        journal.addCatch(trip, perch, 1.0, 30);
+        assertEquals(1, trip.getTotalFish());
+        assertEquals("2023-07-15", trip.getDate());
+        assertEquals(1, journal.filterByDateRange("2023-07-15", "2023-07-15").size());
+    }
+
+    @Test
+    void testStorageFromSystemProperty() {
+        String previous = System.getProperty(JournalStorage.PROPERTY);
+        try {
+            System.setProperty(JournalStorage.PROPERTY, "offheap");
+            assertEquals(JournalStorage.OFF_HEAP, JournalStorage.fromSystemProperty());
+            System.setProperty(JournalStorage.PROPERTY, "Heap");
+            assertEquals(JournalStorage.HEAP, JournalStorage.fromSystemProperty());
+            System.setProperty(JournalStorage.PROPERTY, "disk");
+            assertThrows(IllegalArgumentException.class, JournalStorage::fromSystemProperty);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(JournalStorage.PROPERTY);
+            } else {
+                System.setProperty(JournalStorage.PROPERTY, previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryCacheTest {
+    private FishingJournal journal;
+    private FishingLocation lake;
+    private FishingLocation river;
+    private FishingGear gear;
+    private Bait bait;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        lake = new FishingLocation("Озеро Глубокое", "Пресное озеро");
+        river = new FishingLocation("Река Быстрая", "Река с течением");
+        gear = new FishingGear("Удочка", "Бренд", "Характеристики");
+        bait = new Bait("Червь", "Натуральная", "Красный");
+
+        journal.addTrip("2023-07-15", lake, "Солнечно", 25.0, 5, 760, 4.5, gear, bait);
+        journal.addTrip("2023-07-22", lake, "Пасмурно", 20.0, 3, 755, 6.0, gear, bait);
+        journal.addTrip("2023-08-05", river, "Дождь", 18.0, 7, 750, 3.5, gear, bait);
+        journal.enableQueryCache(2);
+    }
+
+    @Test
+    void testRepeatedQueryHitsCache() {
+        assertNull(new FishingJournal(new Fisherman("Петр", "Петров", "petr")).getQueryCacheStats());
+
+        List<FishingTrip> first = journal.filterByLocation("Озеро");
+        first.clear();
+        List<FishingTrip> second = journal.filterByLocation("Озеро");
+
+        assertEquals(2, second.size(), "Изменение полученного списка не должно портить кеш");
+        QueryCacheStats stats = journal.getQueryCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testAddTripInvalidatesOnlyMatchingQueries() {
+        journal.filterByLocation("Озеро");
+        journal.filterByDateRange("2023-08-01", "2023-08-31");
+
+        journal.addTrip("2023-07-29", lake, "Ветрено", 22.0, 9, 745, 2.0, gear, bait);
+
+        QueryCacheStats stats = journal.getQueryCacheStats();
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(1, stats.getSize());
+        assertEquals(3, journal.filterByLocation("Озеро").size());
+        assertEquals(1, journal.filterByDateRange("2023-08-01", "2023-08-31").size());
+        assertEquals(1, journal.getQueryCacheStats().getHits());
+    }
+
+    @Test
+    void testAddCatchInvalidatesSpeciesQueries() {
+        FishSpecies perch = new FishSpecies("Окунь", "Perca fluviatilis", 0.1, 2.0);
+        TripQuery perchQuery = TripQuery.builder().species(perch).build();
+        TripQuery lakeQuery = TripQuery.builder().location("Озеро").build();
+        assertTrue(journal.query(perchQuery).isEmpty());
+        journal.query(lakeQuery);
+
+        journal.addCatch(journal.getTrip(3), perch, 0.5, 25);
+
+        assertEquals(1, journal.getQueryCacheStats().getInvalidations());
+        assertEquals(List.of(journal.getTrip(3)), journal.query(perchQuery));
+        assertEquals(2, journal.query(lakeQuery).size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        journal.filterByLocation("Озеро");
+        journal.filterByLocation("Река");
+        journal.filterByLocation("Озеро");
+        journal.filterByDateRange("2023-07-01", "2023-07-31");
+
+        QueryCacheStats stats = journal.getQueryCacheStats();
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+        journal.filterByLocation("Озеро");
+        assertEquals(2, journal.getQueryCacheStats().getHits());
+        journal.filterByLocation("Река");
+        assertEquals(4, journal.getQueryCacheStats().getMisses());
+    }
+
+    @Test
+    void testConcurrentReads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String place = i % 2 == 0 ? "Озеро" : "Река";
+                results.add(executor.submit(() -> journal.filterByLocation(place).size()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? 2 : 1, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        QueryCacheStats stats = journal.getQueryCacheStats();
+        assertEquals(200, stats.getHits() + stats.getMisses());
+        assertEquals(2, stats.getMisses());
+    }
+}
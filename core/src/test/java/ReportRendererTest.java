@@ -0,0 +1,103 @@
+import org.example.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportRendererTest {
+    private FishingJournal journal;
+    private FishingTrip trip;
+    private FishSpecies perch;
+    private Bait lure;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FishingJournal(new Fisherman("Иван", "Сидоров", "ivan_angler"));
+        perch = new FishSpecies("Окунь", "Пресноводная", 0.1, 2.0);
+        lure = new Bait("Воблер", "Rapala", "Красный");
+        trip = journal.addTrip("2023-07-15", new FishingLocation("Озеро \"Глубокое\"", "Пресное озеро"), "Солнечно",
+                25, 2, 755, 4.5, new FishingGear("Спиннинг", "Shimano", "2.1 м"), lure);
+        journal.addCatch(trip, perch, 0.455, 22.0);
+        journal.addCatch(trip, perch, 0.38, 20.5);
+    }
+
+    @Test
+    void testTextTripReport() throws Exception {
+        StringBuilder out = new StringBuilder();
+        new ReportRenderer(ReportFormat.TEXT).renderTrip(trip, out);
+        assertEquals("Дата: 2023-07-15\n" +
+                "Место: Озеро \"Глубокое\" (Пресное озеро)\n" +
+                "Погода: Солнечно\n" +
+                "Длительность: 4.5 часов\n" +
+                "Снасть: Спиннинг, Shimano (2.1 м)\n" +
+                "Приманка: Воблер, Rapala, Красный\n" +
+                "\n" +
+                "Улов (2 рыб, 0.84 кг):\n" +
+                " - Окунь: 0.46 кг, 22.0 см\n" +
+                " - Окунь: 0.38 кг, 20.5 см\n", out.toString());
+    }
+
+    @Test
+    void testTextRoundsHalfUpLikeStringFormat() throws Exception {
+        FishingTrip halves = journal.addTrip("2023-07-16", trip.getLocation(), "Облачно", 18, 4, 750, 0.25, null, null);
+        journal.addCatch(halves, perch, 2.675, 1.45);
+        journal.addCatch(halves, perch, 1.005, 10.05);
+        StringBuilder out = new StringBuilder();
+        new ReportRenderer(ReportFormat.TEXT).renderTrip(halves, out);
+        assertTrue(out.toString().contains("Длительность: 0.3 часов\n"), out::toString);
+        assertTrue(out.toString().endsWith("Улов (2 рыб, 3.68 кг):\n"
+                + " - Окунь: 2.68 кг, 1.5 см\n"
+                + " - Окунь: 1.01 кг, 10.1 см\n"), out::toString);
+    }
+
+    @Test
+    void testJsonReports() throws Exception {
+        ReportRenderer renderer = new ReportRenderer(ReportFormat.JSON);
+        StringBuilder out = new StringBuilder();
+        renderer.renderTrip(trip, out);
+        assertTrue(out.toString().startsWith("{\"id\":1,\"date\":\"2023-07-15\",\"location\":{\"name\":\"Озеро \\\"Глубокое\\\"\""));
+        assertTrue(out.toString().endsWith("\"catches\":[{\"species\":\"Окунь\",\"weight\":0.455,\"length\":22.0},"
+                + "{\"species\":\"Окунь\",\"weight\":0.38,\"length\":20.5}]}"));
+
+        StringBuilder baits = new StringBuilder();
+        renderer.renderBaitEffectiveness(Map.of(lure, Map.of(perch, 2L)), baits);
+        assertEquals("[{\"bait\":{\"type\":\"Воблер\",\"brand\":\"Rapala\",\"color\":\"Красный\"},"
+                + "\"catches\":{\"Окунь\":2}}]\n", baits.toString());
+
+        StringBuilder species = new StringBuilder();
+        renderer.renderSpeciesStats(journal.getSpeciesStatistics(), species);
+        assertTrue(species.toString().startsWith("[{\"species\":\"Окунь\",\"count\":2,"));
+
+        FishingTrip cold = new FishingTrip("2023-12-01", null, null, Double.NaN, 0, 0, Double.POSITIVE_INFINITY,
+                null, null);
+        StringBuilder invalid = new StringBuilder();
+        renderer.renderTrip(cold, invalid);
+        assertTrue(invalid.toString().contains("\"temperature\":null,"), invalid::toString);
+        assertTrue(invalid.toString().contains("\"duration\":null,"), invalid::toString);
+    }
+
+    @Test
+    void testBatchToChannelMatchesAppendable() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            FishingTrip extra = journal.addTrip("2023-08-01", trip.getLocation(), "Облачно", 18, 4, 750, 3.0,
+                    trip.getGear(), lure);
+            journal.addCatch(extra, perch, 0.2 + i % 7 * 0.1, 18.0);
+        }
+        List<FishingTrip> trips = journal.getTrips();
+        for (ReportFormat format : ReportFormat.values()) {
+            ReportRenderer renderer = new ReportRenderer(format);
+            StringBuilder text = new StringBuilder();
+            renderer.renderTrips(trips, text);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            renderer.renderTrips(journal.stream()::iterator, Channels.newChannel(bytes));
+            assertEquals(text.toString(), bytes.toString(StandardCharsets.UTF_8));
+        }
+    }
+}